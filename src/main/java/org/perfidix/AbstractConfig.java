@@ -26,7 +26,9 @@
  */
 package org.perfidix;
 
+import org.perfidix.element.AbstractMethodArrangement;
 import org.perfidix.element.KindOfArrangement;
+import org.perfidix.element.KindOfGc;
 import org.perfidix.meter.AbstractMeter;
 import org.perfidix.meter.Time;
 import org.perfidix.meter.TimeMeter;
@@ -61,6 +63,8 @@ import org.perfidix.ouput.AbstractOutput;
  * </pre>
  * 
  * </p>
+ * Further settings like the number of forked JVMs are given by overriding the
+ * related non-final getters.
  * 
  * @author Sebastian Graf, University of Konstanz
  */
@@ -83,6 +87,57 @@ public abstract class AbstractConfig {
     /** Standard gc-prob */
     private final static double GARBAGE_PROB = 1d;
 
+    /** Standard forks, no forking at all */
+    private final static int FORKS = 0;
+
+    /** Standard cpus of the forks, no pinning at all */
+    private final static String[] FORK_CPUS = {};
+
+    /** Standard warmup runs, no warmup at all */
+    private final static int WARMUP_RUNS = 0;
+
+    /** Standard duration, runs are count-based */
+    private final static long DURATION = 0;
+
+    /** Standard unit of the duration */
+    private final static Time DURATION_UNIT = Time.Seconds;
+
+    /** Standard confidence target, no adaptive runs at all */
+    private final static double CONFIDENCE_TARGET = 0d;
+
+    /** Standard maximum of runs per method in adaptive mode */
+    private final static int MAX_ADAPTIVE_RUNS = 1000;
+
+    /** Standard maximum of milliseconds per method in adaptive mode */
+    private final static long MAX_ADAPTIVE_TIME = 60000;
+
+    /** Standard timeout of one invocation, no timeout at all */
+    private final static long TIMEOUT = 0;
+
+    /** Standard gc policy, gc with the probability of the configuration */
+    private final static KindOfGc GC = KindOfGc.RandomGc;
+
+    /** Standard rounds of a round arrangement, one round per run */
+    private final static int ROUNDS = 0;
+
+    /** Standard seed of the random arrangements */
+    private final static long SEED = AbstractMethodArrangement.DEFAULT_SEED;
+
+    /** Standard checkpoint file, no checkpoints at all */
+    private final static String CHECKPOINT_FILE = null;
+
+    /** Standard milliseconds between two checkpoints */
+    private final static long CHECKPOINT_INTERVAL = 60000;
+
+    /** Standard handling of an existing checkpoint, not resumed */
+    private final static boolean RESUMED = false;
+
+    /** Standard calibration runs, no calibration at all */
+    private final static int CALIBRATION_RUNS = 0;
+
+    /** Standard handling of the calibration, reported only */
+    private final static boolean CALIBRATION_SUBTRACTED = false;
+
     /** actual value for runs */
     private transient final int runs;
 
@@ -164,6 +219,229 @@ public abstract class AbstractConfig {
         return arrangement;
     }
 
+    /**
+     * Getter for the number of forks. Each registered class is benched in
+     * this number of freshly spawned JVMs, 0 means that everything is benched
+     * in the current JVM. Override this method to enable forking.
+     * 
+     * @return the number of forks per class
+     */
+    public int getForks() {
+        return FORKS;
+    }
+
+    /**
+     * Getter for the cpus the forks are pinned to. Fork i is pinned to the
+     * cpu list at index i modulo the length of the array, each list given in
+     * the syntax of <code>taskset -c</code> like "2", "4-7" or "1,3". Pinning
+     * takes place on Linux only. Override this method to pin the forks to
+     * cores not used by the harness.
+     * 
+     * @return the cpu lists, empty if the forks are not pinned
+     */
+    public String[] getForkCpus() {
+        return FORK_CPUS.clone();
+    }
+
+    /**
+     * Getter for the number of warmup runs. Each bench is executed this number
+     * of times before the measured runs, the warmup data is not passed to the
+     * listeners and stored separately. Override this method to enable warmup.
+     * 
+     * @return the number of warmup runs per bench
+     */
+    public int getWarmupRuns() {
+        return WARMUP_RUNS;
+    }
+
+    /**
+     * Getter for the wall-clock budget of each bench not given a number of
+     * runs by annotation. If greater than 0, such benches are executed
+     * repeatedly until the budget is spent instead of {@link #getRuns()}
+     * times. Override this method to enable time-boxed runs.
+     * 
+     * @return the budget per bench in the unit of {@link #getDurationUnit()}
+     */
+    public long getDuration() {
+        return DURATION;
+    }
+
+    /**
+     * Getter for the unit of {@link #getDuration()}.
+     * 
+     * @return the unit of the budget
+     */
+    public Time getDurationUnit() {
+        return DURATION_UNIT;
+    }
+
+    /**
+     * Getter for the confidence target of the adaptive mode. If greater than 0,
+     * each method is benched after its fixed runs until the width of the 95%
+     * confidence interval of its mean relative to the mean is below this
+     * target for the meter of {@link #getConfidenceMeter()} or until one of
+     * the caps of {@link #getMaxAdaptiveRuns()} and
+     * {@link #getMaxAdaptiveTime()} is hit. Override this method to enable the
+     * adaptive mode.
+     * 
+     * @return the relative width of the confidence interval to be reached,
+     *         e.g. 0.05 for 5%
+     */
+    public double getConfidenceTarget() {
+        return CONFIDENCE_TARGET;
+    }
+
+    /**
+     * Getter for the meter whose data has to reach the confidence target of
+     * the adaptive mode. Other meters are not considered since a mean near 0,
+     * e.g. of a counting meter, never reaches a relative target. Override this
+     * method to choose another meter.
+     * 
+     * @return the first {@link TimeMeter} of {@link #getMeters()}, the first
+     *         meter if no time meter is configured, null without any meter
+     */
+    public AbstractMeter getConfidenceMeter() {
+        AbstractMeter returnVal = null;
+        for (final AbstractMeter meter : meters) {
+            if (returnVal == null || (meter instanceof TimeMeter && !(returnVal instanceof TimeMeter))) {
+                returnVal = meter;
+            }
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getter for the maximum number of runs per method in the adaptive mode,
+     * including the fixed runs.
+     * 
+     * @return the maximum number of runs per method
+     */
+    public int getMaxAdaptiveRuns() {
+        return MAX_ADAPTIVE_RUNS;
+    }
+
+    /**
+     * Getter for the maximum time spent on the adaptive runs of one method.
+     * 
+     * @return the maximum time in milliseconds per method
+     */
+    public long getMaxAdaptiveTime() {
+        return MAX_ADAPTIVE_TIME;
+    }
+
+    /**
+     * Getter for the number of calibration runs. If greater than 0, an empty
+     * bench is executed this number of times before all other benches to
+     * measure the overhead of the meters and the invocation. The overhead is
+     * stored in the CalibrationResult of the BenchmarkResult. Override this
+     * method to enable the calibration.
+     * 
+     * @return the number of calibration runs
+     */
+    public int getCalibrationRuns() {
+        return CALIBRATION_RUNS;
+    }
+
+    /**
+     * Getter for the handling of the calibration. If true, the mean overhead
+     * of each meter is subtracted from each measured dataset. Override this
+     * method to enable the subtraction.
+     * 
+     * @return true if the overhead is subtracted, false if only reported
+     */
+    public boolean isCalibrationSubtracted() {
+        return CALIBRATION_SUBTRACTED;
+    }
+
+    /**
+     * Getter for the time in milliseconds one invocation of a bench may take
+     * if the bench does not annotate its own timeout. A run exceeding the
+     * timeout is interrupted and stored as timeout, a run ignoring the
+     * interrupt for another timeout is abandoned and the remaining runs of the
+     * bench are skipped. Override this method to guard all benches.
+     * 
+     * @return the timeout in milliseconds, 0 for no timeout
+     */
+    public long getTimeout() {
+        return TIMEOUT;
+    }
+
+    /**
+     * Getter for the policy of garbage collections between the runs. The
+     * default policy invokes a gc before each run with the probability of
+     * {@link #getGcProb()}. Override this method to choose another policy,
+     * e.g. {@link KindOfGc#MethodGc} for a quiescent heap whenever the benched
+     * method changes.
+     * 
+     * @return the gc policy
+     */
+    public KindOfGc getGc() {
+        return GC;
+    }
+
+    /**
+     * Getter for the number of rounds of the arrangements
+     * {@link KindOfArrangement#RandomizedBlockArrangement} and
+     * {@link KindOfArrangement#InterleavedArrangement}. The runs of each method
+     * are split into blocks, one per round, and the data of each round is
+     * stored separately. Values smaller than 1 or greater than the runs of a
+     * method result in one round per run. Ignored by all other arrangements.
+     * 
+     * @return the number of rounds
+     */
+    public int getRounds() {
+        return ROUNDS;
+    }
+
+    /**
+     * Getter for the seed of the random arrangements
+     * {@link KindOfArrangement#ShuffleArrangement},
+     * {@link KindOfArrangement#RandomizedBlockArrangement} and
+     * {@link KindOfArrangement#InterleavedArrangement}. The same seed results
+     * in the same order of the runs, the seed is recorded in the
+     * {@link org.perfidix.result.BenchmarkResult} to reproduce a session. Each
+     * fork adds its index to the seed to get an order of its own.
+     * 
+     * @return the seed
+     */
+    public long getSeed() {
+        return SEED;
+    }
+
+    /**
+     * Getter for the file the progress of the benchmark is checkpointed to.
+     * The partial result and the completed runs are saved periodically, the
+     * file is deleted after the benchmark completed. Override this method to
+     * checkpoint long sessions. Neither forks nor the work units of
+     * distributed workers are checkpointed.
+     * 
+     * @return the path of the checkpoint file, null for no checkpoints
+     */
+    public String getCheckpointFile() {
+        return CHECKPOINT_FILE;
+    }
+
+    /**
+     * Getter for the minimal time in milliseconds between two checkpoints.
+     * 
+     * @return the interval in milliseconds
+     */
+    public long getCheckpointInterval() {
+        return CHECKPOINT_INTERVAL;
+    }
+
+    /**
+     * Getter if a benchmark is resumed from an existing checkpoint file. The
+     * result of the checkpoint is restored and the completed runs are skipped,
+     * warmup and calibration are executed again. Without a checkpoint file
+     * the benchmark starts from scratch.
+     * 
+     * @return true if the benchmark is resumed
+     */
+    public boolean isResumed() {
+        return RESUMED;
+    }
+
     /**
      * Standard config.
      * 
@@ -179,4 +457,148 @@ public abstract class AbstractConfig {
         }
 
     }
+
+    /**
+     * Config taking all settings from another config but with different
+     * listeners.
+     * 
+     * @author Sebastian Graf, University of Konstanz
+     */
+    public static class DelegatingConfig extends AbstractConfig {
+
+        /** Config where all settings are taken from. */
+        private transient final AbstractConfig base;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramBase
+         *            config where all settings are taken from
+         * @param paramOutput
+         *            listeners to be used instead of the ones of the base
+         */
+        public DelegatingConfig(final AbstractConfig paramBase, final AbstractOutput... paramOutput) {
+            super(paramBase.getRuns(), paramBase.getMeters(), paramOutput, paramBase.getArrangement(),
+                paramBase.getGcProb());
+            base = paramBase;
+        }
+
+        /**
+         * Getter for member base
+         * 
+         * @return the config where all settings are taken from
+         */
+        public final AbstractConfig getBase() {
+            return base;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getForks() {
+            return base.getForks();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String[] getForkCpus() {
+            return base.getForkCpus();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getWarmupRuns() {
+            return base.getWarmupRuns();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getDuration() {
+            return base.getDuration();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Time getDurationUnit() {
+            return base.getDurationUnit();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getConfidenceTarget() {
+            return base.getConfidenceTarget();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbstractMeter getConfidenceMeter() {
+            return base.getConfidenceMeter();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getMaxAdaptiveRuns() {
+            return base.getMaxAdaptiveRuns();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getMaxAdaptiveTime() {
+            return base.getMaxAdaptiveTime();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getCalibrationRuns() {
+            return base.getCalibrationRuns();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isCalibrationSubtracted() {
+            return base.isCalibrationSubtracted();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public KindOfGc getGc() {
+            return base.getGc();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getTimeout() {
+            return base.getTimeout();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getRounds() {
+            return base.getRounds();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getSeed() {
+            return base.getSeed();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getCheckpointFile() {
+            return base.getCheckpointFile();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getCheckpointInterval() {
+            return base.getCheckpointInterval();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isResumed() {
+            return base.isResumed();
+        }
+
+    }
 }
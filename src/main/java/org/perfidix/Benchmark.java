@@ -26,28 +26,40 @@
  */
 package org.perfidix;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 
 import org.perfidix.AbstractConfig.StandardConfig;
 import org.perfidix.annotation.AfterBenchClass;
 import org.perfidix.annotation.BeforeBenchClass;
 import org.perfidix.annotation.Bench;
+import org.perfidix.annotation.Param;
 import org.perfidix.element.AbstractMethodArrangement;
 import org.perfidix.element.BenchmarkElement;
 import org.perfidix.element.BenchmarkExecutor;
 import org.perfidix.element.BenchmarkMethod;
+import org.perfidix.element.BenchmarkSession;
+import org.perfidix.element.CalibrationBench;
+import org.perfidix.element.GcController;
+import org.perfidix.exceptions.AbstractPerfidixMethodException;
 import org.perfidix.exceptions.PerfidixMethodCheckException;
 import org.perfidix.exceptions.PerfidixMethodInvocationException;
+import org.perfidix.fork.Checkpoint;
+import org.perfidix.fork.ForkedBenchmark;
 import org.perfidix.meter.AbstractMeter;
 import org.perfidix.result.BenchmarkResult;
+import org.perfidix.result.ClassResult;
+import org.perfidix.result.MethodResult;
 
 /**
  * Class to hold all classes which want to be benchmarked.
@@ -98,12 +110,12 @@ public final class Benchmark {
     /** Already instantiated objects */
     private transient final Set<Object> objects;
 
-    /** Simple random for gc-prob */
-    private transient static final Random RAN = new Random();
-
     /** Configuration of benchmark, holding everything. */
     private transient final AbstractConfig conf;
 
+    /** Methods this benchmark is restricted to mapped to their runs, null for all methods. */
+    private transient Map<BenchmarkMethod, Integer> restriction;
+
     /**
      * Constructor with a fixed set of used meters.
      * 
@@ -161,6 +173,20 @@ public final class Benchmark {
         }
     }
 
+    /**
+     * Restricting this benchmark to some of the methods of the registered
+     * classes, e.g. to one work unit of a distributed benchmark. The methods
+     * are benched the given number of runs instead of the annotated or
+     * configured one, time-boxed methods keep their budget. A restricted
+     * benchmark is never forked since the forks would bench all methods.
+     * 
+     * @param runs
+     *            the methods to be benched mapped to their number of runs
+     */
+    public void restrict(final Map<BenchmarkMethod, Integer> runs) {
+        restriction = new HashMap<BenchmarkMethod, Integer>(runs);
+    }
+
     /**
      * Getting the number of all methods and all runs
      * 
@@ -170,11 +196,7 @@ public final class Benchmark {
         final Map<BenchmarkMethod, Integer> returnVal = new HashMap<BenchmarkMethod, Integer>();
         final List<BenchmarkMethod> meths = getBenchmarkMethods();
         for (final BenchmarkMethod meth : meths) {
-            int numberOfRuns = BenchmarkMethod.getNumberOfAnnotatedRuns(meth.getMethodToBench());
-            if (numberOfRuns == Bench.NONE_RUN) {
-                numberOfRuns = conf.getRuns();
-            }
-            returnVal.put(meth, numberOfRuns);
+            returnVal.put(meth, getNumberOfRuns(meth));
         }
         return returnVal;
     }
@@ -186,41 +208,439 @@ public final class Benchmark {
      */
     public BenchmarkResult run() {
         final BenchmarkResult res = new BenchmarkResult(conf.getListener());
-        BenchmarkExecutor.initialize(meters, res);
+        // each fork arranges its runs with a seed of its own
+        final long seed = conf.getSeed() + ForkedBenchmark.getFork();
+        res.setSeed(seed);
+        if (conf.getForks() > 0 && !ForkedBenchmark.isForked() && restriction == null) {
+            return runForked(res);
+        }
+        // methods with invalid annotated values are skipped
+        checkBenchmarkMethods(res);
 
         // getting Benchmarkables
-        final List<BenchmarkElement> elements = getBenchmarkElements();
+        final List<BenchmarkMethod> meths = getBenchmarkMethods();
+        final Map<BenchmarkMethod, Integer> runs = getBenchmarkRuns();
+
+        // restoring the result and the completed runs of a checkpoint
+        final Checkpoint checkpoint = openCheckpoint(meths, res);
+
+        // measuring the overhead of the meters and the invocation
+        final double[] offsets = executeCalibration(res);
+        final BenchmarkSession session = new BenchmarkSession(meters, res, offsets, conf.getTimeout());
 
-        // arranging them
+        // arranging them, the elements are generated lazily per run
         final AbstractMethodArrangement arrangement =
-            AbstractMethodArrangement.getMethodArrangement(elements, conf.getArrangement());
+            AbstractMethodArrangement.getMethodArrangement(runs, conf.getArrangement(), conf.getRounds(), seed);
 
         // instantiate methods
-        final Map<Class<?>, Object> instantiatedObj = instantiateMethods(res);
+        final Map<Object, Object> instantiatedObj = instantiateMethods(res);
 
         // getting the mapping and executing beforemethod
-        final Map<Class<?>, Object> objectsToExecute = executeBeforeBenchClass(instantiatedObj, res);
+        final Map<Object, Object> objectsToExecute = executeBeforeBenchClass(instantiatedObj, res);
 
-        // executing the bench for the arrangement
+        // executing the warmup runs, not part of the result
+        executeWarmup(meths, objectsToExecute, session);
+
+        // applying the gc policy before each run
+        final GcController gc = new GcController(conf.getGc(), conf.getGcProb());
+
+        // executing the bench for the arrangement, executor and instance
+        // are looked up once per method by the index of the method
+        final BenchmarkExecutor[] executors = new BenchmarkExecutor[runs.size()];
+        final Object[] objects = new Object[runs.size()];
         for (final BenchmarkElement elem : arrangement) {
-            // invoking gc if possible
-            if (RAN.nextDouble() < conf.getGcProb()) {
-                System.gc();
+            // runs completed before the checkpoint are skipped
+            if (checkpoint != null
+                && checkpoint.skipRun(elem.getMeth().getMethodToBench(), elem.getMeth().getParameterString())) {
+                continue;
             }
+            gc.beforeRun(elem.getMeth());
 
-            final BenchmarkExecutor exec = BenchmarkExecutor.getExecutor(elem);
+            final int index = elem.getMethodIndex();
+            if (executors[index] == null) {
+                executors[index] = session.getExecutor(elem);
+                objects[index] = getObjectToExecute(objectsToExecute, elem.getMeth());
+            }
+            final BenchmarkExecutor exec = executors[index];
 
-            final Object obj = objectsToExecute.get(elem.getMeth().getMethodToBench().getDeclaringClass());
+            final Object obj = objects[index];
             // check needed because of failed initialization of objects
             if (obj != null) {
                 exec.executeBeforeMethods(obj);
-                exec.executeBench(obj);
+                exec.executeBench(obj, elem.getRound());
                 exec.executeAfterMethods(obj);
             }
+            if (checkpoint != null) {
+                checkpoint.addRun(elem.getMeth().getMethodToBench(), elem.getMeth().getParameterString());
+                saveCheckpoint(checkpoint, res, false);
+            }
+        }
+
+        // executing the time-boxed methods
+        executeTimeBoxed(meths, objectsToExecute, session, gc, checkpoint);
+
+        // executing further runs until the confidence target is reached
+        if (conf.getConfidenceTarget() > 0) {
+            executeAdaptive(runs, objectsToExecute, session, gc, checkpoint);
         }
 
         // cleaning up methods to benchmark
         tearDownObjectsToExecute(objectsToExecute, res);
+
+        // stopping the threads of the concurrent runs
+        session.shutdown();
+
+        // cleaning up the states shared by the benches
+        session.getStates().tearDown();
+
+        // the session is complete, resuming it is not needed anymore
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+        return res;
+    }
+
+    /**
+     * Opening the checkpoint of the configuration. If the benchmark is
+     * resumed, the result and the completed runs of an existing checkpoint are
+     * restored. Forks and work units of distributed workers never checkpoint
+     * since they would share the file of the configuration.
+     * 
+     * @param meths
+     *            all methods to be benched
+     * @param res
+     *            {@link BenchmarkResult} for storing the restored result and
+     *            possible failures
+     * @return the checkpoint, null if the configuration does not checkpoint
+     */
+    private Checkpoint openCheckpoint(final List<BenchmarkMethod> meths, final BenchmarkResult res) {
+        Checkpoint returnVal = null;
+        if (conf.getCheckpointFile() != null && !ForkedBenchmark.isForked() && restriction == null) {
+            returnVal =
+                new Checkpoint(new File(conf.getCheckpointFile()), conf.getCheckpointInterval(), conf
+                    .getMeters());
+            if (conf.isResumed()) {
+                final Map<String, Method> methods = new Hashtable<String, Method>();
+                for (final BenchmarkMethod meth : meths) {
+                    methods.put(meth.getMethodToBench().toString(), meth.getMethodToBench());
+                }
+                try {
+                    returnVal.restore(methods, res);
+                } catch (final IOException e) {
+                    res.addException(new PerfidixMethodInvocationException(e, Bench.class));
+                }
+            }
+        }
+        return returnVal;
+    }
+
+    /**
+     * Saving a checkpoint, failures are stored in the result and the
+     * benchmark continues.
+     * 
+     * @param checkpoint
+     *            to be saved
+     * @param res
+     *            {@link BenchmarkResult} to be saved and for storing possible
+     *            failures
+     * @param force
+     *            true to save regardless of the interval of the checkpoint
+     */
+    private void saveCheckpoint(final Checkpoint checkpoint, final BenchmarkResult res, final boolean force) {
+        try {
+            if (force) {
+                checkpoint.save(res);
+            } else {
+                checkpoint.saveIfDue(res);
+            }
+        } catch (final IOException e) {
+            res.addException(new PerfidixMethodInvocationException(e, Bench.class));
+        }
+    }
+
+    /**
+     * Executing the calibration runs of an empty bench. The bench is executed
+     * through its own session so that its data does not show up in the
+     * result, only the data of the meters is stored as calibration data.
+     * 
+     * @param res
+     *            {@link BenchmarkResult} for storing the calibration data and
+     *            possible failures
+     * @return the mean overhead of one measurement per meter, ordered like the
+     *         meters, only filled if the configuration demands the subtraction
+     */
+    private double[] executeCalibration(final BenchmarkResult res) {
+        final double[] returnVal = new double[meters.size()];
+        if (conf.getCalibrationRuns() > 0) {
+            final BenchmarkResult calibrationRes = new BenchmarkResult();
+            final BenchmarkSession calibrationSession = new BenchmarkSession(meters, calibrationRes);
+            final BenchmarkMethod calibrationMeth = CalibrationBench.getBenchmarkMethod();
+            final Object obj = new CalibrationBench();
+            for (int i = 0; i < conf.getCalibrationRuns(); i++) {
+                final BenchmarkExecutor exec =
+                    calibrationSession.getExecutor(new BenchmarkElement(calibrationMeth, i + 1));
+                exec.executeBeforeMethods(obj);
+                exec.executeBench(obj);
+                exec.executeAfterMethods(obj);
+            }
+
+            int meterIndex = 0;
+            for (final AbstractMeter meter : meters) {
+                for (final double data : calibrationRes.getResultSet(meter)) {
+                    res.addCalibrationData(meter, data);
+                }
+                if (conf.isCalibrationSubtracted()) {
+                    returnVal[meterIndex] = calibrationRes.mean(meter);
+                }
+                meterIndex++;
+            }
+            for (final AbstractPerfidixMethodException exec : calibrationRes.getExceptions()) {
+                res.addException(exec);
+            }
+        }
+        return returnVal;
+    }
+
+    /**
+     * Executing the warmup runs of all methods before the arrangement is
+     * benched. The runs take place with the same executors as the measured
+     * runs but their data is only stored as warmup data. Methods without any
+     * run are not warmed up.
+     * 
+     * @param meths
+     *            all methods to be benched
+     * @param objectsToExecute
+     *            mapping class/parameter combination->object with the
+     *            instances to bench on
+     * @param session
+     *            the session of this run
+     */
+    private void executeWarmup(final List<BenchmarkMethod> meths,
+        final Map<Object, Object> objectsToExecute, final BenchmarkSession session) {
+        for (final BenchmarkMethod benchMeth : meths) {
+            final Method meth = benchMeth.getMethodToBench();
+            int numberOfWarmupRuns = BenchmarkMethod.getNumberOfAnnotatedWarmupRuns(meth);
+            if (numberOfWarmupRuns == Bench.NONE_RUN) {
+                numberOfWarmupRuns = conf.getWarmupRuns();
+            }
+
+            final Object obj = getObjectToExecute(objectsToExecute, benchMeth);
+            // check needed because of failed initialization of objects
+            if (obj != null && (getNumberOfRuns(benchMeth) > 0 || getDuration(benchMeth) > 0)) {
+                for (int i = 0; i < numberOfWarmupRuns; i++) {
+                    final BenchmarkExecutor exec =
+                        session.getExecutor(new BenchmarkElement(benchMeth, i + 1));
+                    // an abandoned invocation ends the warmup of the method
+                    if (exec.isTimedOut()) {
+                        break;
+                    }
+                    exec.executeBeforeMethods(obj);
+                    exec.executeWarmup(obj);
+                    exec.executeAfterMethods(obj);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executing the time-boxed methods. Each method is benched repeatedly
+     * until its wall-clock budget is spent. A run already started is always
+     * finished, therefore the budget can be exceeded by the duration of one
+     * run. Sampled methods are executed in one single run recording the
+     * latency of every invocation.
+     * 
+     * @param meths
+     *            all methods to be benched
+     * @param objectsToExecute
+     *            mapping class/parameter combination->object with the
+     *            instances to bench on
+     * @param session
+     *            the session of this run
+     * @param gc
+     *            the gc policy applied before each run
+     * @param checkpoint
+     *            the checkpoint of the completed methods, null for no
+     *            checkpoints
+     */
+    private void executeTimeBoxed(final List<BenchmarkMethod> meths,
+        final Map<Object, Object> objectsToExecute, final BenchmarkSession session,
+        final GcController gc, final Checkpoint checkpoint) {
+        for (final BenchmarkMethod benchMeth : meths) {
+            long duration = getDuration(benchMeth);
+            final Object obj = getObjectToExecute(objectsToExecute, benchMeth);
+            final boolean sampling = BenchmarkMethod.isAnnotatedSampling(benchMeth.getMethodToBench());
+            // methods completed before the checkpoint are skipped
+            if (duration > 0 && checkpoint != null
+                && checkpoint.skipRun(benchMeth.getMethodToBench(), benchMeth.getParameterString())) {
+                duration = 0;
+            }
+            // check needed because of failed initialization of objects
+            if (duration > 0 && obj != null && sampling) {
+                gc.beforeRun(benchMeth);
+                final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(benchMeth, 1));
+                exec.executeBeforeMethods(obj);
+                exec.executeSampling(obj, duration);
+                exec.executeAfterMethods(obj);
+            } else if (duration > 0 && obj != null) {
+                final long start = System.nanoTime();
+                int runs = 0;
+                while (System.nanoTime() - start < duration) {
+                    final BenchmarkExecutor exec =
+                        session.getExecutor(new BenchmarkElement(benchMeth, runs + 1));
+                    // an abandoned invocation ends the budget of the method
+                    if (exec.isTimedOut()) {
+                        break;
+                    }
+                    gc.beforeRun(benchMeth);
+                    runs++;
+                    exec.executeBeforeMethods(obj);
+                    exec.executeBench(obj);
+                    exec.executeAfterMethods(obj);
+                }
+            }
+            if (duration > 0 && checkpoint != null) {
+                checkpoint.complete(benchMeth.getMethodToBench(), benchMeth.getParameterString());
+                saveCheckpoint(checkpoint, session.getResult(), true);
+            }
+        }
+    }
+
+    /**
+     * Getting the wall-clock budget of a method. The budget given by annotation
+     * is more powerful than the budget of the configuration, the latter only
+     * applies to methods without an annotated number of runs.
+     * 
+     * @param meth
+     *            to be checked
+     * @return the budget in nanoseconds, 0 if the method is benched a fixed
+     *         number of runs
+     */
+    private long getDuration(final BenchmarkMethod meth) {
+        long returnVal = BenchmarkMethod.getAnnotatedDuration(meth.getMethodToBench());
+        if (returnVal == 0 && conf.getDuration() > 0
+            && BenchmarkMethod.getNumberOfAnnotatedRuns(meth.getMethodToBench()) == Bench.NONE_RUN) {
+            returnVal = (long)(conf.getDuration() * conf.getDurationUnit().getNumberOfMilliSeconds());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the fixed number of runs of a method.
+     * 
+     * @param meth
+     *            to be checked
+     * @return the runs of the restriction, the annotated number of runs or
+     *         the runs of the configuration if not annotated
+     */
+    private int getNumberOfRuns(final BenchmarkMethod meth) {
+        int numberOfRuns = BenchmarkMethod.getNumberOfAnnotatedRuns(meth.getMethodToBench());
+        if (restriction != null && restriction.containsKey(meth)) {
+            numberOfRuns = restriction.get(meth);
+        } else if (numberOfRuns == Bench.NONE_RUN) {
+            numberOfRuns = conf.getRuns();
+        }
+        return numberOfRuns;
+    }
+
+    /**
+     * Executing further runs of each method until the relative width of the
+     * confidence interval of its mean is below the target of the
+     * configuration for all meters. The runs of one method stop as well if
+     * the maximum number of runs or the maximum time of the configuration is
+     * reached or if an invocation does not produce any data.
+     * 
+     * @param runsPerMethod
+     *            all methods already benched mapped to their number of runs
+     * @param objectsToExecute
+     *            mapping class/parameter combination->object with the
+     *            instances to bench on
+     * @param session
+     *            the session of this run holding the data of the runs
+     * @param gc
+     *            the gc policy applied before each run
+     * @param checkpoint
+     *            the checkpoint of the completed runs, null for no checkpoints
+     */
+    private void executeAdaptive(final Map<BenchmarkMethod, Integer> runsPerMethod,
+        final Map<Object, Object> objectsToExecute, final BenchmarkSession session,
+        final GcController gc, final Checkpoint checkpoint) {
+        for (final Map.Entry<BenchmarkMethod, Integer> entry : runsPerMethod.entrySet()) {
+            final Object obj = getObjectToExecute(objectsToExecute, entry.getKey());
+            // check needed because of failed initialization of objects
+            if (obj != null) {
+                final long start = System.currentTimeMillis();
+                int runs = entry.getValue();
+                // runs completed before the checkpoint count as well, their data is restored
+                final BenchmarkMethod benchMeth = entry.getKey();
+                while (checkpoint != null && runs < conf.getMaxAdaptiveRuns()
+                    && checkpoint.skipRun(benchMeth.getMethodToBench(), benchMeth.getParameterString())) {
+                    runs++;
+                }
+                while (runs < conf.getMaxAdaptiveRuns()
+                    && System.currentTimeMillis() - start < conf.getMaxAdaptiveTime()
+                    && !isConfident(session.getResult(), entry.getKey())) {
+                    final BenchmarkExecutor exec =
+                        session.getExecutor(new BenchmarkElement(entry.getKey(), runs + 1));
+                    // an abandoned invocation ends the adaptive runs of the method
+                    if (exec.isTimedOut()) {
+                        break;
+                    }
+                    gc.beforeRun(entry.getKey());
+                    runs++;
+                    exec.executeBeforeMethods(obj);
+                    exec.executeBench(obj);
+                    exec.executeAfterMethods(obj);
+                    if (checkpoint != null) {
+                        checkpoint.addRun(benchMeth.getMethodToBench(), benchMeth.getParameterString());
+                        saveCheckpoint(checkpoint, session.getResult(), false);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checking if the data of a method reached the confidence target of the
+     * configuration for the meter of {@link AbstractConfig#getConfidenceMeter()}.
+     * Methods without any data of this meter are regarded as confident since
+     * further runs would not produce any data either.
+     * 
+     * @param res
+     *            {@link BenchmarkResult} holding the data
+     * @param meth
+     *            to be checked
+     * @return true if no further runs are needed
+     */
+    private boolean isConfident(final BenchmarkResult res, final BenchmarkMethod meth) {
+        final ClassResult classRes = res.getResultForObject(meth.getMethodToBench().getDeclaringClass());
+        boolean returnVal = true;
+        if (classRes != null) {
+            final MethodResult methRes =
+                classRes.getResultForObject(MethodResult.getKey(meth.getMethodToBench(), meth
+                    .getParameterString()));
+            final AbstractMeter meter = conf.getConfidenceMeter();
+            if (methRes != null && methRes.getRegisteredMeters().contains(meter)) {
+                returnVal = methRes.getRelativeConfidenceWidth(meter) <= conf.getConfidenceTarget();
+            }
+        }
+        return returnVal;
+    }
+
+    /**
+     * Running each registered class in forked JVMs.
+     * 
+     * @param res
+     *            {@link BenchmarkResult} for storing the results of the forks
+     * @return the given {@link BenchmarkResult}
+     */
+    private BenchmarkResult runForked(final BenchmarkResult res) {
+        if (!objects.isEmpty()) {
+            throw new IllegalStateException("Already instantiated objects cannot be benched in forks");
+        }
+        final ForkedBenchmark forked = new ForkedBenchmark(conf);
+        for (final Class<?> clazz : clazzes) {
+            forked.run(clazz, res);
+        }
         return res;
     }
 
@@ -228,15 +648,18 @@ public final class Benchmark {
      * Setting up executable objects for all registered classes and executing {@link BeforeBenchClass}
      * annotated methods. If an {@link Exception} occurs, this failure will be stored in the
      * {@link BenchmarkResult} and
-     * the class will not be instantiated
+     * the class will not be instantiated. Classes with {@link Param}-annotated
+     * fields are instantiated once per combination of parameter values, the
+     * values are injected directly after the instantiation.
      * 
      * @param res
      *            {@link BenchmarkResult} for storing possible failures.
-     * @return a mapping with class->objects for all registered classes-
+     * @return a mapping with class/parameter combination->objects for all
+     *         registered classes-
      */
-    private Map<Class<?>, Object> instantiateMethods(final BenchmarkResult res) {
+    private Map<Object, Object> instantiateMethods(final BenchmarkResult res) {
         // datastructure initialization for all objects
-        final Map<Class<?>, Object> objectsToUse = new Hashtable<Class<?>, Object>();
+        final Map<Object, Object> objectsToUse = new Hashtable<Object, Object>();
 
         // generating including already instaniated objects
         for (final Object obj : this.objects) {
@@ -249,22 +672,73 @@ public final class Benchmark {
             // generating a new instance on which the benchmark will be
             // performed if there isn't a user generated one
             if (!objectsToUse.containsKey(clazz)) {
-                try {
-                    final Object obj = clazz.newInstance();
-                    objectsToUse.put(clazz, obj);
-                    // otherwise adding an exception to the result
-                } catch (final InstantiationException e) {
-                    res.addException(new PerfidixMethodInvocationException(e, BeforeBenchClass.class));
-                } catch (final IllegalAccessException e) {
-                    res.addException(new PerfidixMethodInvocationException(e, BeforeBenchClass.class));
+                for (final Map<Field, String> combination : BenchmarkMethod.getParameterCombinations(clazz)) {
+                    final Map<Field, Object> params = BenchmarkMethod.convertParameters(combination);
+                    try {
+                        final Object obj = clazz.newInstance();
+                        final PerfidixMethodInvocationException injectByInvok =
+                            BenchmarkExecutor.injectParameters(obj, params);
+                        if (injectByInvok == null) {
+                            objectsToUse.put(getInstanceKey(clazz, BenchmarkMethod
+                                .getParameterString(params)), obj);
+                        } else {
+                            res.addException(injectByInvok);
+                        }
+                        // otherwise adding an exception to the result
+                    } catch (final InstantiationException e) {
+                        res.addException(new PerfidixMethodInvocationException(e, BeforeBenchClass.class));
+                    } catch (final IllegalAccessException e) {
+                        res.addException(new PerfidixMethodInvocationException(e, BeforeBenchClass.class));
+                    }
                 }
-
             }
         }
 
         return objectsToUse;
     }
 
+    /**
+     * Getting the key of the instance for a class and a combination of
+     * parameter values.
+     * 
+     * @param clazz
+     *            the class of the instance
+     * @param params
+     *            the parameter tuple as string, empty if not parameterized
+     * @return the class itself if not parameterized, otherwise a string
+     *         consisting of the class name and the parameter tuple
+     */
+    private static Object getInstanceKey(final Class<?> clazz, final String params) {
+        Object returnVal = clazz;
+        if (params.length() > 0) {
+            returnVal = new StringBuilder(clazz.getName()).append("[").append(params).append("]").toString();
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the instance to bench a method on. Already instantiated objects
+     * are registered by their class only and therefore shared by all
+     * combinations of parameter values.
+     * 
+     * @param objectsToExecute
+     *            mapping class/parameter combination->object with the
+     *            instances to bench on
+     * @param meth
+     *            to be benched
+     * @return the instance, null if not available because of failed
+     *         initialization
+     */
+    private static Object getObjectToExecute(final Map<Object, Object> objectsToExecute,
+        final BenchmarkMethod meth) {
+        final Class<?> clazz = meth.getMethodToBench().getDeclaringClass();
+        Object returnVal = objectsToExecute.get(getInstanceKey(clazz, meth.getParameterString()));
+        if (returnVal == null) {
+            returnVal = objectsToExecute.get(clazz);
+        }
+        return returnVal;
+    }
+
     /**
      * Executing beforeBenchClass if present.
      * 
@@ -274,15 +748,16 @@ public final class Benchmark {
      *            where the Exceptions should be stored to
      * @return valid instances with valid beforeCall
      */
-    private Map<Class<?>, Object> executeBeforeBenchClass(final Map<Class<?>, Object> instantiatedObj,
+    private Map<Object, Object> executeBeforeBenchClass(final Map<Object, Object> instantiatedObj,
         final BenchmarkResult res) {
 
-        final Map<Class<?>, Object> returnVal = new Hashtable<Class<?>, Object>();
+        final Map<Object, Object> returnVal = new Hashtable<Object, Object>();
 
         // invoking before bench class
-        for (final Class<?> clazz : instantiatedObj.keySet()) {
+        for (final Object key : instantiatedObj.keySet()) {
 
-            final Object objectToUse = instantiatedObj.get(clazz);
+            final Object objectToUse = instantiatedObj.get(key);
+            final Class<?> clazz = objectToUse.getClass();
             // ..the search for the beforeClassMeth begins...
             Method beforeClassMeth = null;
             boolean continueVal = true;
@@ -300,7 +775,7 @@ public final class Benchmark {
                 if (beforeClassMeth == null) {
                     // ...either the objects is directly mapped to the class
                     // for executing the benches
-                    returnVal.put(clazz, objectToUse);
+                    returnVal.put(key, objectToUse);
                 } else {
                     // ... or the beforeMethod will be executed and a
                     // possible exception stored to the result...
@@ -311,7 +786,7 @@ public final class Benchmark {
                             BenchmarkExecutor.invokeMethod(objectToUse, BeforeBenchClass.class,
                                 beforeClassMeth);
                         if (beforeByInvok == null) {
-                            returnVal.put(clazz, objectToUse);
+                            returnVal.put(key, objectToUse);
                         } else {
                             res.addException(beforeByInvok);
                         }
@@ -329,16 +804,17 @@ public final class Benchmark {
      * methods.
      * 
      * @param objects
-     *            a mapping with class->objects to be teared down
+     *            a mapping with class/parameter combination->objects to be teared
+     *            down
      * @param res
      *            the {@link BenchmarkResult} for storing possible failures.
      */
-    private void tearDownObjectsToExecute(final Map<Class<?>, Object> objects, final BenchmarkResult res) {
+    private void tearDownObjectsToExecute(final Map<Object, Object> objects, final BenchmarkResult res) {
 
-        // executing tearDown for all clazzes registered in given Map
-        for (final Class<?> clazz : objects.keySet()) {
-            final Object objectToUse = objects.get(clazz);
+        // executing tearDown for all objects registered in given Map
+        for (final Object objectToUse : objects.values()) {
             if (objectToUse != null) {
+                final Class<?> clazz = objectToUse.getClass();
                 // executing AfterClass for all objects.
                 Method afterClassMeth = null;
                 try {
@@ -368,7 +844,33 @@ public final class Benchmark {
     }
 
     /**
-     * Getting all Benchmarkable methods out of the registered class.
+     * Storing a {@link PerfidixMethodCheckException} for each method of the
+     * registered classes skipped by {@link #getBenchmarkMethods()} because of
+     * invalid annotated values.
+     * 
+     * @param res
+     *            {@link BenchmarkResult} for storing the failures
+     */
+    public void checkBenchmarkMethods(final BenchmarkResult res) {
+        for (final Class<?> clazz : clazzes) {
+            for (final Method meth : clazz.getDeclaredMethods()) {
+                if (BenchmarkMethod.isBenchmarkable(meth)) {
+                    try {
+                        BenchmarkMethod.checkAnnotatedValues(meth);
+                    } catch (final IllegalArgumentException e) {
+                        res.addException(new PerfidixMethodCheckException(e, meth, Bench.class));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Getting all Benchmarkable methods out of the registered class. Methods of
+     * classes with {@link Param}-annotated fields are expanded to one
+     * {@link BenchmarkMethod} per combination of parameter values. Methods
+     * with invalid annotated values are skipped, see
+     * {@link #checkBenchmarkMethods(BenchmarkResult)}.
      * 
      * @return a Set with {@link BenchmarkMethod}
      */
@@ -377,20 +879,43 @@ public final class Benchmark {
         final List<BenchmarkMethod> elems = new ArrayList<BenchmarkMethod>();
         // Getting all Methods and testing if its benchmarkable
         for (final Class<?> clazz : clazzes) {
+            final List<Map<Field, String>> combinations = BenchmarkMethod.getParameterCombinations(clazz);
             for (final Method meth : clazz.getDeclaredMethods()) {
                 // Check if benchmarkable, if so, insert to returnVal;
-                if (BenchmarkMethod.isBenchmarkable(meth)) {
-                    final BenchmarkMethod benchmarkMeth = new BenchmarkMethod(meth);
-                    elems.add(benchmarkMeth);
+                if (BenchmarkMethod.isBenchmarkable(meth) && hasValidValues(meth)) {
+                    for (final Map<Field, String> combination : combinations) {
+                        final BenchmarkMethod benchmarkMeth = new BenchmarkMethod(meth, combination);
+                        if (restriction == null || restriction.containsKey(benchmarkMeth)) {
+                            elems.add(benchmarkMeth);
+                        }
+                    }
                 }
             }
         }
         return elems;
     }
 
+    /**
+     * Checking the annotated values of a benchmarkable method.
+     * 
+     * @param meth
+     *            to be checked
+     * @return true if all annotated values are valid
+     */
+    private static boolean hasValidValues(final Method meth) {
+        boolean returnVal = true;
+        try {
+            BenchmarkMethod.checkAnnotatedValues(meth);
+        } catch (final IllegalArgumentException e) {
+            returnVal = false;
+        }
+        return returnVal;
+    }
+
     /**
      * Getting all benchmarkable objects out of the registered classes with the
-     * annotated number of runs.
+     * annotated number of runs. Time-boxed methods are not included since their
+     * number of runs is not known in advance.
      * 
      * @return a Set with {@link BenchmarkMethod}
      */
@@ -398,21 +923,37 @@ public final class Benchmark {
 
         final List<BenchmarkElement> elems = new ArrayList<BenchmarkElement>();
 
-        final List<BenchmarkMethod> meths = getBenchmarkMethods();
-
-        for (final BenchmarkMethod meth : meths) {
-            int numberOfRuns = BenchmarkMethod.getNumberOfAnnotatedRuns(meth.getMethodToBench());
-            if (numberOfRuns == Bench.NONE_RUN) {
-                numberOfRuns = conf.getRuns();
+        for (final Map.Entry<BenchmarkMethod, Integer> entry : getBenchmarkRuns().entrySet()) {
+            // adding one element per run to the set to be evaluated.
+            for (int i = 0; i < entry.getValue(); i++) {
+                elems.add(new BenchmarkElement(entry.getKey(), i + 1));
             }
+        }
+
+        return elems;
+    }
 
-            // getting the number of runs and adding this number of
-            // elements to the set to be evaluated.
-            for (int i = 0; i < numberOfRuns; i++) {
-                elems.add(new BenchmarkElement(meth));
+    /**
+     * Getting all benchmarkable methods out of the registered classes mapped
+     * to their annotated number of runs without creating one element per run.
+     * Time-boxed methods are not included since their number of runs is not
+     * known in advance.
+     * 
+     * @return the methods in the order of occurrence mapped to their number of
+     *         runs
+     */
+    public Map<BenchmarkMethod, Integer> getBenchmarkRuns() {
+
+        final Map<BenchmarkMethod, Integer> runs = new LinkedHashMap<BenchmarkMethod, Integer>();
+
+        for (final BenchmarkMethod meth : getBenchmarkMethods()) {
+            // time-boxed methods are not benched a fixed number of runs
+            final int numberOfRuns = getNumberOfRuns(meth);
+            if (getDuration(meth) == 0 && numberOfRuns > 0) {
+                runs.put(meth, numberOfRuns);
             }
         }
 
-        return elems;
+        return runs;
     }
 }
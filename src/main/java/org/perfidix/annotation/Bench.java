@@ -31,6 +31,8 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import org.perfidix.meter.Time;
+
 /**
  * This Annotation marks a simple bench. Each Method annotated with <code>Bench</code> is executed by
  * perfidix.
@@ -76,4 +78,87 @@ public @interface Bench {
      */
     int runs() default NONE_RUN;
 
+    /**
+     * Parameter for the number of threads invoking this bench concurrently on
+     * the same instance for each run.
+     */
+    int threads() default 1;
+
+    /**
+     * Parameter if the threads invoking this bench are virtual threads. If the
+     * JVM does not provide virtual threads, platform threads are used.
+     */
+    boolean virtualThreads() default false;
+
+    /**
+     * Parameter for the measurement window of one concurrent run in
+     * milliseconds. All threads invoke this bench repeatedly until the window
+     * is over, the data of each thread is normalized per completed operation.
+     * Only applies to benches invoked by more than one or by virtual threads.
+     */
+    long window() default 100;
+
+    /**
+     * Parameter for the number of warmup runs of this bench. Warmup runs are
+     * executed before the measured runs and are not part of the result.
+     */
+    int warmupRuns() default NONE_RUN;
+
+    /**
+     * Parameter for the number of operations per run. The bench is invoked
+     * this number of times between two reads of the meters and the measured
+     * data is divided by this number, resulting in the data per operation.
+     */
+    int opsPerInvocation() default 1;
+
+    /**
+     * Parameter for the number of operations kept in flight by a bench
+     * returning a {@link java.util.concurrent.Future}. The operations of one
+     * run are invoked without waiting as long as less operations are in
+     * flight, the meters are read after the last operation completed. A
+     * single-threaded run consists of {@link #opsPerInvocation()} operations,
+     * thus a greater number has no effect there; concurrent runs keep the
+     * operations of each thread in flight for the whole measurement window.
+     */
+    int inFlight() default 1;
+
+    /**
+     * Parameter for the wall-clock budget of this bench in the unit given by
+     * {@link #timeUnit()}. If greater than 0, the bench is executed repeatedly
+     * until the budget is spent instead of a fixed number of runs.
+     */
+    long duration() default 0;
+
+    /**
+     * Parameter for the unit of {@link #duration()}.
+     */
+    Time timeUnit() default Time.Seconds;
+
+    /**
+     * Parameter for the sampling mode of a time-boxed bench. If true, the bench
+     * is invoked continuously until its budget is spent and the latency of
+     * every invocation is recorded into a histogram; the meters are only read
+     * once around all invocations.
+     */
+    boolean sampling() default false;
+
+    /**
+     * Parameter for the target arrival rate of a sampled bench in operations
+     * per second. If greater than 0, the invocations are scheduled at this
+     * rate regardless of the duration of former invocations and the latency
+     * is measured from the scheduled start; implies {@link #sampling()}.
+     */
+    double rate() default 0;
+
+    /**
+     * Parameter for the time in milliseconds one invocation of this bench may
+     * take. If greater than 0, the runs are executed by a worker thread which
+     * is interrupted if the run exceeds the timeout, the timeout is stored as
+     * exception and the bench continues with the next run. A run ignoring the
+     * interrupt for another timeout is abandoned and the remaining runs of the
+     * bench are skipped. Overrides the timeout of the configuration; sampled
+     * benches are not guarded.
+     */
+    long timeout() default 0;
+
 }
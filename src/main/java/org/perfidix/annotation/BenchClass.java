@@ -48,4 +48,19 @@ public @interface BenchClass {
      */
     int runs() default 1;
 
+    /**
+     * Parameter for the number of threads invoking each bench concurrently.
+     */
+    int threads() default 1;
+
+    /**
+     * Parameter if the threads invoking each bench are virtual threads.
+     */
+    boolean virtualThreads() default false;
+
+    /**
+     * Parameter for the number of warmup runs of each bench.
+     */
+    int warmupRuns() default Bench.NONE_RUN;
+
 }
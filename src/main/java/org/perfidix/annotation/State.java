@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class as state of benches. Methods annotated with {@link Bench} may
+ * take instances of state classes as parameters; the instances are created,
+ * set up with their {@link BeforeBenchClass}-annotated methods and torn down
+ * with their {@link AfterBenchClass}-annotated methods once per scope. A
+ * state class must be public with a public constructor without parameters.
+ * 
+ * <pre>
+ * &#064;State(State.Scope.Benchmark)
+ * public static class Index {
+ *     &#064;BeforeBenchClass
+ *     public void load() { .. }
+ * }
+ * 
+ * &#064;Bench
+ * public void lookup(final Index index) { .. }
+ * </pre>
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface State {
+
+    /**
+     * The scope of the state, default is {@link Scope#Benchmark}.
+     */
+    Scope value() default Scope.Benchmark;
+
+    /**
+     * Scopes of a state, denoting which invocations share one instance.
+     * 
+     * @author Sebastian Graf, University of Konstanz
+     */
+    enum Scope {
+        /** One instance for all benches of all classes within one benchmark. */
+        Benchmark,
+        /** One instance per bench and thread, never shared between threads. */
+        Thread,
+        /** One instance per bench, shared by all threads invoking the bench. */
+        Group
+    }
+
+}
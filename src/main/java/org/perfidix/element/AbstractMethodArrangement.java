@@ -26,51 +26,192 @@
  */
 package org.perfidix.element;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
 
 /**
- * This method defines an order for the execution of all methods. A collection
- * with definitly benchmarkable methods is given in, shuffled in a way and
- * returned as an iterator. The kind of shuffling is set by the enum {@link KindOfArrangement}. ordered with
- * the help of inheriting classes.
+ * This method defines an order for the execution of all methods. The
+ * benchmarkable methods are given in together with their number of runs and
+ * the order of the runs is generated lazily by the iterator of the inheriting
+ * classes, one {@link BenchmarkElement} per run on demand holding the index
+ * of its method in the order of the input and its run counted per method. The
+ * memory needed is therefore constant per method instead of per run. The kind of arrangement
+ * is set by the enum {@link KindOfArrangement}.
  * 
  * @author Sebastian Graf, University of Konstanz
  */
 public abstract class AbstractMethodArrangement implements Iterable<BenchmarkElement> {
 
+    /** Seed of the random arrangements if none is given. */
+    public static final long DEFAULT_SEED = 1L;
+
+    /** All benchmarkable methods in the order of occurrence. */
+    private transient final List<BenchmarkMethod> methods;
+
+    /** Number of runs of each method, same index as the methods. */
+    private transient final int[] runs;
+
+    /** Number of rounds for arrangements executing the methods in rounds. */
+    private transient final int rounds;
+
+    /** Seed for the random arrangements. */
+    private transient final long seed;
+
+    /**
+     * Constructor which takes all benchmarkable methods with their number of
+     * runs. The runs are afterwards arranged with the help of the implementing
+     * class.
+     * 
+     * @param paramRuns
+     *            definitly benchmarkable methods mapped to their number of
+     *            runs
+     */
+    protected AbstractMethodArrangement(final Map<BenchmarkMethod, Integer> paramRuns) {
+        this(paramRuns, 0);
+    }
+
     /**
-     * List to hold all benchmarkable elements in the correct order as a base
-     * for the iterator.
+     * Constructor which takes all benchmarkable methods with their number of
+     * runs and the number of rounds, available for the arrangement by
+     * {@link #getRounds()}.
+     * 
+     * @param paramRuns
+     *            definitly benchmarkable methods mapped to their number of
+     *            runs
+     * @param paramRounds
+     *            number of rounds, 0 if not arranged in rounds
      */
-    private transient final List<BenchmarkElement> elementList;
+    protected AbstractMethodArrangement(final Map<BenchmarkMethod, Integer> paramRuns, final int paramRounds) {
+        this(paramRuns, paramRounds, DEFAULT_SEED);
+    }
 
     /**
-     * Constructor which takes all benchmarkable methods. These methods are
-     * afterwards shuffled with the help of the implementing class. Note that
-     * the elements are fix after the arrangement.
+     * Constructor which takes all benchmarkable methods with their number of
+     * runs, the number of rounds and the seed of the random arrangements,
+     * available by {@link #getRounds()} and {@link #getSeed()}.
      * 
-     * @param elements
-     *            definitly benchmarkable objects.
+     * @param paramRuns
+     *            definitly benchmarkable methods mapped to their number of
+     *            runs
+     * @param paramRounds
+     *            number of rounds, 0 if not arranged in rounds
+     * @param paramSeed
+     *            seed for the random arrangements, the same seed results in
+     *            the same order
+     */
+    protected AbstractMethodArrangement(final Map<BenchmarkMethod, Integer> paramRuns, final int paramRounds,
+        final long paramSeed) {
+        methods = Collections.unmodifiableList(new ArrayList<BenchmarkMethod>(paramRuns.keySet()));
+        runs = new int[methods.size()];
+        int index = 0;
+        for (final Integer numberOfRuns : paramRuns.values()) {
+            runs[index++] = numberOfRuns;
+        }
+        rounds = paramRounds;
+        seed = paramSeed;
+    }
+
+    /**
+     * Getting the seed for the random arrangements. Every iterator has to
+     * start a new random with this seed to get the same order each time.
+     * 
+     * @return the seed
+     */
+    protected final long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getting the number of rounds of the arrangement.
+     * 
+     * @return the number of rounds, 0 if not given
      */
-    protected AbstractMethodArrangement(final List<BenchmarkElement> elements) {
-        final List<BenchmarkElement> arrangedList = arrangeList(elements);
-        this.elementList = Collections.unmodifiableList(arrangedList);
+    protected final int getRounds() {
+        return rounds;
     }
 
     /**
-     * Method to arrange benchmarkable methods in different orders.
+     * Getting the number of arranged methods.
      * 
-     * @param methods
-     *            to be arranged
-     * @return the arranged methods.
+     * @return the number of methods
      */
-    protected abstract List<BenchmarkElement> arrangeList(final List<BenchmarkElement> methods);
+    protected final int getNumberOfMethods() {
+        return runs.length;
+    }
+
+    /**
+     * Getting the number of runs of one method.
+     * 
+     * @param index
+     *            the index of the method
+     * @return the number of runs of the method
+     */
+    protected final int getRuns(final int index) {
+        return runs[index];
+    }
+
+    /**
+     * Method to arrange the runs of the benchmarkable methods in different
+     * orders. The iterator is expected to generate the elements lazily.
+     * 
+     * @return an iterator over the arranged runs
+     */
+    protected abstract Iterator<BenchmarkElement> arrange();
 
     /** {@inheritDoc} */
     public final Iterator<BenchmarkElement> iterator() {
-        return this.elementList.iterator();
+        return arrange();
+    }
+
+    /**
+     * Choosing an index randomly with a probability proportional to its
+     * weight.
+     * 
+     * @param weights
+     *            the weights, at least one greater than 0
+     * @param ran
+     *            random to be used
+     * @return the chosen index
+     */
+    protected static final int chooseWeighted(final int[] weights, final Random ran) {
+        long total = 0;
+        for (final int weight : weights) {
+            total += weight;
+        }
+        long target = (long)(ran.nextDouble() * total);
+        int index = 0;
+        while (target >= weights[index]) {
+            target -= weights[index];
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Counting the runs per method of a list of elements.
+     * 
+     * @param elements
+     *            the elements, one per run
+     * @return the methods in the order of their first occurrence mapped to
+     *         their number of runs
+     */
+    private static Map<BenchmarkMethod, Integer> countRuns(final List<BenchmarkElement> elements) {
+        final Map<BenchmarkMethod, Integer> returnVal = new LinkedHashMap<BenchmarkMethod, Integer>();
+        for (final BenchmarkElement elem : elements) {
+            final Integer numberOfRuns = returnVal.get(elem.getMeth());
+            if (numberOfRuns == null) {
+                returnVal.put(elem.getMeth(), 1);
+            } else {
+                returnVal.put(elem.getMeth(), numberOfRuns + 1);
+            }
+        }
+        return returnVal;
     }
 
     /**
@@ -85,16 +226,100 @@ public abstract class AbstractMethodArrangement implements Iterable<BenchmarkEle
      */
     public static final AbstractMethodArrangement getMethodArrangement(final List<BenchmarkElement> elements,
         final KindOfArrangement kind) {
+        return getMethodArrangement(elements, kind, 0);
+    }
+
+    /**
+     * Factory method to get the method arrangement for a given set of classes
+     * with a number of rounds, only used by arrangements executing the
+     * methods in rounds.
+     * 
+     * @param elements
+     *            to be benched
+     * @param kind
+     *            for the method arrangement
+     * @param rounds
+     *            number of rounds, if not greater than 0, each round holds
+     *            one run of each method
+     * @return the arrangement, mainly an iterator
+     */
+    public static final AbstractMethodArrangement getMethodArrangement(final List<BenchmarkElement> elements,
+        final KindOfArrangement kind, final int rounds) {
+        return getMethodArrangement(countRuns(elements), kind, rounds, DEFAULT_SEED);
+    }
+
+    /**
+     * Factory method to get the method arrangement for a given set of classes
+     * with a number of rounds and the seed of the random arrangements.
+     * 
+     * @param elements
+     *            to be benched
+     * @param kind
+     *            for the method arrangement
+     * @param rounds
+     *            number of rounds, if not greater than 0, each round holds
+     *            one run of each method
+     * @param seed
+     *            seed for the random arrangements
+     * @return the arrangement, mainly an iterator
+     */
+    public static final AbstractMethodArrangement getMethodArrangement(final List<BenchmarkElement> elements,
+        final KindOfArrangement kind, final int rounds, final long seed) {
+        return getMethodArrangement(countRuns(elements), kind, rounds, seed);
+    }
+
+    /**
+     * Factory method to get the method arrangement for the runs of the given
+     * methods without materializing one element per run.
+     * 
+     * @param runs
+     *            the methods to be benched mapped to their number of runs
+     * @param kind
+     *            for the method arrangement
+     * @param rounds
+     *            number of rounds, if not greater than 0, each round holds
+     *            one run of each method
+     * @return the arrangement, mainly an iterator
+     */
+    public static final AbstractMethodArrangement getMethodArrangement(final Map<BenchmarkMethod, Integer> runs,
+        final KindOfArrangement kind, final int rounds) {
+        return getMethodArrangement(runs, kind, rounds, DEFAULT_SEED);
+    }
+
+    /**
+     * Factory method to get the method arrangement for the runs of the given
+     * methods with the seed of the random arrangements. The same seed results
+     * in the same order of the runs.
+     * 
+     * @param runs
+     *            the methods to be benched mapped to their number of runs
+     * @param kind
+     *            for the method arrangement
+     * @param rounds
+     *            number of rounds, if not greater than 0, each round holds
+     *            one run of each method
+     * @param seed
+     *            seed for the random arrangements
+     * @return the arrangement, mainly an iterator
+     */
+    public static final AbstractMethodArrangement getMethodArrangement(final Map<BenchmarkMethod, Integer> runs,
+        final KindOfArrangement kind, final int rounds, final long seed) {
         AbstractMethodArrangement arrang = null;
         switch (kind) {
         case NoArrangement:
-            arrang = new NoMethodArrangement(elements);
+            arrang = new NoMethodArrangement(runs);
             break;
         case ShuffleArrangement:
-            arrang = new ShuffleMethodArrangement(elements);
+            arrang = new ShuffleMethodArrangement(runs, seed);
             break;
         case SequentialMethodArrangement:
-            arrang = new SequentialMethodArrangement(elements);
+            arrang = new SequentialMethodArrangement(runs);
+            break;
+        case RandomizedBlockArrangement:
+            arrang = new RandomizedBlockMethodArrangement(runs, rounds, seed);
+            break;
+        case InterleavedArrangement:
+            arrang = new InterleavedMethodArrangement(runs, rounds, seed);
             break;
         default:
             throw new IllegalArgumentException("Kind not known!");
@@ -102,4 +327,77 @@ public abstract class AbstractMethodArrangement implements Iterable<BenchmarkEle
         return arrang;
 
     }
+
+    /**
+     * Iterator generating the elements of the runs lazily. The inheriting
+     * classes only choose the method of the next run, the index of the run is
+     * counted per method.
+     * 
+     * @author Sebastian Graf, University of Konstanz
+     */
+    protected abstract class AbstractRunIterator implements Iterator<BenchmarkElement> {
+
+        /** Runs left per method, same index as the methods. */
+        private transient final int[] left;
+
+        /** Runs left over all methods. */
+        private transient long total;
+
+        /**
+         * Constructor starting with all runs left.
+         */
+        protected AbstractRunIterator() {
+            left = runs.clone();
+            for (final int numberOfRuns : runs) {
+                total += numberOfRuns;
+            }
+        }
+
+        /**
+         * Getting the runs left per method. The array must not be modified.
+         * 
+         * @return the runs left, same index as the methods
+         */
+        protected final int[] getLeft() {
+            return left;
+        }
+
+        /**
+         * Choosing the method of the next run, only called if any run is left.
+         * 
+         * @return the index of a method with a run left
+         */
+        protected abstract int nextMethod();
+
+        /**
+         * Getting the round of the run chosen last.
+         * 
+         * @return the round, 0 if not arranged in rounds
+         */
+        protected int getRound() {
+            return 0;
+        }
+
+        /** {@inheritDoc} */
+        public final boolean hasNext() {
+            return total > 0;
+        }
+
+        /** {@inheritDoc} */
+        public final BenchmarkElement next() {
+            if (total == 0) {
+                throw new NoSuchElementException();
+            }
+            final int index = nextMethod();
+            left[index]--;
+            total--;
+            return new BenchmarkElement(methods.get(index), index, runs[index] - left[index], getRound());
+        }
+
+        /** {@inheritDoc} */
+        public final void remove() {
+            throw new UnsupportedOperationException("Arrangements are not modifiable!");
+        }
+
+    }
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * This class represents arrangements executing all methods in rounds. The
+ * runs of each method are split into blocks, one block per round, and every
+ * round is arranged anew with a fresh random order by the inheriting classes,
+ * drawn from the seed of the arrangement to make the order reproducible.
+ * Slow drifts like thermal throttling or background jobs therefore hit all
+ * methods alike instead of being confounded with the order of the methods.
+ * The elements are returned with the index of their round, starting at 1.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public abstract class AbstractRoundMethodArrangement extends AbstractMethodArrangement {
+
+    /**
+     * Constructor for round arrangements.
+     * 
+     * @param runs
+     *            benchmarkable methods mapped to their number of runs.
+     * @param rounds
+     *            number of rounds, if not greater than 0, each round holds
+     *            one run of each method
+     * @param seed
+     *            seed for the random order within the rounds
+     */
+    protected AbstractRoundMethodArrangement(final Map<BenchmarkMethod, Integer> runs, final int rounds,
+        final long seed) {
+        super(runs, rounds, seed);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected final Iterator<BenchmarkElement> arrange() {
+        int maxRuns = 0;
+        for (int i = 0; i < getNumberOfMethods(); i++) {
+            maxRuns = Math.max(maxRuns, getRuns(i));
+        }
+        int rounds = getRounds();
+        if (rounds <= 0 || rounds > maxRuns) {
+            rounds = maxRuns;
+        }
+        final int numberOfRounds = rounds;
+        final Random ran = new Random(getSeed());
+
+        return new AbstractRunIterator() {
+
+            /** Runs left within the current round per method. */
+            private transient final int[] block = new int[getNumberOfMethods()];
+
+            /** Current round, starting at 1. */
+            private transient int round;
+
+            /** Method chosen last within the current round, -1 if none. */
+            private transient int last = -1;
+
+            /** Runs left within the current round. */
+            private transient int blockLeft;
+
+            /** {@inheritDoc} */
+            @Override
+            protected int nextMethod() {
+                // cutting one block of each method for the next round
+                while (blockLeft == 0) {
+                    for (int i = 0; i < block.length; i++) {
+                        final long runs = getRuns(i);
+                        block[i] = (int)(runs * (round + 1) / numberOfRounds - runs * round / numberOfRounds);
+                        blockLeft += block[i];
+                    }
+                    round++;
+                    last = -1;
+                }
+                last = nextInRound(block, last, ran);
+                block[last]--;
+                blockLeft--;
+                return last;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            protected int getRound() {
+                return round;
+            }
+        };
+    }
+
+    /**
+     * Choosing the method of the next run within one round.
+     * 
+     * @param block
+     *            runs left within the round per method, must not be modified
+     * @param last
+     *            the method chosen last within the round, -1 at the start of
+     *            the round
+     * @param ran
+     *            random to be used for the order
+     * @return the index of a method with a run left within the round
+     */
+    protected abstract int nextInRound(final int[] block, final int last, final Random ran);
+
+}
@@ -26,12 +26,12 @@
  */
 package org.perfidix.element;
 
-import java.util.Hashtable;
-import java.util.Map;
-
 /**
  * This class acts as a container related to one benchmarkable method. This
- * class has an unique identifier for one execution.
+ * class has an identifier for one execution, unique for all executions of the
+ * method within one run. Elements generated by an arrangement additionally
+ * carry the index of their method within the arrangement so that the state
+ * of the method can be looked up without hashing the method for every run.
  * 
  * @see BenchmarkMethod
  * @author Sebastian Graf, University of Konstanz
@@ -44,26 +44,75 @@ public final class BenchmarkElement {
     /** The unique elementId for this elements. */
     private transient final int elementId;
 
+    /** The index of the method within its arrangement, -1 if not arranged. */
+    private transient final int methodIndex;
+
+    /** The round of this element, 0 if not arranged in rounds. */
+    private transient final int round;
+
+    /**
+     * Constructor, simple taking the corresponding {@link BenchmarkMethod} and
+     * the elementId, unique for all elements of the method within one run.
+     * 
+     * @param paramMeth
+     *            the related {@link BenchmarkMethod}
+     * @param paramId
+     *            the elementId of this element
+     */
+    public BenchmarkElement(final BenchmarkMethod paramMeth, final int paramId) {
+        this(paramMeth, paramId, 0);
+    }
+
     /**
-     * Static Mapping for BenchmarkMethod->Integer. Every BenchmarkMethod gains
-     * one unique elementId from this mapping.
+     * Constructor for an element arranged in rounds.
+     * 
+     * @param paramMeth
+     *            the related {@link BenchmarkMethod}
+     * @param paramId
+     *            the elementId of this element
+     * @param paramRound
+     *            the round of this element, starting at 1
      */
-    private static final Map<BenchmarkMethod, Integer> ID_MAPPING = new Hashtable<BenchmarkMethod, Integer>();
+    public BenchmarkElement(final BenchmarkMethod paramMeth, final int paramId, final int paramRound) {
+        this(paramMeth, -1, paramId, paramRound);
+    }
 
     /**
-     * Constructor, simple taking the corresponding {@link BenchmarkMethod}.
+     * Constructor for an element generated by an arrangement.
      * 
      * @param paramMeth
      *            the related {@link BenchmarkMethod}
+     * @param paramMethodIndex
+     *            the index of the method within the arrangement
+     * @param paramId
+     *            the elementId of this element
+     * @param paramRound
+     *            the round of this element, 0 if not arranged in rounds
      */
-    public BenchmarkElement(final BenchmarkMethod paramMeth) {
+    public BenchmarkElement(final BenchmarkMethod paramMeth, final int paramMethodIndex, final int paramId,
+        final int paramRound) {
         meth = paramMeth;
-        if (!ID_MAPPING.containsKey(paramMeth)) {
-            ID_MAPPING.put(getMeth(), 0);
-        }
-        elementId = ID_MAPPING.get(getMeth()) + 1;
-        ID_MAPPING.put(getMeth(), getId());
+        methodIndex = paramMethodIndex;
+        elementId = paramId;
+        round = paramRound;
+    }
+
+    /**
+     * Getter for the index of the method within its arrangement.
+     * 
+     * @return the index of the method, -1 if not generated by an arrangement
+     */
+    public int getMethodIndex() {
+        return methodIndex;
+    }
 
+    /**
+     * Getter for the round.
+     * 
+     * @return the round of this element, 0 if not arranged in rounds
+     */
+    public int getRound() {
+        return round;
     }
 
     /**
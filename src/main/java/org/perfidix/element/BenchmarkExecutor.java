@@ -27,46 +27,47 @@
 package org.perfidix.element;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.Hashtable;
-import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.perfidix.annotation.AfterEachRun;
 import org.perfidix.annotation.AfterLastRun;
 import org.perfidix.annotation.BeforeEachRun;
 import org.perfidix.annotation.BeforeFirstRun;
 import org.perfidix.annotation.Bench;
+import org.perfidix.annotation.Param;
+import org.perfidix.exceptions.AbstractPerfidixMethodException;
 import org.perfidix.exceptions.PerfidixMethodCheckException;
 import org.perfidix.exceptions.PerfidixMethodInvocationException;
+import org.perfidix.exceptions.PerfidixMethodTimeoutException;
 import org.perfidix.meter.AbstractMeter;
 import org.perfidix.result.BenchmarkResult;
+import org.perfidix.result.LatencyHistogram;
 
 /**
  * Corresponding to each method, an executor is launched to execute {@link BeforeFirstRun},
  * {@link BeforeEachRun}, {@link AfterEachRun} and {@link AfterLastRun} classes. To store the data if the
  * single-execute before
- * classes have been executed, this class is implemented as a singleton to store
- * this information related to the method. All the data comes from the {@link BenchmarkMethod} class.
+ * classes have been executed, one executor per method is held by the {@link BenchmarkSession} of the
+ * run. All the data comes from the {@link BenchmarkMethod} class.
  * 
  * @author Sebastian Graf, University of Konstanz
  */
 public final class BenchmarkExecutor {
 
-    /**
-     * Static mapping for all methods to be executed because of the single-runs
-     * before/after methods.
-     */
-    private static final Map<BenchmarkMethod, BenchmarkExecutor> EXECUTOR =
-        new Hashtable<BenchmarkMethod, BenchmarkExecutor>();
-
-    /** Set with all meters to be benched automatically. */
-    private static final Set<AbstractMeter> METERS_TO_BENCH = new LinkedHashSet<AbstractMeter>();
+    /** Nanoseconds per second for computing the throughput. */
+    private static final double NANOS_PER_SECOND = 1000000000d;
 
-    /** Result for all Benchmarks. */
-    private static BenchmarkResult benchRes;
+    /** Remaining nanoseconds to a scheduled start spent spinning instead of parking. */
+    private static final long SPIN_NANOS = 50000;
 
     /** Boolean to be sure that the beforeFirstRun was not executed yet. */
     private transient boolean beforeFirstRun;
@@ -80,195 +81,724 @@ public final class BenchmarkExecutor {
      */
     private transient final BenchmarkMethod element;
 
+    /** Invoker bound to the method to bench. */
+    private transient final MethodInvoker invoker;
+
+    /** Checked setUp and tearDown methods of the bench. */
+    private transient final ExecutionPlan plan;
+
+    /** Number of threads invoking the bench concurrently. */
+    private transient final int threads;
+
+    /** Factory for the threads of concurrent runs. */
+    private transient final WorkerThreadFactory threadFactory;
+
+    /** Measurement window of one concurrent run in milliseconds. */
+    private transient final long window;
+
+    /** Workers of concurrent runs, started on the first run and reused by all further runs. */
+    private transient ConcurrentWorker[] workers;
+
+    /** Worker of guarded runs, started on the first run and reused by all further runs. */
+    private transient GuardedWorker guard;
+
+    /** Number of invocations of the bench between two reads of the meters. */
+    private transient final int opsPerInvocation;
+
+    /** Number of operations in flight of an asynchronous bench. */
+    private transient final int inFlight;
+
+    /** Target arrival rate of a sampled bench in ops/s, 0 if closed-loop. */
+    private transient final double rate;
+
+    /** Timeout of one invocation in milliseconds, 0 if not guarded. */
+    private transient final long timeout;
+
+    /** Flag if an abandoned invocation still blocks the bench. */
+    private transient boolean timedOut;
+
+    /** Parameter combination of the bench, empty if not parameterized. */
+    private transient final String params;
+
+    /** Meters to be benched, taken from the session. */
+    private transient final Set<AbstractMeter> meters;
+
+    /** Result of the session. */
+    private transient final BenchmarkResult benchRes;
+
+    /** Overhead of one measurement per meter, ordered like the meters. */
+    private transient final double[] offsets;
+
+    /** States of the session injected into the bench. */
+    private transient final StateRegistry states;
+
+    /** Arguments of the bench per thread, resolved on the first run. */
+    private transient Object[][] arguments;
+
     /**
-     * Private constructor, just setting the booleans and one element to get the
-     * before/after methods.
+     * Constructor, just setting the booleans and one element to get the
+     * before/after methods. Executors are only created by their
+     * {@link BenchmarkSession}.
      * 
      * @param paramElement
      *            BenchmarkElement to provide easy access to the before/after
      *            methods.
+     * @param paramSession
+     *            the session providing the meters and the result
      */
-    private BenchmarkExecutor(final BenchmarkMethod paramElement) {
+    BenchmarkExecutor(final BenchmarkMethod paramElement, final BenchmarkSession paramSession) {
         beforeFirstRun = false;
         afterLastRun = false;
         element = paramElement;
+        invoker = element.getInvoker();
+        plan = element.getExecutionPlan();
+        threads = BenchmarkMethod.getNumberOfAnnotatedThreads(element.getMethodToBench());
+        threadFactory =
+            new WorkerThreadFactory(element.getMethodToBench().getName(), BenchmarkMethod
+                .isAnnotatedVirtualThreads(element.getMethodToBench()));
+        window = BenchmarkMethod.getAnnotatedWindow(element.getMethodToBench());
+        opsPerInvocation = BenchmarkMethod.getNumberOfAnnotatedOpsPerInvocation(element.getMethodToBench());
+        inFlight = BenchmarkMethod.getNumberOfAnnotatedInFlight(element.getMethodToBench());
+        rate = BenchmarkMethod.getAnnotatedRate(element.getMethodToBench());
+        final long annotatedTimeout = BenchmarkMethod.getAnnotatedTimeout(element.getMethodToBench());
+        if (annotatedTimeout > 0) {
+            timeout = annotatedTimeout;
+        } else {
+            timeout = paramSession.getTimeout();
+        }
+        params = element.getParameterString();
+        meters = paramSession.getMeters();
+        benchRes = paramSession.getResult();
+        states = paramSession.getStates();
+        offsets = new double[meters.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = paramSession.getOffset(i);
+        }
     }
 
     /**
-     * Getting the executor corresponding to a BenchmarkElement.
+     * Executing the {@link BeforeFirstRun}-annotated methods (if still wasn't)
+     * and the {@link BeforeEachRun} methods. The values of the {@link Param}
+     * -annotated fields are injected first. Skipped if an abandoned
+     * invocation still runs on the object, see {@link #isTimedOut()}.
      * 
-     * @param meth
-     *            for the executor. If the underlaying {@link Method} was not
-     *            registered, a new mapping-entry will be created.
-     * @return the BenchmarkExecutor corresponding to the Method of the
-     *         BenchmarkElement
+     * @param obj
+     *            the object of the class where the bench runs currently in.
      */
-    public static BenchmarkExecutor getExecutor(final BenchmarkElement meth) {
-        if (benchRes == null) {
-            throw new IllegalStateException("Call initialize method first!");
+    public void executeBeforeMethods(final Object obj) {
+        if (timedOut) {
+            return;
         }
 
-        // check if new instance needs to be created
-        if (!EXECUTOR.containsKey(meth.getMeth())) {
-            EXECUTOR.put(meth.getMeth(), new BenchmarkExecutor(meth.getMeth()));
+        // injecting the parameter combination of this bench
+        injectParameters(obj);
+
+        // invoking once the beforeFirstRun-method
+        if (!beforeFirstRun) {
+            beforeFirstRun = true;
+            addException(plan.executeBeforeFirstRun(obj));
         }
 
-        // returning the executor
-        return EXECUTOR.get(meth.getMeth());
+        // invoking the beforeEachRun-method
+        addException(plan.executeBeforeEachRun(obj));
 
     }
 
     /**
-     * Initializing the executor.
+     * Injecting the values of the {@link Param}-annotated fields of this bench
+     * into the object. Since an already instantiated object is shared by all
+     * parameter combinations of its class, the values are injected before
+     * each run.
      * 
-     * @param meters
-     *            to be benched
-     * @param result
-     *            to be stored to
+     * @param obj
+     *            the object of the class where the bench runs currently in.
      */
-    public static void initialize(final Set<AbstractMeter> meters, final BenchmarkResult result) {
-        METERS_TO_BENCH.clear();
-        METERS_TO_BENCH.addAll(meters);
-        EXECUTOR.clear();
-        benchRes = result;
-
+    private void injectParameters(final Object obj) {
+        final PerfidixMethodInvocationException injectByInvok =
+            injectParameters(obj, element.getParameters());
+        if (injectByInvok != null) {
+            benchRes.addException(injectByInvok);
+        }
     }
 
     /**
-     * Executing the {@link BeforeFirstRun}-annotated methods (if still wasn't)
-     * and the {@link BeforeEachRun} methods.
+     * Injecting the values of a parameter combination into the
+     * {@link Param}-annotated fields of an object.
      * 
      * @param obj
-     *            the object of the class where the bench runs currently in.
+     *            the object to be injected
+     * @param params
+     *            mapping field->value of the combination
+     * @return {@link PerfidixMethodInvocationException} if the injection
+     *         fails, null otherwise
      */
-    public void executeBeforeMethods(final Object obj) {
-
-        // invoking once the beforeFirstRun-method
-        if (!beforeFirstRun) {
-            beforeFirstRun = true;
-
-            Method[] beforeFirst = null;
+    public static PerfidixMethodInvocationException injectParameters(final Object obj,
+        final Map<Field, Object> params) {
+        for (final Map.Entry<Field, Object> entry : params.entrySet()) {
             try {
-                beforeFirst = element.findBeforeFirstRun();
-            } catch (final PerfidixMethodCheckException e) {
-                benchRes.addException(e);
-            }
-            if (beforeFirst.length != 0) {
-                checkAndExectuteBeforeAfters(obj, BeforeFirstRun.class, beforeFirst);
+                entry.getKey().setAccessible(true);
+                entry.getKey().set(obj, entry.getValue());
+            } catch (final IllegalAccessException e) {
+                return new PerfidixMethodInvocationException(e, Param.class);
+            } catch (final SecurityException e) {
+                return new PerfidixMethodInvocationException(e, Param.class);
             }
         }
-
-        // invoking the beforeEachRun-method
-        Method[] beforeEach = null;
-        try {
-            beforeEach = element.findBeforeEachRun();
-        } catch (final PerfidixMethodCheckException e) {
-            benchRes.addException(e);
-        }
-        if (beforeEach.length != 0) {
-            checkAndExectuteBeforeAfters(obj, BeforeEachRun.class, beforeEach);
-        }
-
+        return null;
     }
 
     /**
      * Execution of bench method. All data is stored corresponding to the
-     * meters.
+     * meters. If the method is annotated to be executed by more than one
+     * thread, all threads invoke the method concurrently on the same instance.
      * 
      * @param objToExecute
      *            the instance of the benchclass where the method should be
      *            executed with.
      */
     public void executeBench(final Object objToExecute) {
+        executeBench(objToExecute, false, 0);
+    }
 
-        final double[] meterResults = new double[METERS_TO_BENCH.size()];
+    /**
+     * Execution of bench method within one round of an arrangement. The run
+     * takes place exactly like {@link #executeBench(Object)} but the data is
+     * additionally stored as data of the round.
+     * 
+     * @param objToExecute
+     *            the instance of the benchclass where the method should be
+     *            executed with.
+     * @param round
+     *            the round of the run, 0 if not arranged in rounds
+     */
+    public void executeBench(final Object objToExecute, final int round) {
+        executeBench(objToExecute, false, round);
+    }
 
-        final Method meth = element.getMethodToBench();
+    /**
+     * Execution of one warmup run of the bench method. The run takes place
+     * exactly like {@link #executeBench(Object)} but the data is only stored as
+     * warmup data and not passed to the listeners.
+     * 
+     * @param objToExecute
+     *            the instance of the benchclass where the method should be
+     *            executed with.
+     */
+    public void executeWarmup(final Object objToExecute) {
+        executeBench(objToExecute, true, 0);
+    }
+
+    /**
+     * Execution of bench method, either as warmup or as measured run. Measured
+     * data is flagged if a garbage collection occurred during the run.
+     * 
+     * @param objToExecute
+     *            the instance of the benchclass where the method should be
+     *            executed with.
+     * @param warmup
+     *            true if the data should be stored as warmup data
+     * @param round
+     *            the round of the run, 0 if not arranged in rounds
+     */
+    private void executeBench(final Object objToExecute, final boolean warmup, final int round) {
+        if (timedOut || !resolveArguments()) {
+            return;
+        }
+        if (threads > 1 || threadFactory.isVirtual()) {
+            executeConcurrentBench(objToExecute, warmup, round);
+        } else {
+            double[] meterResults = new double[meters.size()];
+            final long collections = GcController.getCollectionCount();
+            PerfidixMethodInvocationException res = null;
+            if (timeout > 0) {
+                // measuring within the guarded worker, guarded by the current thread
+                if (guard == null) {
+                    guard = new GuardedWorker();
+                    guard.thread = threadFactory.newThread(guard);
+                    guard.thread.start();
+                }
+                final GuardedRun run = new GuardedRun(objToExecute, arguments[0]);
+                guard.runs.add(run);
+                try {
+                    if (!awaitWorkers(run.done, guard.thread)) {
+                        return;
+                    }
+                } catch (final InterruptedException e) {
+                    guard.thread.interrupt();
+                    Thread.currentThread().interrupt();
+                    benchRes.addException(new PerfidixMethodInvocationException(e, element.getMethodToBench(),
+                        Bench.class));
+                    return;
+                }
+                meterResults = run.meterResults;
+                res = run.exec;
+            } else {
+                res = measureBench(objToExecute, arguments[0], meterResults);
+            }
+            final boolean gc = GcController.getCollectionCount() != collections;
+
+            if (res == null) {
+                int meterIndex = 0;
+                for (final AbstractMeter meter : meters) {
+                    storeData(meter, meterResults[meterIndex], warmup, gc, round);
+                    meterIndex++;
+                }
+            } else {
+                benchRes.addException(res);
+            }
+        }
+
+    }
+
+    /**
+     * Sampling execution of the bench method. The bench is invoked
+     * continuously by the current thread until the wall-clock budget is spent
+     * and the latency of every invocation, including the completion of a
+     * returned future, is recorded into a {@link LatencyHistogram}. The meters
+     * are read once around all invocations and their data is stored once,
+     * normalized per invocation after subtracting the calibrated overhead of
+     * each invocation. The sampling stops at the first failing invocation,
+     * nothing is stored in that case.
+     * <p>
+     * If a rate is annotated, the invocations are started at fixed intervals
+     * instead (open loop). An invocation delayed by former ones is started as
+     * soon as possible and its latency is measured from its scheduled start,
+     * thus including the queueing delay. The achieved rate is stored together
+     * with the target rate. The data of the meters then includes the idle time
+     * between the scheduled starts, therefore no calibrated overhead is
+     * subtracted.
+     * </p>
+     * 
+     * @param objToExecute
+     *            the instance of the benchclass where the method should be
+     *            executed with.
+     * @param duration
+     *            the wall-clock budget in nanoseconds
+     */
+    public void executeSampling(final Object objToExecute, final long duration) {
+        if (timedOut || !resolveArguments()) {
+            return;
+        }
+        final Object[] args = arguments[0];
+        final LatencyHistogram histogram = new LatencyHistogram();
+        InFlightWindow window = null;
+        if (invoker.isAsync()) {
+            window = new InFlightWindow(1, invoker.getMethod());
+        }
 
+        final double[] meterResults = new double[meters.size()];
         int meterIndex1 = 0;
-        int meterIndex2 = 0;
-        for (final AbstractMeter meter : METERS_TO_BENCH) {
+        for (final AbstractMeter meter : meters) {
             meterResults[meterIndex1] = meter.getValue();
             meterIndex1++;
         }
 
-        final PerfidixMethodInvocationException res = invokeMethod(objToExecute, Bench.class, meth);
+        PerfidixMethodInvocationException res = null;
+        final long collections = GcController.getCollectionCount();
+        final long start = System.nanoTime();
+        long end = start;
+        long invocations = 0;
+        while (res == null && end - start < duration) {
+            final long before;
+            if (rate > 0) {
+                before = start + (long)(invocations * NANOS_PER_SECOND / rate);
+                awaitSchedule(before);
+            } else {
+                before = System.nanoTime();
+            }
+            res = invoker.invoke(objToExecute, args, window);
+            if (res == null && window != null) {
+                res = window.awaitAll();
+            }
+            end = System.nanoTime();
+            histogram.recordValue(end - before);
+            invocations++;
+        }
 
-        for (final AbstractMeter meter : METERS_TO_BENCH) {
-            meterResults[meterIndex2] = meter.getValue() - meterResults[meterIndex2];
+        int meterIndex2 = 0;
+        for (final AbstractMeter meter : meters) {
+            double diff = meter.getValue() - meterResults[meterIndex2];
+            if (rate == 0) {
+                diff -= offsets[meterIndex2] * invocations;
+            }
+            meterResults[meterIndex2] = diff / invocations;
             meterIndex2++;
         }
+        final boolean gc = GcController.getCollectionCount() != collections;
 
         if (res == null) {
-            meterIndex1 = 0;
-            for (final AbstractMeter meter : METERS_TO_BENCH) {
-                benchRes.addData(element.getMethodToBench(), meter, meterResults[meterIndex1]);
-                meterIndex1++;
+            int meterIndex = 0;
+            for (final AbstractMeter meter : meters) {
+                storeData(meter, meterResults[meterIndex], false, gc, 0);
+                meterIndex++;
+            }
+            benchRes.addLatencies(element.getMethodToBench(), params, histogram);
+            if (rate > 0 && end > start) {
+                benchRes.addRate(element.getMethodToBench(), params, rate, invocations
+                    / ((end - start) / NANOS_PER_SECOND));
             }
         } else {
             benchRes.addException(res);
         }
+    }
 
+    /**
+     * Waiting until all workers of a run are done. If the run exceeds the
+     * timeout, the workers are interrupted and the timeout is stored as
+     * exception. Workers not finishing within another timeout after the
+     * interrupt are abandoned and the remaining runs of the bench are skipped.
+     * 
+     * @param done
+     *            latch signalling the end of all workers
+     * @param workerThreads
+     *            the threads of the workers
+     * @return true if all workers are done in time, false if the run timed out
+     * @throws InterruptedException
+     *             if the current thread is interrupted while waiting
+     */
+    private boolean awaitWorkers(final CountDownLatch done, final Thread... workerThreads)
+        throws InterruptedException {
+        if (timeout == 0) {
+            done.await();
+            return true;
+        }
+        if (done.await(timeout * opsPerInvocation, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        for (final Thread thread : workerThreads) {
+            thread.interrupt();
+        }
+        if (!done.await(timeout, TimeUnit.MILLISECONDS)) {
+            timedOut = true;
+        }
+        benchRes.addException(new PerfidixMethodTimeoutException(timeout, element.getMethodToBench(),
+            Bench.class));
+        return false;
     }
 
     /**
-     * Executing the {@link AfterLastRun}-annotated methods (if still wasn't)
-     * and the {@link AfterEachRun} methods.
+     * Resolving the arguments of the bench for each thread once, including the
+     * setUp of the states on their first use. Takes place outside of the
+     * measurement.
      * 
-     * @param obj
-     *            the object of the class where the bench runs currently in.
+     * @return true if the arguments are available, false if a state failed,
+     *         the failure is stored by the {@link StateRegistry}
      */
-    public void executeAfterMethods(final Object obj) {
+    private boolean resolveArguments() {
+        if (arguments == null) {
+            final Object[][] resolved = new Object[threads][];
+            for (int i = 0; i < threads; i++) {
+                resolved[i] = states.getArguments(element, i);
+                if (resolved[i] == null) {
+                    return false;
+                }
+            }
+            arguments = resolved;
+        }
+        return true;
+    }
 
-        // invoking once the beforeFirstRun-method
-        if (!afterLastRun) {
-            afterLastRun = true;
-            Method[] afterLast = null;
-            try {
-                afterLast = element.findAfterLastRun();
-            } catch (final PerfidixMethodCheckException e) {
-                benchRes.addException(e);
+    /**
+     * Waiting until a scheduled start. The thread is parked until shortly
+     * before and spins for the rest since parking is too coarse for short
+     * intervals. Returns immediately if the start is already over.
+     * 
+     * @param scheduled
+     *            the start in terms of {@link System#nanoTime()}
+     */
+    private static void awaitSchedule(final long scheduled) {
+        long remaining = scheduled - System.nanoTime();
+        while (remaining > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
             }
-            if (afterLast.length != 0) {
-                checkAndExectuteBeforeAfters(obj, AfterLastRun.class, afterLast);
+            remaining = scheduled - System.nanoTime();
+        }
+    }
+
+    /**
+     * Storing one dataset of the bench method.
+     * 
+     * @param meter
+     *            the related meter
+     * @param data
+     *            the data itself
+     * @param warmup
+     *            true if the data should be stored as warmup data
+     * @param gc
+     *            true if the measurement overlapped a garbage collection,
+     *            ignored for warmup data
+     * @param round
+     *            the round of the run, 0 if not arranged in rounds, ignored
+     *            for warmup data
+     */
+    private void storeData(final AbstractMeter meter, final double data, final boolean warmup,
+        final boolean gc, final int round) {
+        if (warmup) {
+            benchRes.addWarmupData(element.getMethodToBench(), params, meter, data);
+        } else {
+            benchRes.addData(element.getMethodToBench(), params, meter, data);
+            if (gc) {
+                benchRes.addGcData(element.getMethodToBench(), params, meter, data);
             }
+            if (round > 0) {
+                benchRes.addRoundData(element.getMethodToBench(), params, round, meter, data);
+            }
+        }
+    }
+
+    /**
+     * Concurrent execution of the bench method. The threads are started on
+     * the first run and reused by all further runs. Within one run, all
+     * threads are released together and invoke the bench repeatedly until the
+     * measurement window is over, then each thread finishes its current
+     * invocation. The data of every thread is normalized per completed
+     * operation and stored corresponding to the meters plus as per-thread
+     * data, the aggregate throughput of the run is the sum of the throughputs
+     * of all threads, each measured by the thread itself. Warmup runs only
+     * store the data of every thread as warmup data. The threads are virtual
+     * threads if annotated and provided by the JVM.
+     * 
+     * @param objToExecute
+     *            the instance of the benchclass where the method should be
+     *            executed with.
+     * @param warmup
+     *            true if the data should be stored as warmup data
+     * @param round
+     *            the round of the run, 0 if not arranged in rounds
+     */
+    private void executeConcurrentBench(final Object objToExecute, final boolean warmup, final int round) {
+        final Method meth = element.getMethodToBench();
 
+        if (workers == null) {
+            workers = new ConcurrentWorker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new ConcurrentWorker(i);
+                workers[i].thread = threadFactory.newThread(workers[i]);
+                workers[i].thread.start();
+            }
+        }
+        final Thread[] workerThreads = new Thread[threads];
+        final ConcurrentRun run = new ConcurrentRun(objToExecute);
+        for (int i = 0; i < threads; i++) {
+            workerThreads[i] = workers[i].thread;
+            workers[i].runs.add(run);
         }
 
-        // invoking the beforeEachRun-method
-        Method[] afterEach = null;
+        final long collections = GcController.getCollectionCount();
         try {
-            afterEach = element.findAfterEachRun();
-        } catch (final PerfidixMethodCheckException e) {
-            benchRes.addException(e);
+            run.ready.await();
+            run.start.countDown();
+            Thread.sleep(window);
+            run.stop = true;
+            if (!awaitWorkers(run.done, workerThreads)) {
+                return;
+            }
+        } catch (final InterruptedException e) {
+            // releasing the workers, the run itself is not stored
+            run.stop = true;
+            run.start.countDown();
+            Thread.currentThread().interrupt();
+            benchRes.addException(new PerfidixMethodInvocationException(e, meth, Bench.class));
+            return;
         }
-        if (afterEach != null) {
-            checkAndExectuteBeforeAfters(obj, AfterEachRun.class, afterEach);
+
+        final boolean gc = GcController.getCollectionCount() != collections;
+
+        double throughput = 0;
+        for (int i = 0; i < threads; i++) {
+            if (run.execs[i] == null) {
+                int meterIndex = 0;
+                for (final AbstractMeter meter : meters) {
+                    storeData(meter, run.meterResults[i][meterIndex], warmup, gc, round);
+                    if (!warmup) {
+                        benchRes.addThreadData(meth, params, i, meter, run.meterResults[i][meterIndex]);
+                    }
+                    meterIndex++;
+                }
+                if (run.nanos[i] > 0) {
+                    throughput += run.ops[i] / (run.nanos[i] / NANOS_PER_SECOND);
+                }
+            } else {
+                benchRes.addException(run.execs[i]);
+            }
         }
 
+        if (!warmup && throughput > 0) {
+            benchRes.addThroughput(meth, params, throughput);
+        }
     }
 
     /**
-     * Checking and executing several before/after methods.
+     * Checking if an invocation of the bench was abandoned after its timeout.
+     * The abandoned invocation may still run, therefore neither further runs
+     * nor the before and after methods are executed anymore.
      * 
-     * @param obj
-     *            on which the execution should take place
-     * @param meth
-     *            to be executed
-     * @param anno
-     *            the related annotation
+     * @return true if the bench timed out and was abandoned
      */
-    private void checkAndExectuteBeforeAfters(final Object obj, final Class<? extends Annotation> anno,
-        Method... meths) {
-        final PerfidixMethodCheckException checkExc = checkMethod(obj, anno, meths);
-        if (checkExc == null) {
-            final PerfidixMethodInvocationException invoExc = invokeMethod(obj, anno, meths);
-            if (invoExc != null) {
-                benchRes.addException(invoExc);
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Stopping the workers of concurrent and guarded runs. The executor must
+     * not execute such runs afterwards.
+     */
+    public void shutdown() {
+        if (workers != null) {
+            for (final ConcurrentWorker worker : workers) {
+                worker.closed = true;
+                worker.thread.interrupt();
             }
+            workers = null;
+        }
+        if (guard != null) {
+            guard.closed = true;
+            guard.thread.interrupt();
+            guard = null;
+        }
+    }
 
-        } else {
-            benchRes.addException(checkExc);
+    /**
+     * Measuring one run of the bench method with all meters. Within one run,
+     * the bench is invoked as often as denoted by
+     * {@link Bench#opsPerInvocation()} and the data is normalized per
+     * operation. The calibrated overhead of the session is subtracted once
+     * per run before normalizing. The run stops at the first failing
+     * invocation. If the bench returns futures, up to
+     * {@link Bench#inFlight()} operations of the run are kept in flight and
+     * the meters are read after all of them completed.
+     * 
+     * @param objToExecute
+     *            the instance of the benchclass where the method should be
+     *            executed with.
+     * @param args
+     *            the arguments of the bench for the invoking thread
+     * @param meterResults
+     *            array where the differences of the meters are stored to,
+     *            ordered like the meters
+     * @return {@link PerfidixMethodInvocationException} if invocation fails,
+     *         null otherwise.
+     */
+    private PerfidixMethodInvocationException measureBench(final Object objToExecute, final Object[] args,
+        final double[] meterResults) {
+        final InFlightWindow window = newWindow();
+        int meterIndex1 = 0;
+        int meterIndex2 = 0;
+        for (final AbstractMeter meter : meters) {
+            meterResults[meterIndex1] = meter.getValue();
+            meterIndex1++;
+        }
+
+        final PerfidixMethodInvocationException res =
+            awaitWindow(invokeBench(objToExecute, args, window), window);
+
+        for (final AbstractMeter meter : meters) {
+            meterResults[meterIndex2] =
+                (meter.getValue() - meterResults[meterIndex2] - offsets[meterIndex2]) / opsPerInvocation;
+            meterIndex2++;
+        }
+        return res;
+    }
+
+    /**
+     * Invoking the bench method as often as denoted by
+     * {@link Bench#opsPerInvocation()} without reading the meters. The
+     * invocations stop at the first failing one. If the bench returns futures,
+     * these are added to the given window and stay in flight after returning,
+     * see {@link #awaitWindow(PerfidixMethodInvocationException, InFlightWindow)}.
+     * 
+     * @param objToExecute
+     *            the instance of the benchclass where the method should be
+     *            executed with.
+     * @param args
+     *            the arguments of the bench for the invoking thread
+     * @param window
+     *            the window of the operations in flight, null if the bench
+     *            does not return futures
+     * @return {@link PerfidixMethodInvocationException} if invocation fails,
+     *         null otherwise.
+     */
+    private PerfidixMethodInvocationException invokeBench(final Object objToExecute, final Object[] args,
+        final InFlightWindow window) {
+        PerfidixMethodInvocationException res = null;
+        for (int i = 0; i < opsPerInvocation && res == null; i++) {
+            res = invoker.invoke(objToExecute, args, window);
+        }
+        return res;
+    }
+
+    /**
+     * Creating the window of the operations in flight for one run of the
+     * invoking thread. The window is created before the meters are read and
+     * kept for all invocations of the run.
+     * 
+     * @return a new window bounded by {@link Bench#inFlight()}, null if the
+     *         bench does not return futures
+     */
+    private InFlightWindow newWindow() {
+        InFlightWindow returnVal = null;
+        if (invoker.isAsync()) {
+            returnVal = new InFlightWindow(inFlight, invoker.getMethod());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Completing all operations still in flight at the end of a run.
+     * 
+     * @param res
+     *            the exception of the invocations, null if all succeeded
+     * @param window
+     *            the window of the run, ignored if null
+     * @return the given exception if not null, otherwise the exception of the
+     *         first failed operation in flight or null
+     */
+    private static PerfidixMethodInvocationException awaitWindow(final PerfidixMethodInvocationException res,
+        final InFlightWindow window) {
+        PerfidixMethodInvocationException returnVal = res;
+        if (window != null) {
+            final PerfidixMethodInvocationException pendingRes = window.awaitAll();
+            if (returnVal == null) {
+                returnVal = pendingRes;
+            }
+        }
+        return returnVal;
+    }
+
+    /**
+     * Executing the {@link AfterLastRun}-annotated methods (if still wasn't)
+     * and the {@link AfterEachRun} methods. Skipped if an abandoned
+     * invocation still runs on the object, see {@link #isTimedOut()}.
+     * 
+     * @param obj
+     *            the object of the class where the bench runs currently in.
+     */
+    public void executeAfterMethods(final Object obj) {
+        if (timedOut) {
+            return;
+        }
+
+        // invoking once the afterLastRun-method
+        if (!afterLastRun) {
+            afterLastRun = true;
+            addException(plan.executeAfterLastRun(obj));
+        }
+
+        // invoking the afterEachRun-method
+        addException(plan.executeAfterEachRun(obj));
+
+    }
+
+    /**
+     * Storing an exception of the setUp and tearDown methods to the result.
+     * 
+     * @param exc
+     *            to be stored, ignored if null
+     */
+    private void addException(final AbstractPerfidixMethodException exc) {
+        if (exc != null) {
+            benchRes.addException(exc);
         }
     }
 
@@ -286,10 +816,9 @@ public final class BenchmarkExecutor {
      */
     public static PerfidixMethodInvocationException invokeMethod(final Object obj,
         final Class<? extends Annotation> relatedAnno, Method... meths) {
-        final Object[] args = {};
         for (Method meth : meths) {
             try {
-                meth.invoke(obj, args);
+                meth.invoke(obj, MethodInvoker.NO_ARGS);
             } catch (final IllegalArgumentException e) {
                 return new PerfidixMethodInvocationException(e, meth, relatedAnno);
             } catch (final IllegalAccessException e) {
@@ -318,15 +847,9 @@ public final class BenchmarkExecutor {
         final Class<? extends Annotation> anno, Method... meths) {
 
         for (Method meth : meths) {
-            // check if the class of the object to be executed has the given method
-            boolean classMethodCorr = false;
-            for (final Method methodOfClass : obj.getClass().getDeclaredMethods()) {
-                if (methodOfClass.equals(meth)) {
-                    classMethodCorr = true;
-                }
-            }
-
-            if (!classMethodCorr) {
+            // check if the class of the object to be executed has the given
+            // method, i.e. if the method is declared by exactly this class
+            if (!meth.getDeclaringClass().equals(obj.getClass())) {
                 return new PerfidixMethodCheckException(new IllegalStateException(new StringBuilder(
                     "Object to execute ").append(obj).append(" is not having a Method named ").append(meth)
                     .append(".").toString()), meth, anno);
@@ -342,4 +865,230 @@ public final class BenchmarkExecutor {
         return null;
     }
 
+    /**
+     * One concurrent run, shared by all workers.
+     * 
+     * @author Sebastian Graf, University of Konstanz
+     */
+    private final class ConcurrentRun {
+
+        /** Instance of the benchclass shared by all workers. */
+        private transient final Object objToExecute;
+
+        /** Latch to signal that all workers are ready. */
+        private transient final CountDownLatch ready;
+
+        /** Latch to release all workers together. */
+        private transient final CountDownLatch start;
+
+        /** Latch to signal that all workers are done. */
+        private transient final CountDownLatch done;
+
+        /** Flag set after the measurement window to stop the workers. */
+        private transient volatile boolean stop;
+
+        /** Measured differences of the meters per operation, per worker. */
+        private transient final double[][] meterResults;
+
+        /** Completed operations per worker. */
+        private transient final long[] ops;
+
+        /** Nanoseconds from the first to the end of the last operation per worker. */
+        private transient final long[] nanos;
+
+        /** Exception of the invocations per worker, null if everything went fine. */
+        private transient final PerfidixMethodInvocationException[] execs;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramObj
+         *            instance of the benchclass
+         */
+        ConcurrentRun(final Object paramObj) {
+            objToExecute = paramObj;
+            ready = new CountDownLatch(threads);
+            start = new CountDownLatch(1);
+            done = new CountDownLatch(threads);
+            meterResults = new double[threads][meters.size()];
+            ops = new long[threads];
+            nanos = new long[threads];
+            execs = new PerfidixMethodInvocationException[threads];
+        }
+
+        /**
+         * Executing the run within one worker. The worker invokes the bench
+         * until the run is stopped, the meters are read once around all
+         * invocations. Futures returned by the bench stay in flight across
+         * the invocations of the run and are completed before the meters are
+         * read.
+         * 
+         * @param index
+         *            the index of the worker
+         */
+        void execute(final int index) {
+            try {
+                ready.countDown();
+                start.await();
+                final InFlightWindow window = newWindow();
+                final double[] results = meterResults[index];
+                int meterIndex1 = 0;
+                for (final AbstractMeter meter : meters) {
+                    results[meterIndex1] = meter.getValue();
+                    meterIndex1++;
+                }
+                final long begin = System.nanoTime();
+                PerfidixMethodInvocationException res = null;
+                long completed = 0;
+                while (res == null && (completed == 0 || !stop)) {
+                    res = invokeBench(objToExecute, arguments[index], window);
+                    completed += opsPerInvocation;
+                }
+                res = awaitWindow(res, window);
+                nanos[index] = System.nanoTime() - begin;
+                int meterIndex2 = 0;
+                for (final AbstractMeter meter : meters) {
+                    results[meterIndex2] =
+                        (meter.getValue() - results[meterIndex2] - offsets[meterIndex2]) / completed;
+                    meterIndex2++;
+                }
+                ops[index] = completed;
+                execs[index] = res;
+            } catch (final InterruptedException e) {
+                execs[index] =
+                    new PerfidixMethodInvocationException(e, element.getMethodToBench(), Bench.class);
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Worker for one thread of concurrent runs. The worker executes the runs
+     * handed over by the executor one after another until it is closed.
+     * 
+     * @author Sebastian Graf, University of Konstanz
+     */
+    private final class ConcurrentWorker implements Runnable {
+
+        /** Index of the worker. */
+        private transient final int index;
+
+        /** Runs to be executed by this worker. */
+        private transient final BlockingQueue<ConcurrentRun> runs;
+
+        /** Thread of this worker. */
+        private transient Thread thread;
+
+        /** Flag if the worker is closed. */
+        private transient volatile boolean closed;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramIndex
+         *            index of the worker
+         */
+        ConcurrentWorker(final int paramIndex) {
+            index = paramIndex;
+            runs = new LinkedBlockingQueue<ConcurrentRun>();
+        }
+
+        /** {@inheritDoc} */
+        public void run() {
+            while (!closed) {
+                try {
+                    runs.take().execute(index);
+                } catch (final InterruptedException e) {
+                    // interrupt of a timed out run or of the shutdown, checked by the loop
+                }
+            }
+        }
+    }
+
+    /**
+     * One guarded run, measured by the guarded worker.
+     * 
+     * @author Sebastian Graf, University of Konstanz
+     */
+    private final class GuardedRun {
+
+        /** Instance of the benchclass. */
+        private transient final Object objToExecute;
+
+        /** Arguments of the bench. */
+        private transient final Object[] args;
+
+        /** Latch to signal that the run is done. */
+        private transient final CountDownLatch done;
+
+        /** Measured differences of the meters. */
+        private transient final double[] meterResults;
+
+        /** Exception of the invocation, null if everything went fine. */
+        private transient PerfidixMethodInvocationException exec;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramObj
+         *            instance of the benchclass
+         * @param paramArgs
+         *            arguments of the bench
+         */
+        GuardedRun(final Object paramObj, final Object[] paramArgs) {
+            objToExecute = paramObj;
+            args = paramArgs;
+            done = new CountDownLatch(1);
+            meterResults = new double[meters.size()];
+        }
+
+        /**
+         * Measuring the run within the guarded worker and signalling its end.
+         */
+        void execute() {
+            try {
+                exec = measureBench(objToExecute, args, meterResults);
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Worker for the guarded runs of a single-threaded bench. The worker
+     * executes the runs handed over by the executor one after another until
+     * it is closed.
+     * 
+     * @author Sebastian Graf, University of Konstanz
+     */
+    private final class GuardedWorker implements Runnable {
+
+        /** Runs to be executed by this worker. */
+        private transient final BlockingQueue<GuardedRun> runs;
+
+        /** Thread of this worker. */
+        private transient Thread thread;
+
+        /** Flag if the worker is closed. */
+        private transient volatile boolean closed;
+
+        /**
+         * Constructor.
+         */
+        GuardedWorker() {
+            runs = new LinkedBlockingQueue<GuardedRun>();
+        }
+
+        /** {@inheritDoc} */
+        public void run() {
+            while (!closed) {
+                try {
+                    runs.take().execute();
+                } catch (final InterruptedException e) {
+                    // interrupt of a timed out run or of the shutdown, checked by the loop
+                }
+            }
+        }
+    }
 }
@@ -27,10 +27,14 @@
 package org.perfidix.element;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.perfidix.annotation.AfterBenchClass;
 import org.perfidix.annotation.AfterEachRun;
@@ -40,6 +44,7 @@ import org.perfidix.annotation.BeforeEachRun;
 import org.perfidix.annotation.BeforeFirstRun;
 import org.perfidix.annotation.Bench;
 import org.perfidix.annotation.BenchClass;
+import org.perfidix.annotation.Param;
 import org.perfidix.annotation.SkipBench;
 import org.perfidix.exceptions.PerfidixMethodCheckException;
 
@@ -59,11 +64,33 @@ import org.perfidix.exceptions.PerfidixMethodCheckException;
  */
 public final class BenchmarkMethod {
 
+    /**
+     * Measurement window of concurrent runs of methods only benched because of
+     * a benchclass annotation, same as the default of {@link Bench#window()}.
+     */
+    private static final long DEFAULT_WINDOW = 100;
+
     /**
      * Method to be benched.
      */
     private transient final Method methodToBench;
 
+    /**
+     * Invoker bound to the method to be benched.
+     */
+    private transient final MethodInvoker invoker;
+
+    /**
+     * Checked setUp and tearDown methods of the method to be benched.
+     */
+    private transient final ExecutionPlan plan;
+
+    /**
+     * Values of the {@link Param}-annotated fields for this method, already
+     * converted to the types of the fields.
+     */
+    private transient final Map<Field, Object> parameters;
+
     /**
      * Constructor, with a definite method to bench. The method has to be
      * checked with {@link BenchmarkMethod#isBenchmarkable(Method)} first,
@@ -73,12 +100,50 @@ public final class BenchmarkMethod {
      *            method to be benched (eventually)
      */
     public BenchmarkMethod(final Method paramMethod) {
+        this(paramMethod, new LinkedHashMap<Field, String>());
+    }
+
+    /**
+     * Constructor, with a definite method to bench and one combination of
+     * values for the {@link Param}-annotated fields. The values are converted
+     * to the types of the fields, an IllegalArgumentException arises if not
+     * convertible.
+     * 
+     * @param paramMethod
+     *            method to be benched (eventually)
+     * @param paramParameters
+     *            values of the parameter fields
+     */
+    public BenchmarkMethod(final Method paramMethod, final Map<Field, String> paramParameters) {
         methodToBench = paramMethod;
+        parameters = Collections.unmodifiableMap(convertParameters(paramParameters));
         if (!isBenchmarkable(methodToBench)) {
             throw new IllegalArgumentException(new StringBuilder(
                 "Only benchmarkable methods allowed but method ").append(paramMethod).append(
                 " is not benchmarkable.").toString());
         }
+        invoker = new MethodInvoker(methodToBench, Bench.class);
+        plan = new ExecutionPlan(this);
+    }
+
+    /**
+     * Getting the invoker bound to the method to bench, built once per
+     * instance.
+     * 
+     * @return the {@link MethodInvoker} of the method to bench
+     */
+    public MethodInvoker getInvoker() {
+        return invoker;
+    }
+
+    /**
+     * Getting the plan of the setUp and tearDown methods, built and checked
+     * once per instance.
+     * 
+     * @return the {@link ExecutionPlan} of the method to bench
+     */
+    public ExecutionPlan getExecutionPlan() {
+        return plan;
     }
 
     /**
@@ -375,6 +440,440 @@ public final class BenchmarkMethod {
         return returnVal;
     }
 
+    /**
+     * Getting the number of threads invoking a given method concurrently. The
+     * method MUST be a benchmarkable method, otherwise an
+     * IllegalArgumentException arises. The number of threads of an annotated
+     * method is more powerful than the number of threads as denoted by the
+     * benchclass annotation.
+     *
+     * @param meth
+     *            to be checked
+     * @return the number of threads of this benchmarkable-method
+     * @throws IllegalArgumentException
+     *             if the method is not benchmarkable or annotates less than
+     *             one thread
+     */
+    public static int getNumberOfAnnotatedThreads(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        final BenchClass benchClassAnno = meth.getDeclaringClass().getAnnotation(BenchClass.class);
+        int returnVal;
+        if (benchAnno == null) {
+            returnVal = benchClassAnno.threads();
+        } else {
+            returnVal = benchAnno.threads();
+        }
+        if (returnVal < 1) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be invoked by at least one thread.").toString());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting if a given method is invoked by virtual threads. The method MUST
+     * be a benchmarkable method, otherwise an IllegalArgumentException arises.
+     * The setting of an annotated method is more powerful than the setting as
+     * denoted by the benchclass annotation.
+     *
+     * @param meth
+     *            to be checked
+     * @return true if the method should be invoked by virtual threads
+     */
+    public static boolean isAnnotatedVirtualThreads(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        final BenchClass benchClassAnno = meth.getDeclaringClass().getAnnotation(BenchClass.class);
+        boolean returnVal;
+        if (benchAnno == null) {
+            returnVal = benchClassAnno.virtualThreads();
+        } else {
+            returnVal = benchAnno.virtualThreads();
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the number of warmup runs of a given method. The method MUST be
+     * a benchmarkable method, otherwise an IllegalArgumentException arises.
+     * The number of warmup runs of an annotated method is more powerful than
+     * the number of warmup runs as denoted by the benchclass annotation.
+     *
+     * @param meth
+     *            to be checked
+     * @return the number of warmup runs of this benchmarkable-method,
+     *         {@link Bench#NONE_RUN} if not set
+     */
+    public static int getNumberOfAnnotatedWarmupRuns(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        final BenchClass benchClassAnno = meth.getDeclaringClass().getAnnotation(BenchClass.class);
+        int returnVal;
+        if (benchAnno == null) {
+            returnVal = benchClassAnno.warmupRuns();
+        } else {
+            returnVal = benchAnno.warmupRuns();
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the number of operations per run of a given method. The method
+     * MUST be a benchmarkable method, otherwise an IllegalArgumentException
+     * arises. Methods only benched because of a benchclass annotation are
+     * invoked once per run.
+     *
+     * @param meth
+     *            to be checked
+     * @return the number of invocations between two reads of the meters
+     */
+    public static int getNumberOfAnnotatedOpsPerInvocation(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        int returnVal = 1;
+        if (benchAnno != null) {
+            returnVal = benchAnno.opsPerInvocation();
+        }
+        if (returnVal < 1) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must have at least one operation per invocation.").toString());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the measurement window of one concurrent run of a given method
+     * in milliseconds. The method MUST be a benchmarkable method, otherwise an
+     * IllegalArgumentException arises. Methods only benched because of a
+     * benchclass annotation have the default window.
+     *
+     * @param meth
+     *            to be checked
+     * @return the window in milliseconds
+     * @throws IllegalArgumentException
+     *             if the method is not benchmarkable or annotates a window
+     *             smaller than one millisecond
+     */
+    public static long getAnnotatedWindow(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        long returnVal = DEFAULT_WINDOW;
+        if (benchAnno != null) {
+            returnVal = benchAnno.window();
+        }
+        if (returnVal < 1) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must have a measurement window of at least one millisecond.").toString());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the number of operations in flight of a given asynchronous
+     * method. The method MUST be a benchmarkable method, otherwise an
+     * IllegalArgumentException arises. Methods only benched because of a
+     * benchclass annotation have one operation in flight.
+     *
+     * @param meth
+     *            to be checked
+     * @return the maximum number of futures not yet completed
+     */
+    public static int getNumberOfAnnotatedInFlight(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        int returnVal = 1;
+        if (benchAnno != null) {
+            returnVal = benchAnno.inFlight();
+        }
+        if (returnVal < 1) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must have at least one operation in flight.").toString());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the wall-clock budget of a given method in nanoseconds. The
+     * method MUST be a benchmarkable method, otherwise an
+     * IllegalArgumentException arises. Methods only benched because of a
+     * benchclass annotation have no annotated budget.
+     *
+     * @param meth
+     *            to be checked
+     * @return the budget in nanoseconds, 0 if the method is not time-boxed by
+     *         annotation
+     */
+    public static long getAnnotatedDuration(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        long returnVal = 0;
+        if (benchAnno != null && benchAnno.duration() > 0) {
+            returnVal = (long)(benchAnno.duration() * benchAnno.timeUnit().getNumberOfMilliSeconds());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting if a given method is benched in sampling mode. The method MUST
+     * be a benchmarkable method, otherwise an IllegalArgumentException arises.
+     * Methods only benched because of a benchclass annotation are never
+     * sampled.
+     *
+     * @param meth
+     *            to be checked
+     * @return true if the latency of every invocation should be recorded,
+     *         either by annotated sampling or by an annotated rate
+     */
+    public static boolean isAnnotatedSampling(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        return benchAnno != null && (benchAnno.sampling() || benchAnno.rate() > 0);
+    }
+
+    /**
+     * Getting the target arrival rate of a given sampled method. The method
+     * MUST be a benchmarkable method, otherwise an IllegalArgumentException
+     * arises. Methods only benched because of a benchclass annotation are
+     * invoked without schedule.
+     *
+     * @param meth
+     *            to be checked
+     * @return the rate in operations per second, 0 if each invocation starts
+     *         when the former one is finished
+     */
+    public static double getAnnotatedRate(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        double returnVal = 0;
+        if (benchAnno != null) {
+            returnVal = benchAnno.rate();
+        }
+        if (returnVal < 0 || Double.isNaN(returnVal) || Double.isInfinite(returnVal)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must have a finite, non-negative rate.").toString());
+        }
+        return returnVal;
+    }
+
+    /**
+     * This method returns the timeout of one invocation in milliseconds
+     * annotated with {@link Bench#timeout()}.
+     * 
+     * @param meth
+     *            the method to be checked.
+     * @return the annotated timeout, 0 if not annotated
+     * @throws IllegalArgumentException
+     *             if the method is not benchmarkable or the timeout is
+     *             negative
+     */
+    public static long getAnnotatedTimeout(final Method meth) {
+        if (!isBenchmarkable(meth)) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must be a benchmarkable method.").toString());
+        }
+        final Bench benchAnno = meth.getAnnotation(Bench.class);
+        long returnVal = 0;
+        if (benchAnno != null) {
+            returnVal = benchAnno.timeout();
+        }
+        if (returnVal < 0) {
+            throw new IllegalArgumentException(new StringBuilder("Method ").append(meth).append(
+                " must have a non-negative timeout.").toString());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Checking all annotated values of a given method which are validated by
+     * their getters, i.e. threads, operations per invocation, window,
+     * operations in flight, rate and timeout. Used to reject a method before
+     * the benchmark starts instead of failing within its first run.
+     * 
+     * @param meth
+     *            to be checked
+     * @throws IllegalArgumentException
+     *             if the method is not benchmarkable or any annotated value
+     *             is invalid
+     */
+    public static void checkAnnotatedValues(final Method meth) {
+        getNumberOfAnnotatedThreads(meth);
+        getNumberOfAnnotatedOpsPerInvocation(meth);
+        getAnnotatedWindow(meth);
+        getNumberOfAnnotatedInFlight(meth);
+        getAnnotatedRate(meth);
+        getAnnotatedTimeout(meth);
+    }
+
+    /**
+     * Getting the values of the {@link Param}-annotated fields for this method.
+     * 
+     * @return an unmodifiable mapping field->value, empty if not parameterized
+     */
+    public Map<Field, Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Getting the values of the {@link Param}-annotated fields as string like
+     * <code>size=10, kind=LINKED</code>.
+     * 
+     * @return the parameter tuple, empty if not parameterized
+     */
+    public String getParameterString() {
+        return getParameterString(parameters);
+    }
+
+    /**
+     * Getting the values of a parameter combination as string like
+     * <code>size=10, kind=LINKED</code>.
+     * 
+     * @param params
+     *            mapping field->value of the combination
+     * @return the parameter tuple, empty if the mapping is empty
+     */
+    public static String getParameterString(final Map<Field, Object> params) {
+        final StringBuilder builder = new StringBuilder();
+        for (final Map.Entry<Field, Object> entry : params.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(entry.getKey().getName()).append("=").append(entry.getValue());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Getting all combinations of the values of the {@link Param}-annotated
+     * fields of a class, including the fields of its superclasses. The result
+     * is the cartesian product of the values in declaration order of the
+     * fields.
+     * 
+     * @param clazz
+     *            to be searched
+     * @return a list with one mapping field->value per combination, a list
+     *         with one empty mapping if the class has no parameters
+     */
+    public static List<Map<Field, String>> getParameterCombinations(final Class<?> clazz) {
+        List<Map<Field, String>> returnVal = new ArrayList<Map<Field, String>>();
+        returnVal.add(new LinkedHashMap<Field, String>());
+
+        Class<?> current = clazz;
+        while (current != null) {
+            for (final Field field : current.getDeclaredFields()) {
+                final Param paramAnno = field.getAnnotation(Param.class);
+                if (paramAnno != null) {
+                    if (Modifier.isFinal(field.getModifiers())) {
+                        throw new IllegalArgumentException(new StringBuilder("Param-annotated field ").append(
+                            field).append(" must not be final.").toString());
+                    }
+                    final List<Map<Field, String>> expanded = new ArrayList<Map<Field, String>>();
+                    for (final Map<Field, String> combination : returnVal) {
+                        for (final String value : paramAnno.value()) {
+                            final Map<Field, String> newCombination =
+                                new LinkedHashMap<Field, String>(combination);
+                            newCombination.put(field, value);
+                            expanded.add(newCombination);
+                        }
+                    }
+                    returnVal = expanded;
+                }
+            }
+            current = current.getSuperclass();
+        }
+        return returnVal;
+    }
+
+    /**
+     * Converting the values of a parameter combination to the types of their
+     * fields, an IllegalArgumentException arises if not convertible.
+     * 
+     * @param params
+     *            mapping field->value as string of the combination
+     * @return a new mapping field->converted value
+     */
+    public static Map<Field, Object> convertParameters(final Map<Field, String> params) {
+        final Map<Field, Object> returnVal = new LinkedHashMap<Field, Object>();
+        for (final Map.Entry<Field, String> entry : params.entrySet()) {
+            returnVal.put(entry.getKey(), convertParameter(entry.getKey(), entry.getValue()));
+        }
+        return returnVal;
+    }
+
+    /**
+     * Converting the value of a parameter to the type of its field.
+     * 
+     * @param field
+     *            the parameter field
+     * @param value
+     *            the value as string
+     * @return the converted value
+     */
+    @SuppressWarnings({
+        "unchecked", "rawtypes"
+    })
+    private static Object convertParameter(final Field field, final String value) {
+        final Class<?> type = field.getType();
+        try {
+            Object returnVal;
+            if (type.equals(String.class)) {
+                returnVal = value;
+            } else if (type.equals(Integer.TYPE) || type.equals(Integer.class)) {
+                returnVal = Integer.valueOf(value.trim());
+            } else if (type.equals(Long.TYPE) || type.equals(Long.class)) {
+                returnVal = Long.valueOf(value.trim());
+            } else if (type.equals(Double.TYPE) || type.equals(Double.class)) {
+                returnVal = Double.valueOf(value.trim());
+            } else if (type.equals(Float.TYPE) || type.equals(Float.class)) {
+                returnVal = Float.valueOf(value.trim());
+            } else if (type.equals(Short.TYPE) || type.equals(Short.class)) {
+                returnVal = Short.valueOf(value.trim());
+            } else if (type.equals(Byte.TYPE) || type.equals(Byte.class)) {
+                returnVal = Byte.valueOf(value.trim());
+            } else if (type.equals(Boolean.TYPE) || type.equals(Boolean.class)) {
+                returnVal = Boolean.valueOf(value.trim());
+            } else if ((type.equals(Character.TYPE) || type.equals(Character.class)) && value.length() == 1) {
+                returnVal = Character.valueOf(value.charAt(0));
+            } else if (type.isEnum()) {
+                returnVal = Enum.valueOf((Class<? extends Enum>)type, value.trim());
+            } else {
+                throw new IllegalArgumentException(new StringBuilder("Type of Param-annotated field ").append(
+                    field).append(" is not supported.").toString());
+            }
+            return returnVal;
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(new StringBuilder("Value ").append(value).append(
+                " does not fit to Param-annotated field ").append(field).toString(), e);
+        }
+    }
+
     /**
      * This class finds any method with a given annotation. The method is
      * allowed to occure only once in the class and should match the
@@ -497,7 +996,10 @@ public final class BenchmarkMethod {
     /**
      * Checks if this method is executable via reflection for perfidix purposes.
      * That means that the method has no parameters, no return-value, is
-     * non-static, is public and throws no exceptions.
+     * non-static, is public and throws no exceptions. Methods explicitly
+     * annotated with {@link Bench} may additionally return a value, which is
+     * consumed by a {@link Blackhole}, and may take a {@link Blackhole} and
+     * any {@link org.perfidix.annotation.State} classes as parameters.
      * 
      * @param meth
      *            method to be checked
@@ -508,8 +1010,19 @@ public final class BenchmarkMethod {
      */
     public static boolean isReflectedExecutable(final Method meth, final Class<? extends Annotation> anno) {
         boolean returnVal = true;
-        // if method has parameters, the method is not benchmarkable
-        if (meth.getGenericParameterTypes().length > 0) {
+        final boolean explicitBench = anno.equals(Bench.class) && meth.getAnnotation(Bench.class) != null;
+        // if method has parameters, the method is not benchmarkable except a
+        // single blackhole and states for explicit benches
+        final Class<?>[] params = meth.getParameterTypes();
+        int blackholes = 0;
+        for (final Class<?> param : params) {
+            if (param.equals(Blackhole.class)) {
+                blackholes++;
+            } else if (!explicitBench || !StateRegistry.isState(param)) {
+                returnVal = false;
+            }
+        }
+        if (blackholes > 1 || (blackholes > 0 && !explicitBench)) {
             returnVal = false;
         }
         // if method is static, the method is not benchmarkable
@@ -521,8 +1034,8 @@ public final class BenchmarkMethod {
             returnVal = false;
         }
         // if method has another returnValue than void, the method is not
-        // benchmarkable
-        if (!meth.getGenericReturnType().equals(Void.TYPE)) {
+        // benchmarkable except for explicit benches
+        if (!explicitBench && !meth.getGenericReturnType().equals(Void.TYPE)) {
             returnVal = false;
         }
 
@@ -539,6 +1052,7 @@ public final class BenchmarkMethod {
         } else {
             result = prime * result + methodToBench.hashCode();
         }
+        result = prime * result + parameters.hashCode();
 
         return result;
     }
@@ -567,6 +1081,9 @@ public final class BenchmarkMethod {
 
             }
         }
+        if (!parameters.equals(other.parameters)) {
+            returnVal = false;
+        }
         return returnVal;
     }
 
@@ -575,7 +1092,11 @@ public final class BenchmarkMethod {
      */
     @Override
     public String toString() {
-        return new StringBuilder(methodToBench.getName()).toString();
+        final StringBuilder builder = new StringBuilder(methodToBench.getName());
+        if (!parameters.isEmpty()) {
+            builder.append("[").append(getParameterString()).append("]");
+        }
+        return builder.toString();
     }
 
     /**
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.result.BenchmarkResult;
+
+/**
+ * This class holds the state of one run of a benchmark: the meters to bench,
+ * the result to store the data to and one {@link BenchmarkExecutor} per
+ * {@link BenchmarkMethod}. Since nothing is shared between sessions, several
+ * benchmarks can run at once within one JVM.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class BenchmarkSession {
+
+    /**
+     * Mapping for all methods to be executed because of the single-runs
+     * before/after methods.
+     */
+    private transient final Map<BenchmarkMethod, BenchmarkExecutor> executors;
+
+    /** Set with all meters to be benched automatically. */
+    private transient final Set<AbstractMeter> meters;
+
+    /** Result for all Benchmarks of this session. */
+    private transient final BenchmarkResult benchRes;
+
+    /** Overhead subtracted from the data of each meter, ordered like the meters. */
+    private transient final double[] offsets;
+
+    /** Timeout of one invocation in milliseconds if not annotated, 0 for none. */
+    private transient final long timeout;
+
+    /** States injected into the benches of this session. */
+    private transient final StateRegistry states;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramMeters
+     *            to be benched
+     * @param paramResult
+     *            to be stored to
+     */
+    public BenchmarkSession(final Set<AbstractMeter> paramMeters, final BenchmarkResult paramResult) {
+        this(paramMeters, paramResult, new double[paramMeters.size()]);
+    }
+
+    /**
+     * Constructor with an overhead to be subtracted from each dataset.
+     * 
+     * @param paramMeters
+     *            to be benched
+     * @param paramResult
+     *            to be stored to
+     * @param paramOffsets
+     *            overhead of one measurement per meter, ordered like the
+     *            meters
+     */
+    public BenchmarkSession(final Set<AbstractMeter> paramMeters, final BenchmarkResult paramResult,
+        final double[] paramOffsets) {
+        this(paramMeters, paramResult, paramOffsets, 0);
+    }
+
+    /**
+     * Constructor with an overhead to be subtracted from each dataset and a
+     * timeout for the benches not annotating their own one.
+     * 
+     * @param paramMeters
+     *            to be benched
+     * @param paramResult
+     *            to be stored to
+     * @param paramOffsets
+     *            overhead of one measurement per meter, ordered like the
+     *            meters
+     * @param paramTimeout
+     *            timeout of one invocation in milliseconds, 0 for none
+     */
+    public BenchmarkSession(final Set<AbstractMeter> paramMeters, final BenchmarkResult paramResult,
+        final double[] paramOffsets, final long paramTimeout) {
+        if (paramResult == null) {
+            throw new IllegalArgumentException("Result must not be null!");
+        }
+        if (paramOffsets.length != paramMeters.size()) {
+            throw new IllegalArgumentException("One offset per meter needed!");
+        }
+        executors = new Hashtable<BenchmarkMethod, BenchmarkExecutor>();
+        meters = Collections.unmodifiableSet(new LinkedHashSet<AbstractMeter>(paramMeters));
+        benchRes = paramResult;
+        offsets = paramOffsets.clone();
+        states = new StateRegistry(paramResult);
+        timeout = paramTimeout;
+    }
+
+    /**
+     * Getting the executor corresponding to a BenchmarkElement.
+     * 
+     * @param meth
+     *            for the executor. If the underlaying {@link BenchmarkMethod}
+     *            was not registered, a new mapping-entry will be created.
+     * @return the BenchmarkExecutor corresponding to the Method of the
+     *         BenchmarkElement
+     */
+    public BenchmarkExecutor getExecutor(final BenchmarkElement meth) {
+        synchronized (executors) {
+            // check if new instance needs to be created
+            if (!executors.containsKey(meth.getMeth())) {
+                executors.put(meth.getMeth(), new BenchmarkExecutor(meth.getMeth(), this));
+            }
+
+            // returning the executor
+            return executors.get(meth.getMeth());
+        }
+    }
+
+    /**
+     * Stopping the worker threads of the concurrent runs of all executors.
+     * Takes place after all runs of this session.
+     */
+    public void shutdown() {
+        synchronized (executors) {
+            for (final BenchmarkExecutor exec : executors.values()) {
+                exec.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Getting the timeout for the benches not annotating their own one.
+     * 
+     * @return the timeout of one invocation in milliseconds, 0 for none
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Getting the states injected into the benches of this session.
+     * 
+     * @return the {@link StateRegistry} of this session
+     */
+    public StateRegistry getStates() {
+        return states;
+    }
+
+    /**
+     * Getting the meters to be benched.
+     * 
+     * @return an unmodifiable set of the meters
+     */
+    public Set<AbstractMeter> getMeters() {
+        return meters;
+    }
+
+    /**
+     * Getting the overhead of one measurement for a meter.
+     * 
+     * @param meterIndex
+     *            index of the meter in the order of {@link #getMeters()}
+     * @return the overhead subtracted from each dataset of the meter
+     */
+    public double getOffset(final int meterIndex) {
+        return offsets[meterIndex];
+    }
+
+    /**
+     * Getting the result of this session.
+     * 
+     * @return the {@link BenchmarkResult} the data is stored to
+     */
+    public BenchmarkResult getResult() {
+        return benchRes;
+    }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+/**
+ * Sink for values computed within a bench. Values consumed by a blackhole are
+ * regarded as used by the JIT, therefore the computation of these values cannot
+ * be eliminated as dead code. The return value of a non-void {@link org.perfidix.annotation.Bench}
+ * method is consumed automatically, a bench method can additionally take one
+ * parameter of this type to consume intermediate values.
+ * 
+ * <pre>
+ * &#064;Bench
+ * public void bench(final Blackhole hole) {
+ *     hole.consume(parser.parse(input));
+ * }
+ * </pre>
+ * 
+ * The values are compared against volatile sentinels which can never match
+ * all at once. The comparison is cheap but cannot be folded by the compiler.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class Blackhole {
+
+    /** First sentinel for ints. */
+    private volatile int intSentinel1 = 1;
+
+    /** Second sentinel for ints, never equal to the first one. */
+    private volatile int intSentinel2 = 2;
+
+    /** First sentinel for longs. */
+    private volatile long longSentinel1 = 1;
+
+    /** Second sentinel for longs, never equal to the first one. */
+    private volatile long longSentinel2 = 2;
+
+    /** First sentinel for doubles. */
+    private volatile double doubleSentinel1 = 1;
+
+    /** Second sentinel for doubles, never equal to the first one. */
+    private volatile double doubleSentinel2 = 2;
+
+    /** First sentinel for booleans. */
+    private volatile boolean boolSentinel1 = false;
+
+    /** Second sentinel for booleans, never equal to the first one. */
+    private volatile boolean boolSentinel2 = true;
+
+    /** Sentinel for objects, never leaving this instance. */
+    private volatile Object objSentinel = new Object();
+
+    /**
+     * Consuming an object.
+     * 
+     * @param obj
+     *            to be consumed
+     */
+    public void consume(final Object obj) {
+        if (obj == objSentinel) {
+            throw new IllegalStateException("Blackhole sentinel leaked");
+        }
+    }
+
+    /**
+     * Consuming an int.
+     * 
+     * @param value
+     *            to be consumed
+     */
+    public void consume(final int value) {
+        if (value == intSentinel1 & value == intSentinel2) {
+            throw new IllegalStateException("Blackhole sentinels must never match");
+        }
+    }
+
+    /**
+     * Consuming a long.
+     * 
+     * @param value
+     *            to be consumed
+     */
+    public void consume(final long value) {
+        if (value == longSentinel1 & value == longSentinel2) {
+            throw new IllegalStateException("Blackhole sentinels must never match");
+        }
+    }
+
+    /**
+     * Consuming a double.
+     * 
+     * @param value
+     *            to be consumed
+     */
+    public void consume(final double value) {
+        if (value == doubleSentinel1 & value == doubleSentinel2) {
+            throw new IllegalStateException("Blackhole sentinels must never match");
+        }
+    }
+
+    /**
+     * Consuming a boolean.
+     * 
+     * @param value
+     *            to be consumed
+     */
+    public void consume(final boolean value) {
+        if (value == boolSentinel1 & value == boolSentinel2) {
+            throw new IllegalStateException("Blackhole sentinels must never match");
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+import org.perfidix.annotation.AfterEachRun;
+import org.perfidix.annotation.AfterLastRun;
+import org.perfidix.annotation.BeforeEachRun;
+import org.perfidix.annotation.BeforeFirstRun;
+import org.perfidix.exceptions.AbstractPerfidixMethodException;
+import org.perfidix.exceptions.PerfidixMethodCheckException;
+
+/**
+ * Immutable plan of the setUp and tearDown methods of one
+ * {@link BenchmarkMethod}. The methods are searched and checked once when the
+ * plan is built, each run only verifies that the object fits to the methods
+ * and invokes them. Failures of the search or the check are kept and reported
+ * on each execution instead.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class ExecutionPlan {
+
+    /** Methods executed before the first run. */
+    private transient final Phase beforeFirstRun;
+
+    /** Methods executed before each run. */
+    private transient final Phase beforeEachRun;
+
+    /** Methods executed after each run. */
+    private transient final Phase afterEachRun;
+
+    /** Methods executed after the last run. */
+    private transient final Phase afterLastRun;
+
+    /**
+     * Constructor, searching and checking all setUp and tearDown methods of
+     * the method to bench.
+     * 
+     * @param paramMeth
+     *            the method the plan is built for
+     */
+    ExecutionPlan(final BenchmarkMethod paramMeth) {
+        Method[] meths = null;
+        PerfidixMethodCheckException exc = null;
+        try {
+            meths = paramMeth.findBeforeFirstRun();
+        } catch (final PerfidixMethodCheckException e) {
+            exc = e;
+        }
+        beforeFirstRun = new Phase(BeforeFirstRun.class, meths, exc);
+
+        meths = null;
+        exc = null;
+        try {
+            meths = paramMeth.findBeforeEachRun();
+        } catch (final PerfidixMethodCheckException e) {
+            exc = e;
+        }
+        beforeEachRun = new Phase(BeforeEachRun.class, meths, exc);
+
+        meths = null;
+        exc = null;
+        try {
+            meths = paramMeth.findAfterEachRun();
+        } catch (final PerfidixMethodCheckException e) {
+            exc = e;
+        }
+        afterEachRun = new Phase(AfterEachRun.class, meths, exc);
+
+        meths = null;
+        exc = null;
+        try {
+            meths = paramMeth.findAfterLastRun();
+        } catch (final PerfidixMethodCheckException e) {
+            exc = e;
+        }
+        afterLastRun = new Phase(AfterLastRun.class, meths, exc);
+    }
+
+    /**
+     * Executing the {@link BeforeFirstRun} methods.
+     * 
+     * @param obj
+     *            on which the execution takes place
+     * @return the exception of the search, the check or the invocation, null
+     *         if everything went fine
+     */
+    public AbstractPerfidixMethodException executeBeforeFirstRun(final Object obj) {
+        return beforeFirstRun.execute(obj);
+    }
+
+    /**
+     * Executing the {@link BeforeEachRun} methods.
+     * 
+     * @param obj
+     *            on which the execution takes place
+     * @return the exception of the search, the check or the invocation, null
+     *         if everything went fine
+     */
+    public AbstractPerfidixMethodException executeBeforeEachRun(final Object obj) {
+        return beforeEachRun.execute(obj);
+    }
+
+    /**
+     * Executing the {@link AfterEachRun} methods.
+     * 
+     * @param obj
+     *            on which the execution takes place
+     * @return the exception of the search, the check or the invocation, null
+     *         if everything went fine
+     */
+    public AbstractPerfidixMethodException executeAfterEachRun(final Object obj) {
+        return afterEachRun.execute(obj);
+    }
+
+    /**
+     * Executing the {@link AfterLastRun} methods.
+     * 
+     * @param obj
+     *            on which the execution takes place
+     * @return the exception of the search, the check or the invocation, null
+     *         if everything went fine
+     */
+    public AbstractPerfidixMethodException executeAfterLastRun(final Object obj) {
+        return afterLastRun.execute(obj);
+    }
+
+    /**
+     * The methods related to one annotation together with their invokers.
+     * 
+     * @author Sebastian Graf, University of Konstanz
+     */
+    private static final class Phase {
+
+        /** Invokers bound to the methods, in order of execution. */
+        private transient final MethodInvoker[] invokers;
+
+        /** Exception of the search or the check, null if none occured. */
+        private transient final PerfidixMethodCheckException exc;
+
+        /** Related annotation. */
+        private transient final Class<? extends Annotation> anno;
+
+        /**
+         * Constructor, checking the methods.
+         * 
+         * @param paramAnno
+         *            related annotation
+         * @param paramMeths
+         *            methods found, null if the search failed
+         * @param paramExc
+         *            exception of the search, null if none occured
+         */
+        Phase(final Class<? extends Annotation> paramAnno, final Method[] paramMeths,
+            final PerfidixMethodCheckException paramExc) {
+            anno = paramAnno;
+            PerfidixMethodCheckException checkExc = paramExc;
+            if (paramMeths == null || checkExc != null) {
+                invokers = new MethodInvoker[0];
+            } else {
+                invokers = new MethodInvoker[paramMeths.length];
+                for (int i = 0; i < paramMeths.length && checkExc == null; i++) {
+                    // check if the method is reflected executable
+                    if (BenchmarkMethod.isReflectedExecutable(paramMeths[i], anno)) {
+                        invokers[i] = new MethodInvoker(paramMeths[i], anno);
+                    } else {
+                        checkExc =
+                            new PerfidixMethodCheckException(new IllegalAccessException(new StringBuilder(
+                                "Method to execute ").append(paramMeths[i]).append(
+                                " is not reflected executable.").toString()), paramMeths[i], anno);
+                    }
+                }
+            }
+            exc = checkExc;
+        }
+
+        /**
+         * Executing the methods one after another, stopping at the first
+         * failure.
+         * 
+         * @param obj
+         *            on which the execution takes place
+         * @return the exception of the search, the check or the invocation,
+         *         null if everything went fine
+         */
+        AbstractPerfidixMethodException execute(final Object obj) {
+            if (exc != null) {
+                return exc;
+            }
+            for (final MethodInvoker invoker : invokers) {
+                // check if the class of the object to be executed has the
+                // given method
+                final Method meth = invoker.getMethod();
+                if (!meth.getDeclaringClass().equals(obj.getClass())) {
+                    return new PerfidixMethodCheckException(new IllegalStateException(new StringBuilder(
+                        "Object to execute ").append(obj).append(" is not having a Method named ").append(
+                        meth).append(".").toString()), meth, anno);
+                }
+            }
+            for (final MethodInvoker invoker : invokers) {
+                final AbstractPerfidixMethodException invoExc = invoker.invoke(obj);
+                if (invoExc != null) {
+                    return invoExc;
+                }
+            }
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Controller applying a {@link KindOfGc} before each run. A quiescent heap is
+ * reached by invoking a gc and polling the collection counts of all
+ * {@link GarbageCollectorMXBean} instances until they do not change anymore
+ * since a gc is possibly finished by concurrent collections after
+ * {@link System#gc()} returns. One controller is used per run of a benchmark.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class GcController {
+
+    /** Milliseconds between two polls of the collection counts. */
+    private static final long QUIESCE_INTERVAL = 10;
+
+    /** Maximum milliseconds waited for a quiescent heap. */
+    private static final long MAX_QUIESCE_TIME = 1000;
+
+    /** Garbage collectors of the JVM. */
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory
+        .getGarbageCollectorMXBeans();
+
+    /** Random for the probability of {@link KindOfGc#RandomGc}. */
+    private transient final Random ran;
+
+    /** Policy to be applied. */
+    private transient final KindOfGc kind;
+
+    /** Probability of a gc for {@link KindOfGc#RandomGc}. */
+    private transient final double gcProb;
+
+    /** Method of the last run, null before the first run. */
+    private transient BenchmarkMethod lastMeth;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramKind
+     *            the policy to be applied
+     * @param paramGcProb
+     *            the probability of a gc, only used by
+     *            {@link KindOfGc#RandomGc}
+     */
+    public GcController(final KindOfGc paramKind, final double paramGcProb) {
+        ran = new Random();
+        kind = paramKind;
+        gcProb = paramGcProb;
+        lastMeth = null;
+    }
+
+    /**
+     * Applying the policy before one run of a method.
+     * 
+     * @param meth
+     *            the method of the next run
+     */
+    public void beforeRun(final BenchmarkMethod meth) {
+        switch (kind) {
+        case RandomGc:
+            if (ran.nextDouble() < gcProb) {
+                System.gc();
+            }
+            break;
+        case ForcedGc:
+            System.gc();
+            break;
+        case QuiescentGc:
+            quiesce();
+            break;
+        case MethodGc:
+            if (lastMeth == null || !lastMeth.equals(meth)) {
+                quiesce();
+            }
+            break;
+        default:
+            break;
+        }
+        lastMeth = meth;
+    }
+
+    /**
+     * Invoking a gc and waiting until the collection counts are stable for one
+     * poll interval or until the maximum waiting time is spent.
+     */
+    private void quiesce() {
+        System.gc();
+        final long start = System.currentTimeMillis();
+        long before = getCollectionCount();
+        boolean stable = false;
+        while (!stable && System.currentTimeMillis() - start < MAX_QUIESCE_TIME) {
+            try {
+                Thread.sleep(QUIESCE_INTERVAL);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            final long after = getCollectionCount();
+            stable = after == before;
+            before = after;
+        }
+    }
+
+    /**
+     * Getting the number of collections of all garbage collectors so far.
+     * Collectors not providing their count are ignored.
+     * 
+     * @return the sum of all collection counts
+     */
+    public static long getCollectionCount() {
+        long returnVal = 0;
+        for (final GarbageCollectorMXBean collector : COLLECTORS) {
+            final long count = collector.getCollectionCount();
+            if (count > 0) {
+                returnVal = returnVal + count;
+            }
+        }
+        return returnVal;
+    }
+
+}
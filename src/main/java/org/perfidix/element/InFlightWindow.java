@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.lang.reflect.Method;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.perfidix.annotation.Bench;
+import org.perfidix.exceptions.PerfidixMethodInvocationException;
+
+/**
+ * Window of the futures returned by an asynchronous bench. At most the given
+ * number of operations is kept in flight, starting a further operation waits
+ * for the completion of the oldest one. Not thread-safe, each measuring thread
+ * uses its own window.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class InFlightWindow {
+
+    /** Futures not yet waited for, oldest first. */
+    private transient final LinkedList<Future<?>> pending;
+
+    /** Maximum number of operations in flight. */
+    private transient final int capacity;
+
+    /** Method returning the futures. */
+    private transient final Method meth;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramCapacity
+     *            maximum number of operations in flight
+     * @param paramMeth
+     *            method returning the futures
+     */
+    public InFlightWindow(final int paramCapacity, final Method paramMeth) {
+        if (paramCapacity < 1) {
+            throw new IllegalArgumentException("At least one operation in flight needed!");
+        }
+        pending = new LinkedList<Future<?>>();
+        capacity = paramCapacity;
+        meth = paramMeth;
+    }
+
+    /**
+     * Making room for a further operation. If the window is full, the oldest
+     * operation is waited for. Must be called before the operation is
+     * started.
+     * 
+     * @return {@link PerfidixMethodInvocationException} if the completed
+     *         operation failed, null otherwise.
+     */
+    public PerfidixMethodInvocationException acquire() {
+        PerfidixMethodInvocationException returnVal = null;
+        if (pending.size() >= capacity) {
+            returnVal = await(pending.removeFirst());
+        }
+        return returnVal;
+    }
+
+    /**
+     * Adding the future of a started operation.
+     * 
+     * @param future
+     *            of the operation, ignored if null
+     */
+    public void add(final Future<?> future) {
+        if (future != null) {
+            pending.addLast(future);
+        }
+    }
+
+    /**
+     * Waiting for all operations in flight. All operations are waited for
+     * even if one of them fails.
+     * 
+     * @return {@link PerfidixMethodInvocationException} of the first failed
+     *         operation, null if all succeeded.
+     */
+    public PerfidixMethodInvocationException awaitAll() {
+        PerfidixMethodInvocationException returnVal = null;
+        while (!pending.isEmpty()) {
+            final PerfidixMethodInvocationException exc = await(pending.removeFirst());
+            if (returnVal == null) {
+                returnVal = exc;
+            }
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the number of operations in flight.
+     * 
+     * @return the number of futures not yet waited for
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Waiting for the completion of one operation.
+     * 
+     * @param future
+     *            of the operation
+     * @return {@link PerfidixMethodInvocationException} if the operation
+     *         failed, null otherwise.
+     */
+    private PerfidixMethodInvocationException await(final Future<?> future) {
+        try {
+            future.get();
+        } catch (final ExecutionException e) {
+            return new PerfidixMethodInvocationException(e.getCause(), meth, Bench.class);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new PerfidixMethodInvocationException(e, meth, Bench.class);
+        } catch (final RuntimeException e) {
+            // e.g. CancellationException
+            return new PerfidixMethodInvocationException(e, meth, Bench.class);
+        }
+        return null;
+    }
+
+}
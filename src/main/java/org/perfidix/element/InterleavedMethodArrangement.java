@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * This class represents an interleaved round arrangement. Within each round,
+ * the runs of all methods are mixed and shuffled anew for every round.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class InterleavedMethodArrangement extends AbstractRoundMethodArrangement {
+
+    /**
+     * Constructor for interleaved round arrangement.
+     * 
+     * @param runs
+     *            benchmarkable methods mapped to their number of runs.
+     * @param rounds
+     *            number of rounds, if not greater than 0, each round holds
+     *            one run of each method
+     * @param seed
+     *            seed for the random order within the rounds
+     */
+    protected InterleavedMethodArrangement(final Map<BenchmarkMethod, Integer> runs, final int rounds,
+        final long seed) {
+        super(runs, rounds, seed);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int nextInRound(final int[] block, final int last, final Random ran) {
+        return chooseWeighted(block, ran);
+    }
+}
@@ -35,5 +35,9 @@ public enum KindOfArrangement {
     /** random shuffle arrangement. */
     ShuffleArrangement,
     /** Single method call arrangement */
-    SequentialMethodArrangement
+    SequentialMethodArrangement,
+    /** rounds with one block of runs per method, blocks shuffled per round. */
+    RandomizedBlockArrangement,
+    /** rounds with the runs of all methods shuffled per round. */
+    InterleavedArrangement
 }
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Future;
+
+import org.perfidix.exceptions.PerfidixMethodInvocationException;
+
+/**
+ * Invoker bound to one method, built once and reused for every invocation. All
+ * reflective preparation like the access check and the argument array takes
+ * place when the invoker is built so that an invocation within the timed
+ * window only consists of the reflective call itself. Return values are
+ * consumed by a {@link Blackhole} which is passed as well to methods taking
+ * one. Methods taking {@link org.perfidix.annotation.State} parameters are
+ * invoked with the arguments resolved by a {@link StateRegistry}.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class MethodInvoker {
+
+    /** Shared empty argument array for parameter-free methods. */
+    static final Object[] NO_ARGS = {};
+
+    /** Method to be invoked. */
+    private transient final Method meth;
+
+    /** Related annotation for the exceptions of an invocation. */
+    private transient final Class<? extends Annotation> relatedAnno;
+
+    /** Sink for the return values and parameter of the method. */
+    private transient final Blackhole blackhole;
+
+    /** Arguments of each invocation. */
+    private transient final Object[] args;
+
+    /** Flag if the method returns a value to be consumed. */
+    private transient final boolean returnsValue;
+
+    /** Flag if the method returns a future of an asynchronous operation. */
+    private transient final boolean returnsFuture;
+
+    /**
+     * Constructor, binding the invoker to a method.
+     * 
+     * @param paramMeth
+     *            to be invoked
+     * @param paramAnno
+     *            related annotation for the exceptions of an invocation
+     */
+    public MethodInvoker(final Method paramMeth, final Class<? extends Annotation> paramAnno) {
+        meth = paramMeth;
+        relatedAnno = paramAnno;
+        blackhole = new Blackhole();
+        if (meth.getParameterTypes().length == 1 && meth.getParameterTypes()[0].equals(Blackhole.class)) {
+            args = new Object[] {
+                blackhole
+            };
+        } else {
+            args = NO_ARGS;
+        }
+        returnsValue = !meth.getReturnType().equals(Void.TYPE);
+        returnsFuture = Future.class.isAssignableFrom(meth.getReturnType());
+        try {
+            // suppressing the access check on each invocation
+            meth.setAccessible(true);
+        } catch (final SecurityException e) {
+            // access check stays enabled, failures arise on invocation
+        }
+    }
+
+    /**
+     * Invoking the method on an object.
+     * 
+     * @param obj
+     *            on which the execution takes place
+     * @return {@link PerfidixMethodInvocationException} if invocation fails,
+     *         null otherwise.
+     */
+    public PerfidixMethodInvocationException invoke(final Object obj) {
+        return invoke(obj, null);
+    }
+
+    /**
+     * Invoking the method on an object. If the window of operations in flight
+     * is full, the oldest operation is waited for before the invocation; a
+     * returned future is added to the window.
+     * 
+     * @param obj
+     *            on which the execution takes place
+     * @param window
+     *            of the operations in flight, null if the returned value
+     *            should be consumed only
+     * @return {@link PerfidixMethodInvocationException} if invocation or a
+     *         completed operation fails, null otherwise.
+     */
+    public PerfidixMethodInvocationException invoke(final Object obj, final InFlightWindow window) {
+        return invoke(obj, args, window);
+    }
+
+    /**
+     * Invoking the method on an object with given arguments, otherwise like
+     * {@link #invoke(Object, InFlightWindow)}.
+     * 
+     * @param obj
+     *            on which the execution takes place
+     * @param arguments
+     *            of the invocation, e.g. resolved by a {@link StateRegistry}
+     * @param window
+     *            of the operations in flight, null if the returned value
+     *            should be consumed only
+     * @return {@link PerfidixMethodInvocationException} if invocation or a
+     *         completed operation fails, null otherwise.
+     */
+    public PerfidixMethodInvocationException invoke(final Object obj, final Object[] arguments,
+        final InFlightWindow window) {
+        if (window != null) {
+            final PerfidixMethodInvocationException completed = window.acquire();
+            if (completed != null) {
+                return completed;
+            }
+        }
+        try {
+            final Object returned = meth.invoke(obj, arguments);
+            if (window != null && returned instanceof Future<?>) {
+                window.add((Future<?>)returned);
+                return null;
+            }
+            if (returnsValue) {
+                blackhole.consume(returned);
+            }
+        } catch (final IllegalArgumentException e) {
+            return new PerfidixMethodInvocationException(e, meth, relatedAnno);
+        } catch (final IllegalAccessException e) {
+            return new PerfidixMethodInvocationException(e, meth, relatedAnno);
+        } catch (final InvocationTargetException e) {
+            return new PerfidixMethodInvocationException(e.getCause(), meth, relatedAnno);
+        }
+        return null;
+    }
+
+    /**
+     * Checking if the method returns a future of an asynchronous operation.
+     * 
+     * @return true if the return type is a {@link Future}
+     */
+    public boolean isAsync() {
+        return returnsFuture;
+    }
+
+    /**
+     * Getter for the blackhole consuming the values of the method.
+     * 
+     * @return the {@link Blackhole} of this invoker
+     */
+    public Blackhole getBlackhole() {
+        return blackhole;
+    }
+
+    /**
+     * Getter for the bound method.
+     * 
+     * @return the method to be invoked
+     */
+    public Method getMethod() {
+        return meth;
+    }
+
+}
@@ -26,8 +26,8 @@
  */
 package org.perfidix.element;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
 
 /**
  * This class does no arrangement for methods. That means that the order of the
@@ -42,25 +42,35 @@ public final class NoMethodArrangement extends AbstractMethodArrangement {
      * as an input is also given back as the output. The order is normally the
      * order of occurrence of methods in the class.
      * 
-     * @param elements
-     *            with benchmarkable elements.
+     * @param runs
+     *            benchmarkable methods mapped to their number of runs.
      */
-    protected NoMethodArrangement(final List<BenchmarkElement> elements) {
-        super(elements);
+    protected NoMethodArrangement(final Map<BenchmarkMethod, Integer> runs) {
+        super(runs);
     }
 
     /**
-     * Not arranging the list in this case. That means normally that all
-     * elements are occuring in the same order than defined in the class-file.
+     * Not arranging the runs in this case. That means normally that all runs
+     * of one method are occuring one after another in the same order than
+     * defined in the class-file.
      * 
-     * @param elements
-     *            to be arranged, or not in this case.
-     * @return the input.
+     * @return an iterator over the runs in the order of the input.
      */
     @Override
-    protected List<BenchmarkElement> arrangeList(final List<BenchmarkElement> elements) {
-        final List<BenchmarkElement> elementList = new LinkedList<BenchmarkElement>();
-        elementList.addAll(elements);
-        return elementList;
+    protected Iterator<BenchmarkElement> arrange() {
+        return new AbstractRunIterator() {
+
+            /** Method of the current runs. */
+            private transient int current;
+
+            /** {@inheritDoc} */
+            @Override
+            protected int nextMethod() {
+                while (getLeft()[current] == 0) {
+                    current++;
+                }
+                return current;
+            }
+        };
     }
 }
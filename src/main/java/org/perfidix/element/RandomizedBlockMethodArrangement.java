@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * This class represents a randomized block arrangement. Within each round,
+ * the runs of one method are executed one after another as a block while the
+ * order of the blocks is shuffled anew for every round.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class RandomizedBlockMethodArrangement extends AbstractRoundMethodArrangement {
+
+    /**
+     * Constructor for randomized block arrangement.
+     * 
+     * @param runs
+     *            benchmarkable methods mapped to their number of runs.
+     * @param rounds
+     *            number of rounds, if not greater than 0, each round holds
+     *            one run of each method
+     * @param seed
+     *            seed for the random order within the rounds
+     */
+    protected RandomizedBlockMethodArrangement(final Map<BenchmarkMethod, Integer> runs, final int rounds,
+        final long seed) {
+        super(runs, rounds, seed);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int nextInRound(final int[] block, final int last, final Random ran) {
+        if (last >= 0 && block[last] > 0) {
+            return last;
+        }
+        // choosing the next block uniformly out of the blocks left
+        int blocksLeft = 0;
+        for (final int runs : block) {
+            if (runs > 0) {
+                blocksLeft++;
+            }
+        }
+        int chosen = ran.nextInt(blocksLeft);
+        int index = 0;
+        while (block[index] == 0 || chosen > 0) {
+            if (block[index] > 0) {
+                chosen--;
+            }
+            index++;
+        }
+        return index;
+    }
+}
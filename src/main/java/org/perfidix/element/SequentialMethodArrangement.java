@@ -27,13 +27,11 @@
 package org.perfidix.element;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * This class represents an arrangement where each method is executed after
@@ -51,90 +49,63 @@ import java.util.TreeSet;
  * bench1
  * bench2
  * bench1
- * </code>
+ * </code><br/>
+ * The methods are visited round-robin, starting with the one with the most
+ * runs, and methods without runs left are skipped.
  */
 public final class SequentialMethodArrangement extends AbstractMethodArrangement {
 
     /**
      * Simple Constructor-
      * 
-     * @param elements
+     * @param runs
+     *            benchmarkable methods mapped to their number of runs
      */
-    protected SequentialMethodArrangement(final List<BenchmarkElement> elements) {
-        super(elements);
+    protected SequentialMethodArrangement(final Map<BenchmarkMethod, Integer> runs) {
+        super(runs);
     }
 
     /** {@inheritDoc} */
     @Override
-    protected List<BenchmarkElement> arrangeList(final List<BenchmarkElement> elements) {
-        final Map<BenchmarkMethod, ArrayList<BenchmarkElement>> table =
-            new Hashtable<BenchmarkMethod, ArrayList<BenchmarkElement>>();
-        final List<BenchmarkElement> returnVal = new ArrayList<BenchmarkElement>();
-
-        // Having a table
-        for (final BenchmarkElement elem : elements) {
-            if (!table.containsKey(elem.getMeth())) {
-                table.put(elem.getMeth(), new ArrayList<BenchmarkElement>());
-            }
-            table.get(elem.getMeth()).add(elem);
-        }
-
-        // Computing complete number of elements
-        int numberOfElements = 0;
-        for (final BenchmarkMethod meth : table.keySet()) {
-            numberOfElements = numberOfElements + table.get(meth).size();
+    protected Iterator<BenchmarkElement> arrange() {
+        // Defining order to execute, start with the one with the most runs
+        final List<Integer> order = new ArrayList<Integer>(getNumberOfMethods());
+        for (int i = 0; i < getNumberOfMethods(); i++) {
+            order.add(i);
         }
+        Collections.sort(order, new RunComparator());
 
-        // Defining order to execute, start with the one with the most elements
-        final Set<Entry<BenchmarkMethod, ArrayList<BenchmarkElement>>> compareMethods =
-            new TreeSet<Entry<BenchmarkMethod, ArrayList<BenchmarkElement>>>(new BenchmarkElementComparator());
-        for (final Entry<BenchmarkMethod, ArrayList<BenchmarkElement>> entry : table.entrySet()) {
-            compareMethods.add(entry);
-        }
+        return new AbstractRunIterator() {
 
-        final ArrayList<BenchmarkMethod> methods = new ArrayList<BenchmarkMethod>();
-        for (Entry<BenchmarkMethod, ArrayList<BenchmarkElement>> entry : compareMethods) {
-            methods.add(entry.getKey());
-        }
+            /** Number of runs returned so far. */
+            private transient long position;
 
-        for (int i = 0; i < numberOfElements; i++) {
-            BenchmarkElement elem = null;
-            int indexPart = 0;
-            while (elem == null) {
-                final int index = (i + indexPart) % methods.size();
-                final BenchmarkMethod methodToInclude = methods.get(index);
-                if (table.containsKey(methodToInclude)) {
-                    elem = table.get(methodToInclude).remove(0);
-                    if (table.get(methodToInclude).size() == 0) {
-                        table.remove(methodToInclude);
-                    }
+            /** {@inheritDoc} */
+            @Override
+            protected int nextMethod() {
+                int indexPart = 0;
+                int index = order.get((int)((position + indexPart) % order.size()));
+                while (getLeft()[index] == 0) {
+                    indexPart++;
+                    index = order.get((int)((position + indexPart) % order.size()));
                 }
-                indexPart++;
+                position++;
+                return index;
             }
-            returnVal.add(elem);
-        }
-        return returnVal;
+        };
     }
 
     /**
-     * Comparator to compare the different entries according to the size of the
-     * underlaying arraylist
+     * Comparator to order the indices of the methods descending according to
+     * their number of runs.
      * 
      * @author Sebastian Graf, University of Konstanz
      */
-    class BenchmarkElementComparator implements
-        Comparator<Entry<BenchmarkMethod, ArrayList<BenchmarkElement>>> {
+    class RunComparator implements Comparator<Integer> {
 
         /** {@inheritDoc} */
-        public int compare(final Entry<BenchmarkMethod, ArrayList<BenchmarkElement>> object1,
-            final Entry<BenchmarkMethod, ArrayList<BenchmarkElement>> object2) {
-            int returnVal = 0;
-            if (object1.getValue().size() > object2.getValue().size()) {
-                returnVal = -1;
-            } else {
-                returnVal = 1;
-            }
-            return returnVal;
+        public int compare(final Integer object1, final Integer object2) {
+            return getRuns(object2) - getRuns(object1);
         }
 
     }
@@ -26,41 +26,45 @@
  */
 package org.perfidix.element;
 
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Random;
 
 /**
  * This class represents a shuffle random arrangement of elements. All elements
- * are shuffled and executed in a complete random order.
+ * are shuffled and executed in a complete random order. The method of each
+ * run is drawn with a probability proportional to its runs left, resulting in
+ * a uniformly shuffled order without holding all runs in memory.
  * 
  * @author Sebastian Graf, University of Konstanz
  */
 public final class ShuffleMethodArrangement extends AbstractMethodArrangement {
 
-    /** Seed for the random arrangement of the elements. */
-    private static final long SEED = 1L;
-
     /**
      * Constructor for shuffle arrangement. That means that the order which is
      * given as an input is shuffled in a random way and given back as the
      * output. The order is complete randomlike and depends on a seed.
      * 
-     * @param elements
-     *            with benchmarkable elements.
+     * @param runs
+     *            benchmarkable methods mapped to their number of runs.
+     * @param seed
+     *            seed for the random order
      */
-    protected ShuffleMethodArrangement(final List<BenchmarkElement> elements) {
-        super(elements);
+    protected ShuffleMethodArrangement(final Map<BenchmarkMethod, Integer> runs, final long seed) {
+        super(runs, 0, seed);
     }
 
     /** {@inheritDoc} */
     @Override
-    protected List<BenchmarkElement> arrangeList(final List<BenchmarkElement> methods) {
-        final Random ran = new Random(SEED);
-        final List<BenchmarkElement> inputList = new LinkedList<BenchmarkElement>();
-        inputList.addAll(methods);
-        Collections.shuffle(inputList, ran);
-        return inputList;
+    protected Iterator<BenchmarkElement> arrange() {
+        final Random ran = new Random(getSeed());
+        return new AbstractRunIterator() {
+
+            /** {@inheritDoc} */
+            @Override
+            protected int nextMethod() {
+                return chooseWeighted(getLeft(), ran);
+            }
+        };
     }
 }
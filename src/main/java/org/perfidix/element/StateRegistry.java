@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.perfidix.annotation.AfterBenchClass;
+import org.perfidix.annotation.Bench;
+import org.perfidix.annotation.BeforeBenchClass;
+import org.perfidix.annotation.State;
+import org.perfidix.exceptions.AbstractPerfidixMethodException;
+import org.perfidix.exceptions.PerfidixMethodInvocationException;
+import org.perfidix.result.BenchmarkResult;
+
+/**
+ * This class holds the {@link State} instances of one session. Each instance
+ * is created and set up on its first use and shared according to its scope:
+ * once per session, once per bench or once per bench and thread. All
+ * instances are torn down together at the end of the session. Failures are
+ * stored to the result of the session, a state failing to be set up is not
+ * retried.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class StateRegistry {
+
+    /** Marker for states failing to be created or set up. */
+    private static final Object FAILED = new Object();
+
+    /** Instances of the states mapped to the key of their scope. */
+    private transient final Map<List<Object>, Object> states;
+
+    /** Successfully created instances in the order of their creation. */
+    private transient final LinkedList<Object> created;
+
+    /** Result to store the failures to. */
+    private transient final BenchmarkResult benchRes;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramResult
+     *            the result to store failures to
+     */
+    public StateRegistry(final BenchmarkResult paramResult) {
+        states = new Hashtable<List<Object>, Object>();
+        created = new LinkedList<Object>();
+        benchRes = paramResult;
+    }
+
+    /**
+     * Checking if a type can be injected as state.
+     * 
+     * @param type
+     *            the type of a parameter
+     * @return true if the type is annotated with {@link State}
+     */
+    public static boolean isState(final Class<?> type) {
+        return type.getAnnotation(State.class) != null;
+    }
+
+    /**
+     * Getting the arguments for invoking a bench by one thread. The
+     * {@link Blackhole} of the bench and the states of the matching scopes
+     * are set up if needed and filled in.
+     * 
+     * @param meth
+     *            the bench to be invoked
+     * @param thread
+     *            the index of the invoking thread within a run of the bench
+     * @return the arguments, null if a state is not available because of a
+     *         failure stored to the result
+     */
+    public Object[] getArguments(final BenchmarkMethod meth, final int thread) {
+        final MethodInvoker invoker = meth.getInvoker();
+        final Class<?>[] types = invoker.getMethod().getParameterTypes();
+        if (types.length == 0) {
+            return MethodInvoker.NO_ARGS;
+        }
+        final Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i].equals(Blackhole.class)) {
+                args[i] = invoker.getBlackhole();
+            } else {
+                args[i] = getState(types[i], meth, thread);
+                if (args[i] == null) {
+                    return null;
+                }
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Getting the state of a type for one thread of a bench, created and set
+     * up on the first request of its scope.
+     * 
+     * @param type
+     *            the state class
+     * @param meth
+     *            the bench requesting the state
+     * @param thread
+     *            the index of the invoking thread within a run of the bench
+     * @return the instance, null if not available because of a failure
+     */
+    private synchronized Object getState(final Class<?> type, final BenchmarkMethod meth, final int thread) {
+        final List<Object> key;
+        switch (type.getAnnotation(State.class).value()) {
+        case Thread:
+            key = Arrays.asList(type, meth, thread);
+            break;
+        case Group:
+            key = Arrays.<Object> asList(type, meth);
+            break;
+        default:
+            key = Arrays.<Object> asList(type);
+            break;
+        }
+        if (!states.containsKey(key)) {
+            states.put(key, createState(type, meth));
+        }
+        final Object returnVal = states.get(key);
+        return returnVal == FAILED ? null : returnVal;
+    }
+
+    /**
+     * Creating and setting up one instance of a state.
+     * 
+     * @param type
+     *            the state class
+     * @param meth
+     *            the bench requesting the state
+     * @return the instance, {@link #FAILED} if the creation or the setUp
+     *         failed
+     */
+    private Object createState(final Class<?> type, final BenchmarkMethod meth) {
+        final Object state;
+        try {
+            state = type.newInstance();
+        } catch (final InstantiationException e) {
+            benchRes.addException(new PerfidixMethodInvocationException(e, meth.getMethodToBench(),
+                Bench.class));
+            return FAILED;
+        } catch (final IllegalAccessException e) {
+            benchRes.addException(new PerfidixMethodInvocationException(e, meth.getMethodToBench(),
+                Bench.class));
+            return FAILED;
+        }
+        if (!invokeAll(state, BeforeBenchClass.class)) {
+            return FAILED;
+        }
+        created.add(state);
+        return state;
+    }
+
+    /**
+     * Tearing down all states in the reverse order of their creation. The
+     * registry is empty afterwards.
+     */
+    public synchronized void tearDown() {
+        while (!created.isEmpty()) {
+            invokeAll(created.removeLast(), AfterBenchClass.class);
+        }
+        states.clear();
+    }
+
+    /**
+     * Invoking all methods of a state annotated with either
+     * {@link BeforeBenchClass} or {@link AfterBenchClass}.
+     * 
+     * @param state
+     *            the instance of the state
+     * @param anno
+     *            the annotation of the methods
+     * @return true if all methods succeeded, false if a failure was stored
+     */
+    private boolean invokeAll(final Object state, final Class<? extends Annotation> anno) {
+        for (final Method meth : state.getClass().getDeclaredMethods()) {
+            if (meth.getAnnotation(anno) != null) {
+                AbstractPerfidixMethodException exc = BenchmarkExecutor.checkMethod(state, anno, meth);
+                if (exc == null) {
+                    exc = BenchmarkExecutor.invokeMethod(state, anno, meth);
+                }
+                if (exc != null) {
+                    benchRes.addException(exc);
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factory for the threads of a concurrent bench. Virtual threads are created
+ * if demanded and provided by the running JVM, otherwise daemon platform
+ * threads. Since Perfidix is compiled against older JVMs, the virtual threads
+ * are looked up by reflection.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class WorkerThreadFactory implements ThreadFactory {
+
+    /** Factory for virtual threads, null if not provided by the JVM. */
+    private static final ThreadFactory VIRTUAL_FACTORY = lookupVirtualFactory();
+
+    /** Prefix of the names of the threads. */
+    private transient final String prefix;
+
+    /** Flag if virtual threads are created. */
+    private transient final boolean virtual;
+
+    /** Number of threads created so far. */
+    private transient int counter;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramPrefix
+     *            prefix of the names of the threads
+     * @param paramVirtual
+     *            true if virtual threads should be created if available
+     */
+    public WorkerThreadFactory(final String paramPrefix, final boolean paramVirtual) {
+        prefix = paramPrefix;
+        virtual = paramVirtual && isVirtualAvailable();
+    }
+
+    /** {@inheritDoc} */
+    public synchronized Thread newThread(final Runnable runnable) {
+        Thread returnVal;
+        if (virtual) {
+            returnVal = VIRTUAL_FACTORY.newThread(runnable);
+        } else {
+            returnVal = new Thread(runnable);
+            returnVal.setDaemon(true);
+        }
+        returnVal.setName(new StringBuilder(prefix).append("-").append(counter).toString());
+        counter++;
+        return returnVal;
+    }
+
+    /**
+     * Checking if this factory creates virtual threads.
+     * 
+     * @return true if virtual threads are created, false if platform threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Checking if the running JVM provides virtual threads.
+     * 
+     * @return true if virtual threads are available
+     */
+    public static boolean isVirtualAvailable() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    /**
+     * Looking up the factory for virtual threads by
+     * <code>Thread.ofVirtual().factory()</code>.
+     * 
+     * @return the factory, null if not provided by the JVM
+     */
+    private static ThreadFactory lookupVirtualFactory() {
+        ThreadFactory returnVal = null;
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            returnVal = (ThreadFactory)builderClass.getMethod("factory").invoke(builder);
+        } catch (final NoSuchMethodException e) {
+            // JVM without virtual threads, platform threads are used
+            returnVal = null;
+        } catch (final ClassNotFoundException e) {
+            returnVal = null;
+        } catch (final IllegalAccessException e) {
+            returnVal = null;
+        } catch (final InvocationTargetException e) {
+            // virtual threads not enabled, e.g. preview feature
+            returnVal = null;
+        }
+        return returnVal;
+    }
+
+}
@@ -33,6 +33,7 @@ import java.util.Stack;
 import org.perfidix.Benchmark;
 import org.perfidix.annotation.BeforeBenchClass;
 import org.perfidix.annotation.Bench;
+import org.perfidix.annotation.Param;
 import org.perfidix.example.Config;
 import org.perfidix.ouput.TabularSummaryOutput;
 import org.perfidix.result.BenchmarkResult;
@@ -51,9 +52,12 @@ public final class StackBenchmark {
     private static final int RUNS = 100;
 
     /**
-     * Size of array to be tested.
+     * Size of array to be tested, each bench is executed for all sizes.
      */
-    private static final int ARRAYSIZE = 100;
+    @Param( {
+        "10", "10000", "100000"
+    })
+    private transient int arraySize;
 
     /** Data to be written and read. */
     private transient int[] intData;
@@ -67,14 +71,14 @@ public final class StackBenchmark {
     private transient ArrayDeque<Integer> arrayDeque;
 
     /**
-     * Generating the data, just once per runtime.
+     * Generating the data, just once per runtime and array size.
      */
     @BeforeBenchClass
     public void generateData() {
         final Random ran = new Random();
-        intData = new int[ARRAYSIZE];
+        intData = new int[arraySize];
         int counter = 0;
-        while (counter < ARRAYSIZE) {
+        while (counter < arraySize) {
             intData[counter] = ran.nextInt();
             counter++;
         }
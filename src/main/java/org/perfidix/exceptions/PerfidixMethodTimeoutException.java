@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.exceptions;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class acts as container for an invocation of a method exceeding its
+ * timeout. The invocation was interrupted and abandoned by the Perfidix
+ * framework, the encapsulated exception is a {@link TimeoutException}.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class PerfidixMethodTimeoutException extends AbstractPerfidixMethodException {
+
+    /** serializable id. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramTimeout
+     *            the exceeded timeout in milliseconds
+     * @param paramMeth
+     *            the method where the timeout occured
+     * @param paramAnnotation
+     *            the related annotation of the method
+     */
+    public PerfidixMethodTimeoutException(final long paramTimeout, final Method paramMeth,
+        final Class<? extends Annotation> paramAnnotation) {
+        this(new TimeoutException(new StringBuilder("Invocation exceeded the timeout of ").append(
+            paramTimeout).append(" ms.").toString()), paramMeth, paramAnnotation);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param paramExec
+     *            encapsulated exception
+     * @param paramMeth
+     *            the method where the timeout occured
+     * @param paramAnnotation
+     *            the related annotation of the method
+     */
+    public PerfidixMethodTimeoutException(final Throwable paramExec, final Method paramMeth,
+        final Class<? extends Annotation> paramAnnotation) {
+        super(paramExec, paramMeth, paramAnnotation);
+    }
+
+}
@@ -0,0 +1,510 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.perfidix.AbstractConfig;
+import org.perfidix.Benchmark;
+import org.perfidix.annotation.Bench;
+import org.perfidix.element.AbstractMethodArrangement;
+import org.perfidix.element.BenchmarkElement;
+import org.perfidix.element.BenchmarkMethod;
+import org.perfidix.exceptions.PerfidixMethodInvocationException;
+import org.perfidix.result.BenchmarkResult;
+
+/**
+ * Coordinator of a distributed benchmark. The coordinator splits the
+ * arrangement of the configuration into work units of at most a given number
+ * of runs of one method and dispatches them to {@link BenchmarkWorker}
+ * instances connecting over TCP, on the same host or on other ones. Each
+ * worker pulls the next unit as soon as it finished the former one. The
+ * results of the workers are merged into one {@link BenchmarkResult}, the data
+ * of each worker is additionally stored like the data of a fork with the
+ * index of the worker.
+ * <p>
+ * Methods without a fixed number of runs, e.g. time-boxed ones, are
+ * dispatched as one unit. Each unit is warmed up on its own. A unit of a
+ * failing worker is dispatched again to another worker, units left after all
+ * workers finished, e.g. because no worker connected in time, are benched by
+ * the coordinator itself.
+ * </p>
+ * <p>
+ * The workers are not authenticated, the coordinator therefore listens on the
+ * loopback interface unless another address is given. Nothing received from
+ * a worker is deserialized, exceptions of the workers are rebuilt from their
+ * description.
+ * </p>
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class BenchmarkCoordinator {
+
+    /** Maximum number of lines of the result of one work unit. */
+    static final int MAX_UNIT_LINES = 1 << 20;
+
+    /** Milliseconds to wait for each worker to connect by default. */
+    public static final int ACCEPT_TIMEOUT = 60000;
+
+    /** Configuration of this benchmark. */
+    private transient final AbstractConfig conf;
+
+    /** Server socket the workers connect to. */
+    private transient final ServerSocket server;
+
+    /** Number of workers to wait for. */
+    private transient final int workers;
+
+    /** Maximum number of runs of one work unit. */
+    private transient final int unitRuns;
+
+    /**
+     * Constructor, opening the server socket on the loopback interface.
+     * 
+     * @param paramConf
+     *            configuration of the benchmark, the workers have to be
+     *            started with the same configuration class
+     * @param paramPort
+     *            port the workers connect to, 0 for any free port
+     * @param paramWorkers
+     *            number of workers to wait for
+     * @param paramUnitRuns
+     *            maximum number of runs of one work unit
+     * @throws IOException
+     *             if the port cannot be opened
+     */
+    public BenchmarkCoordinator(final AbstractConfig paramConf, final int paramPort, final int paramWorkers,
+        final int paramUnitRuns) throws IOException {
+        this(paramConf, InetAddress.getByName(null), paramPort, paramWorkers, paramUnitRuns, ACCEPT_TIMEOUT);
+    }
+
+    /**
+     * Constructor, opening the server socket.
+     * 
+     * @param paramConf
+     *            configuration of the benchmark, the workers have to be
+     *            started with the same configuration class
+     * @param paramAddress
+     *            address the server socket is bound to, workers on other
+     *            hosts need an address of a trusted network
+     * @param paramPort
+     *            port the workers connect to, 0 for any free port
+     * @param paramWorkers
+     *            number of workers to wait for
+     * @param paramUnitRuns
+     *            maximum number of runs of one work unit
+     * @param paramAcceptTimeout
+     *            milliseconds to wait for each worker to connect, 0 for no
+     *            timeout
+     * @throws IOException
+     *             if the port cannot be opened
+     */
+    public BenchmarkCoordinator(final AbstractConfig paramConf, final InetAddress paramAddress,
+        final int paramPort, final int paramWorkers, final int paramUnitRuns, final int paramAcceptTimeout)
+        throws IOException {
+        if (paramWorkers < 1 || paramUnitRuns < 1) {
+            throw new IllegalArgumentException("At least one worker and one run per unit are needed");
+        }
+        if (paramConf.getForks() > 0) {
+            throw new IllegalArgumentException("Distributed benchmarks cannot be forked");
+        }
+        conf = paramConf;
+        workers = paramWorkers;
+        unitRuns = paramUnitRuns;
+        server = new ServerSocket(paramPort, 0, paramAddress);
+        server.setSoTimeout(paramAcceptTimeout);
+    }
+
+    /**
+     * Getting the port the workers connect to.
+     * 
+     * @return the local port of the server socket
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Benching the classes with the connected workers. The method blocks until
+     * all workers are connected or the accept timeout elapsed and all units are
+     * executed.
+     * 
+     * @param classes
+     *            to be benched
+     * @return the merged {@link BenchmarkResult} of all workers
+     */
+    public BenchmarkResult run(final Class<?>... classes) {
+        final BenchmarkResult res = new BenchmarkResult(conf.getListener());
+        res.setSeed(conf.getSeed());
+        final String confClass = ForkedBenchmark.getInstantiableConfig(conf).getClass().getName();
+        final Benchmark bench = new Benchmark(conf);
+        final Map<String, Method> methods = new Hashtable<String, Method>();
+        for (final Class<?> clazz : classes) {
+            bench.add(clazz);
+            for (final Method meth : clazz.getDeclaredMethods()) {
+                methods.put(meth.toString(), meth);
+            }
+        }
+        bench.checkBenchmarkMethods(res);
+        final LinkedList<WorkUnit> units = getWorkUnits(bench);
+
+        final List<Thread> threads = new ArrayList<Thread>();
+        try {
+            for (int i = 0; i < workers; i++) {
+                final Thread thread =
+                    new Thread(new WorkerConnection(i, server.accept(), confClass, units, methods, res));
+                thread.start();
+                threads.add(thread);
+            }
+        } catch (final IOException e) {
+            addException(res, e);
+        } finally {
+            try {
+                server.close();
+            } catch (final IOException e) {
+                addException(res, e);
+            }
+        }
+        try {
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+        } catch (final InterruptedException e) {
+            addException(res, e);
+            Thread.currentThread().interrupt();
+            return res;
+        }
+
+        // units given back by failing workers after all others finished
+        for (final WorkUnit unit : units) {
+            executeLocally(unit, methods, res);
+        }
+        units.clear();
+        return res;
+    }
+
+    /**
+     * Benching a unit left by the workers within this JVM.
+     * 
+     * @param unit
+     *            the unit to bench
+     * @param methods
+     *            mapping from the string representation to the methods of all
+     *            classes
+     * @param res
+     *            result to merge the data of the unit to
+     */
+    private void executeLocally(final WorkUnit unit, final Map<String, Method> methods,
+        final BenchmarkResult res) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final PrintStream out = new PrintStream(bytes, false, "UTF-8");
+            final Class<?> clazz = unit.getMeth().getMethodToBench().getDeclaringClass();
+            BenchmarkWorker.executeUnit(conf, clazz, getKey(unit.getMeth()), unit.getRuns(), out);
+            out.close();
+            for (final String line : new String(bytes.toByteArray(), "UTF-8").split("\r?\n")) {
+                if (line.length() > 0) {
+                    ForkedBenchmark.parseLine(line, -1, conf.getMeters(), methods, res);
+                }
+            }
+        } catch (final IOException e) {
+            addException(res, e);
+        }
+    }
+
+    /**
+     * Splitting the arrangement of the benchmark into work units. Consecutive
+     * runs of one method in the arrangement are collected until the maximum
+     * number of runs of a unit is reached, the remaining runs of each method
+     * form one last unit.
+     * 
+     * @param bench
+     *            the benchmark with all classes added
+     * @return the work units in the order of the arrangement
+     */
+    LinkedList<WorkUnit> getWorkUnits(final Benchmark bench) {
+        final LinkedList<WorkUnit> returnVal = new LinkedList<WorkUnit>();
+        final Map<BenchmarkMethod, Integer> runs = bench.getBenchmarkRuns();
+        final List<BenchmarkMethod> meths = new ArrayList<BenchmarkMethod>(runs.keySet());
+        final int[] pending = new int[meths.size()];
+        for (final BenchmarkElement elem : AbstractMethodArrangement.getMethodArrangement(runs, conf
+            .getArrangement(), conf.getRounds(), conf.getSeed())) {
+            final int index = elem.getMethodIndex();
+            pending[index]++;
+            if (pending[index] == unitRuns) {
+                returnVal.add(new WorkUnit(meths.get(index), pending[index]));
+                pending[index] = 0;
+            }
+        }
+        for (int i = 0; i < pending.length; i++) {
+            if (pending[i] > 0) {
+                returnVal.add(new WorkUnit(meths.get(i), pending[i]));
+            }
+        }
+        // methods without a fixed number of runs are dispatched as a whole
+        for (final BenchmarkMethod meth : bench.getBenchmarkMethods()) {
+            if (!runs.containsKey(meth)) {
+                returnVal.add(new WorkUnit(meth, 0));
+            }
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the key of a method transferred to the workers.
+     * 
+     * @param meth
+     *            the method
+     * @return the string representation of the method and its parameter
+     *         combination
+     */
+    static String getKey(final BenchmarkMethod meth) {
+        return new StringBuilder(meth.getMethodToBench().toString()).append(ForkOutput.SEPARATOR).append(
+            meth.getParameterString()).toString();
+    }
+
+    /**
+     * Storing a failure of the communication in the result.
+     * 
+     * @param res
+     *            to store the failure
+     * @param exec
+     *            the failure
+     */
+    private static void addException(final BenchmarkResult res, final Exception exec) {
+        synchronized (res) {
+            res.addException(new PerfidixMethodInvocationException(exec, Bench.class));
+        }
+    }
+
+    /**
+     * Runs of one method dispatched to one worker.
+     */
+    static final class WorkUnit {
+
+        /** Method to bench. */
+        private transient final BenchmarkMethod meth;
+
+        /** Number of runs, 0 for methods without a fixed number of runs. */
+        private transient final int runs;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramMeth
+         *            method to bench
+         * @param paramRuns
+         *            number of runs
+         */
+        WorkUnit(final BenchmarkMethod paramMeth, final int paramRuns) {
+            meth = paramMeth;
+            runs = paramRuns;
+        }
+
+        /**
+         * Getter for the method.
+         * 
+         * @return the method to bench
+         */
+        BenchmarkMethod getMeth() {
+            return meth;
+        }
+
+        /**
+         * Getter for the runs.
+         * 
+         * @return the number of runs
+         */
+        int getRuns() {
+            return runs;
+        }
+    }
+
+    /**
+     * Connection to one worker, dispatching units until none is left.
+     */
+    private final class WorkerConnection implements Runnable {
+
+        /** Index of the worker. */
+        private transient final int worker;
+
+        /** Socket connected to the worker. */
+        private transient final Socket socket;
+
+        /** Name of the configuration class. */
+        private transient final String confClass;
+
+        /** Units left, shared by all connections. */
+        private transient final LinkedList<WorkUnit> units;
+
+        /** Mapping from the string representation to the methods of all classes. */
+        private transient final Map<String, Method> methods;
+
+        /** Result to merge the data of the worker to. */
+        private transient final BenchmarkResult res;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramWorker
+         *            index of the worker
+         * @param paramSocket
+         *            socket connected to the worker
+         * @param paramConfClass
+         *            name of the configuration class
+         * @param paramUnits
+         *            units left, shared by all connections
+         * @param paramMethods
+         *            mapping from the string representation to the methods
+         * @param paramRes
+         *            result to merge the data of the worker to
+         */
+        WorkerConnection(final int paramWorker, final Socket paramSocket, final String paramConfClass,
+            final LinkedList<WorkUnit> paramUnits, final Map<String, Method> paramMethods,
+            final BenchmarkResult paramRes) {
+            worker = paramWorker;
+            socket = paramSocket;
+            confClass = paramConfClass;
+            units = paramUnits;
+            methods = paramMethods;
+            res = paramRes;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            WorkUnit unit = null;
+            try {
+                final BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+                final PrintStream out = new PrintStream(socket.getOutputStream(), false, "UTF-8");
+                BenchmarkWorker.writeCommand(out, BenchmarkWorker.INIT, confClass);
+                unit = pollUnit();
+                while (unit != null) {
+                    final Method meth = unit.getMeth().getMethodToBench();
+                    BenchmarkWorker.writeCommand(out, BenchmarkWorker.UNIT,
+                        meth.getDeclaringClass().getName(), meth.toString(),
+                        unit.getMeth().getParameterString(), Integer.toString(unit.getRuns()));
+
+                    // the result is merged only if complete, a failing unit is benched again
+                    final List<String> lines = new ArrayList<String>();
+                    String line = reader.readLine();
+                    while (line != null && !isResult(line)) {
+                        if (lines.size() == MAX_UNIT_LINES) {
+                            throw new IOException(new StringBuilder("Result of worker ").append(worker)
+                                .append(" exceeds ").append(MAX_UNIT_LINES).append(" lines.").toString());
+                        }
+                        lines.add(line);
+                        line = reader.readLine();
+                    }
+                    if (line == null) {
+                        throw new IOException(new StringBuilder("Connection to worker ").append(worker)
+                            .append(" closed unexpectedly.").toString());
+                    }
+                    // validating the whole unit on a scratch result, rejecting it as a failure
+                    final BenchmarkResult scratch = new BenchmarkResult();
+                    for (final String each : lines) {
+                        ForkedBenchmark.parseLine(each, worker, conf.getMeters(), methods, scratch, false);
+                    }
+                    synchronized (res) {
+                        for (final String each : lines) {
+                            ForkedBenchmark.parseLine(each, worker, conf.getMeters(), methods, res, false);
+                        }
+                    }
+                    unit = pollUnit();
+                }
+                BenchmarkWorker.writeCommand(out, BenchmarkWorker.FINISHED);
+            } catch (final IOException e) {
+                failUnit(unit, e);
+            } catch (final RuntimeException e) {
+                // rejected lines of the worker, nothing of the unit is merged
+                failUnit(unit, e);
+            } finally {
+                try {
+                    socket.close();
+                } catch (final IOException e) {
+                    addException(res, e);
+                }
+            }
+        }
+
+        /**
+         * Checking if a line of the worker closes the result of a unit.
+         * 
+         * @param line
+         *            the line of the worker
+         * @return true if the line is the command closing the result
+         */
+        private boolean isResult(final String line) {
+            return line.equals(new StringBuilder(ForkOutput.PREFIX).append(ForkOutput.SEPARATOR).append(
+                BenchmarkWorker.RESULT).toString());
+        }
+
+        /**
+         * Getting the next unit to dispatch.
+         * 
+         * @return the next unit, null if none is left
+         */
+        private WorkUnit pollUnit() {
+            synchronized (units) {
+                return units.poll();
+            }
+        }
+
+        /**
+         * Storing the failure of the worker and giving back its current unit
+         * to be dispatched to another worker.
+         * 
+         * @param unit
+         *            the current unit, null if none was dispatched
+         * @param exec
+         *            the failure
+         */
+        private void failUnit(final WorkUnit unit, final Exception exec) {
+            if (unit != null) {
+                synchronized (units) {
+                    units.addFirst(unit);
+                }
+            }
+            addException(res, exec);
+        }
+    }
+
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.util.Hashtable;
+import java.util.Map;
+
+import org.perfidix.AbstractConfig;
+import org.perfidix.AbstractConfig.DelegatingConfig;
+import org.perfidix.Benchmark;
+import org.perfidix.element.BenchmarkMethod;
+import org.perfidix.result.BenchmarkResult;
+
+/**
+ * Worker of a distributed benchmark. The worker connects to a
+ * {@link BenchmarkCoordinator} over TCP and executes the work units dispatched
+ * by the coordinator until it is told to finish. Each unit is benched locally
+ * like a fork, the result is sent back as lines of the {@link ForkOutput}
+ * protocol.
+ * <p>
+ * The commands are exchanged as lines of the same protocol:
+ * <code>init</code> with the name of the configuration class,
+ * <code>unit</code> with the name of the class, the method, its parameter
+ * combination and the number of runs and <code>finished</code> from the
+ * coordinator, the lines of the result closed by <code>result</code> from the
+ * worker. The configuration is given to the worker itself and only compared
+ * with the one of the coordinator, nothing received is deserialized or
+ * instantiated except the benched classes.
+ * </p>
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class BenchmarkWorker {
+
+    /** Command transferring the name of the configuration class. */
+    static final String INIT = "init";
+
+    /** Command transferring one work unit. */
+    static final String UNIT = "unit";
+
+    /** Command closing the result of one work unit. */
+    static final String RESULT = "result";
+
+    /** Command finishing the connection. */
+    static final String FINISHED = "finished";
+
+    /** Configuration of the benchmark. */
+    private transient final AbstractConfig conf;
+
+    /** Socket connected to the coordinator. */
+    private transient final Socket socket;
+
+    /**
+     * Constructor, connecting to the coordinator.
+     * 
+     * @param paramConf
+     *            configuration of the benchmark, the same class as the one of
+     *            the coordinator
+     * @param host
+     *            host name of the coordinator, localhost if null
+     * @param port
+     *            port of the coordinator
+     * @throws IOException
+     *             if the connection fails
+     */
+    public BenchmarkWorker(final AbstractConfig paramConf, final String host, final int port)
+        throws IOException {
+        if (paramConf.getForks() > 0) {
+            throw new IllegalArgumentException("Work units cannot be benched in forks");
+        }
+        conf = paramConf;
+        if (host == null) {
+            socket = new Socket("localhost", port);
+        } else {
+            socket = new Socket(host, port);
+        }
+    }
+
+    /**
+     * Executing work units until the coordinator finishes the connection.
+     * 
+     * @return the number of executed work units
+     * @throws IOException
+     *             if the communication fails or the coordinator uses another
+     *             configuration
+     * @throws ClassNotFoundException
+     *             if a class of the coordinator is not found
+     */
+    public int run() throws IOException, ClassNotFoundException {
+        int units = 0;
+        try {
+            final BufferedReader reader =
+                new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+            final PrintStream out = new PrintStream(socket.getOutputStream(), false, "UTF-8");
+            final String confClass = ForkedBenchmark.getInstantiableConfig(conf).getClass().getName();
+            boolean initialized = false;
+            String[] command = readCommand(reader);
+            while (!FINISHED.equals(command[1])) {
+                if (INIT.equals(command[1]) && command.length == 3) {
+                    if (!confClass.equals(command[2])) {
+                        throw new IOException(new StringBuilder("Coordinator uses configuration ").append(
+                            command[2]).append(" instead of ").append(confClass).append(".").toString());
+                    }
+                    initialized = true;
+                } else if (UNIT.equals(command[1]) && command.length == 6 && initialized) {
+                    final Class<?> clazz = Class.forName(command[2]);
+                    final String key =
+                        new StringBuilder(command[3]).append(ForkOutput.SEPARATOR).append(command[4])
+                            .toString();
+                    executeUnit(conf, clazz, key, Integer.parseInt(command[5]), out);
+                    writeCommand(out, RESULT);
+                    units++;
+                } else {
+                    throw new IOException(new StringBuilder("Unexpected command ").append(command[1]).append(
+                        " of the coordinator.").toString());
+                }
+                command = readCommand(reader);
+            }
+        } finally {
+            socket.close();
+        }
+        return units;
+    }
+
+    /**
+     * Benching one work unit and writing its result.
+     * 
+     * @param conf
+     *            configuration of the benchmark
+     * @param clazz
+     *            class of the method
+     * @param key
+     *            key of the method as given by
+     *            {@link BenchmarkCoordinator#getKey(BenchmarkMethod)}
+     * @param runs
+     *            number of runs of the method
+     * @param out
+     *            stream the lines of the result in the {@link ForkOutput}
+     *            protocol are written to
+     */
+    static void executeUnit(final AbstractConfig conf, final Class<?> clazz, final String key,
+        final int runs, final PrintStream out) {
+        final ForkOutput output = new ForkOutput(out, conf.getMeters());
+        final Benchmark bench = new Benchmark(new DelegatingConfig(conf, output));
+        bench.add(clazz);
+
+        // benching only the method of the unit
+        final Map<BenchmarkMethod, Integer> restriction = new Hashtable<BenchmarkMethod, Integer>();
+        for (final BenchmarkMethod meth : bench.getBenchmarkMethods()) {
+            if (BenchmarkCoordinator.getKey(meth).equals(key)) {
+                restriction.put(meth, runs);
+            }
+        }
+        bench.restrict(restriction);
+
+        final BenchmarkResult res = bench.run();
+        output.visitBenchmark(res);
+    }
+
+    /**
+     * Reading one command of the protocol.
+     * 
+     * @param reader
+     *            to read from
+     * @return the fields of the command, the type at index 1
+     * @throws IOException
+     *             if the connection is closed or the line is no command
+     */
+    static String[] readCommand(final BufferedReader reader) throws IOException {
+        final String line = reader.readLine();
+        if (line == null) {
+            throw new IOException("Connection closed unexpectedly.");
+        }
+        final String[] fields = line.split(ForkOutput.SEPARATOR, -1);
+        if (fields.length < 2 || !ForkOutput.PREFIX.equals(fields[0])) {
+            throw new IOException(new StringBuilder("Unexpected line ").append(line).append(".").toString());
+        }
+        return fields;
+    }
+
+    /**
+     * Writing one command of the protocol.
+     * 
+     * @param out
+     *            to write to
+     * @param fields
+     *            the fields of the command, starting with the type
+     */
+    static void writeCommand(final PrintStream out, final String... fields) {
+        final StringBuilder builder = new StringBuilder(ForkOutput.PREFIX);
+        for (final String field : fields) {
+            builder.append(ForkOutput.SEPARATOR).append(field);
+        }
+        out.println(builder.toString());
+        out.flush();
+    }
+
+    /**
+     * Main method of a worker.
+     * 
+     * @param args
+     *            the name of the configuration class, the host name and the
+     *            port of the coordinator
+     * @throws IOException
+     *             if the communication fails
+     * @throws ClassNotFoundException
+     *             if a class is not found
+     * @throws InstantiationException
+     *             if the configuration cannot be instantiated
+     * @throws IllegalAccessException
+     *             if the constructor of the configuration is not accessible
+     */
+    public static void main(final String[] args) throws IOException, ClassNotFoundException,
+        InstantiationException, IllegalAccessException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: BenchmarkWorker <config class> <host> <port>");
+        }
+        final AbstractConfig conf = (AbstractConfig)Class.forName(args[0]).newInstance();
+        new BenchmarkWorker(conf, args[1], Integer.parseInt(args[2])).run();
+    }
+
+}
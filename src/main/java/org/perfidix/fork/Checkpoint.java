@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.Hashtable;
+import java.util.Map;
+
+import org.perfidix.exceptions.AbstractPerfidixMethodException;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.result.BenchmarkResult;
+
+/**
+ * Checkpoint of a running benchmark persisted to a local file. The file holds
+ * the partial {@link BenchmarkResult} in the protocol of the forks plus the
+ * progress of the benchmark, i.e. the number of completed runs per method and
+ * parameter combination. A benchmark resumed from the file restores the
+ * result and skips the completed runs. Warmup and calibration data is not
+ * restored since both are executed again by the resumed benchmark.
+ * <p>
+ * The file is written to a temporary file first. The former checkpoint is
+ * kept as backup before the temporary file is renamed, a crash while saving
+ * therefore leaves either the new or the former checkpoint to be restored.
+ * </p>
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class Checkpoint {
+
+    /** Type of a line holding the number of completed runs of a method. */
+    static final String PROGRESS = "progress";
+
+    /** Number of runs of methods completed as a whole, e.g. time-boxed ones. */
+    private static final int COMPLETED = -1;
+
+    /** File of the checkpoint. */
+    private transient final File file;
+
+    /** Former checkpoint, restored if the file itself is missing. */
+    private transient final File backup;
+
+    /** Minimal milliseconds between two saves. */
+    private transient final long interval;
+
+    /** Time of the last save in milliseconds. */
+    private transient long lastSave;
+
+    /** Meters in the order of the configuration. */
+    private transient final AbstractMeter[] meters;
+
+    /** Completed runs mapped to the method and parameter combination. */
+    private transient final Map<String, Integer> completed;
+
+    /** Restored runs not skipped yet mapped to the method and parameter combination. */
+    private transient final Map<String, Integer> restored;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramFile
+     *            file of the checkpoint
+     * @param paramInterval
+     *            minimal milliseconds between two saves by
+     *            {@link #saveIfDue(BenchmarkResult)}
+     * @param paramMeters
+     *            meters in the order of the configuration
+     */
+    public Checkpoint(final File paramFile, final long paramInterval, final AbstractMeter... paramMeters) {
+        file = paramFile;
+        backup = new File(paramFile.getPath() + ".bak");
+        interval = paramInterval;
+        lastSave = System.currentTimeMillis();
+        meters = paramMeters;
+        completed = new Hashtable<String, Integer>();
+        restored = new Hashtable<String, Integer>();
+    }
+
+    /**
+     * Restoring the result and the progress of the checkpoint if the file
+     * exists. If a crash while saving left the file missing, the former
+     * checkpoint is restored instead.
+     * 
+     * @param methods
+     *            mapping from the string representation to the methods of all
+     *            benched classes
+     * @param res
+     *            to store the restored result to
+     * @return true if a checkpoint was restored, false if neither the file
+     *         nor the former checkpoint exists
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public boolean restore(final Map<String, Method> methods, final BenchmarkResult res) throws IOException {
+        File source = file;
+        if (!source.exists()) {
+            source = backup;
+        }
+        if (!source.exists()) {
+            return false;
+        }
+        final BufferedReader reader =
+            new BufferedReader(new InputStreamReader(new FileInputStream(source), "UTF-8"));
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                final String[] fields = line.split(ForkOutput.SEPARATOR);
+                if (fields.length > 4 && PROGRESS.equals(fields[1])) {
+                    final String key = getKey(fields[2], fields[3]);
+                    final Integer runs = Integer.valueOf(fields[4]);
+                    completed.put(key, runs);
+                    restored.put(key, runs);
+                } else if (fields.length > 1 && !ForkOutput.WARMUP.equals(fields[1])
+                    && !ForkOutput.CALIBRATION.equals(fields[1])) {
+                    ForkedBenchmark.parseLine(line, -1, meters, methods, res);
+                }
+                line = reader.readLine();
+            }
+        } finally {
+            reader.close();
+        }
+        return true;
+    }
+
+    /**
+     * Checking if a run of a method was completed before the checkpoint was
+     * restored. Each call consumes one of the restored runs of the method.
+     * 
+     * @param meth
+     *            the method of the run
+     * @param params
+     *            the parameter combination of the method
+     * @return true if the run should be skipped
+     */
+    public boolean skipRun(final Method meth, final String params) {
+        final String key = getKey(meth.toString(), params);
+        final Integer runs = restored.get(key);
+        if (runs == null || runs == 0) {
+            return false;
+        }
+        if (runs != COMPLETED) {
+            restored.put(key, runs - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Marking one run of a method as completed.
+     * 
+     * @param meth
+     *            the method of the run
+     * @param params
+     *            the parameter combination of the method
+     */
+    public void addRun(final Method meth, final String params) {
+        final String key = getKey(meth.toString(), params);
+        final Integer runs = completed.get(key);
+        if (runs == null) {
+            completed.put(key, 1);
+        } else if (runs != COMPLETED) {
+            completed.put(key, runs + 1);
+        }
+    }
+
+    /**
+     * Marking all runs of a method as completed, e.g. of a time-boxed method.
+     * 
+     * @param meth
+     *            the method
+     * @param params
+     *            the parameter combination of the method
+     */
+    public void complete(final Method meth, final String params) {
+        completed.put(getKey(meth.toString(), params), COMPLETED);
+    }
+
+    /**
+     * Saving the result and the progress to the file if the interval elapsed
+     * since the last save.
+     * 
+     * @param res
+     *            the partial result of the benchmark
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void saveIfDue(final BenchmarkResult res) throws IOException {
+        if (System.currentTimeMillis() - lastSave >= interval) {
+            save(res);
+        }
+    }
+
+    /**
+     * Saving the result and the progress to the file.
+     * 
+     * @param res
+     *            the partial result of the benchmark
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void save(final BenchmarkResult res) throws IOException {
+        lastSave = System.currentTimeMillis();
+        final File tmp = new File(file.getPath() + ".tmp");
+        final PrintStream out = new PrintStream(new FileOutputStream(tmp), false, "UTF-8");
+        try {
+            final ForkOutput output = new ForkOutput(out, meters);
+            output.visitBenchmark(res, true);
+            for (final AbstractPerfidixMethodException exec : res.getExceptions()) {
+                output.listenToException(exec);
+            }
+            for (final Map.Entry<String, Integer> entry : completed.entrySet()) {
+                out.println(new StringBuilder(ForkOutput.PREFIX).append(ForkOutput.SEPARATOR).append(PROGRESS)
+                    .append(ForkOutput.SEPARATOR).append(entry.getKey()).append(ForkOutput.SEPARATOR).append(
+                        entry.getValue()).toString());
+            }
+        } finally {
+            out.close();
+        }
+        if (out.checkError()) {
+            throw new IOException(new StringBuilder("Checkpoint ").append(tmp).append(" could not be written.")
+                .toString());
+        }
+        // keeping the former checkpoint until the new one is in place
+        if (file.exists() && (backup.exists() && !backup.delete() || !file.renameTo(backup))
+            || !tmp.renameTo(file)) {
+            throw new IOException(new StringBuilder("Checkpoint ").append(file).append(
+                " could not be replaced.").toString());
+        }
+    }
+
+    /**
+     * Deleting the file together with the former and the temporary checkpoint
+     * after the benchmark completed.
+     * 
+     * @return true if all files were deleted or did not exist
+     */
+    public boolean delete() {
+        boolean returnVal = true;
+        for (final File toDelete : new File[] {
+            file, backup, new File(file.getPath() + ".tmp")
+        }) {
+            returnVal = (!toDelete.exists() || toDelete.delete()) && returnVal;
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the key of a method and a parameter combination.
+     * 
+     * @param meth
+     *            string representation of the method
+     * @param params
+     *            the parameter combination
+     * @return the key, the fields separated like the protocol
+     */
+    private static String getKey(final String meth, final String params) {
+        return new StringBuilder(meth).append(ForkOutput.SEPARATOR).append(params).toString();
+    }
+
+}
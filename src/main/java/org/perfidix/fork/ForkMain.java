@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import java.io.FileOutputStream;
+import java.io.FileDescriptor;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+
+import org.perfidix.AbstractConfig;
+import org.perfidix.AbstractConfig.DelegatingConfig;
+import org.perfidix.Benchmark;
+import org.perfidix.result.BenchmarkResult;
+
+/**
+ * Entry point of a forked JVM. The first argument is the name of the configuration class, the second one
+ * the name of the class to bench. The results are streamed to {@link System#out} with the help of a
+ * {@link ForkOutput}, all other output of the benched class is redirected to {@link System#err}.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class ForkMain {
+
+    /**
+     * Hidden constructor.
+     */
+    private ForkMain() {
+        // hidden constructor
+    }
+
+    /**
+     * Main method of a fork.
+     * 
+     * @param args
+     *            the name of the configuration class and of the class to bench
+     * @throws ClassNotFoundException
+     *             if one of the classes is not found
+     * @throws InstantiationException
+     *             if the configuration cannot be instantiated
+     * @throws IllegalAccessException
+     *             if the constructor of the configuration is not accessible
+     * @throws UnsupportedEncodingException
+     *             if UTF-8 is not supported
+     */
+    public static void main(final String[] args) throws ClassNotFoundException, InstantiationException,
+        IllegalAccessException, UnsupportedEncodingException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ForkMain <config class> <bench class>");
+        }
+        final PrintStream protocol =
+            new PrintStream(new FileOutputStream(FileDescriptor.out), false, "UTF-8");
+        System.setOut(System.err);
+
+        final AbstractConfig conf = (AbstractConfig)Class.forName(args[0]).newInstance();
+        final ForkOutput output = new ForkOutput(protocol, conf.getMeters());
+        final Benchmark bench = new Benchmark(new DelegatingConfig(conf, output));
+        bench.add(Class.forName(args[1]));
+        final BenchmarkResult res = bench.run();
+        output.visitBenchmark(res);
+        protocol.close();
+    }
+}
@@ -0,0 +1,389 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+
+import org.perfidix.exceptions.AbstractPerfidixMethodException;
+import org.perfidix.exceptions.PerfidixMethodCheckException;
+import org.perfidix.exceptions.PerfidixMethodTimeoutException;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.ouput.AbstractOutput;
+import org.perfidix.result.BenchmarkResult;
+import org.perfidix.result.ClassResult;
+import org.perfidix.result.LatencyHistogram;
+import org.perfidix.result.MethodResult;
+import org.perfidix.result.RoundResult;
+import org.perfidix.result.ThreadResult;
+
+/**
+ * Output used within a forked JVM. Every dataset and every exception is
+ * streamed line by line to the parent JVM while the benchmark is running, so
+ * that the data of a crashing fork is kept up to its crash. All further data,
+ * e.g. warmup, thread or latency data, is streamed when the result is visited
+ * at the end of the run. Methods are identified by their {@link Method#toString()}
+ * representation plus their parameter combination, meters by their index in
+ * the configuration.
+ * 
+ * @see ForkedBenchmark
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class ForkOutput extends AbstractOutput {
+
+    /** Prefix of every line of the protocol. */
+    static final String PREFIX = "perfidix-fork";
+
+    /** Separator between the fields of one line. */
+    static final String SEPARATOR = "\t";
+
+    /** Type of a line holding one dataset. */
+    static final String DATA = "data";
+
+    /** Type of a line holding one dataset of one thread. */
+    static final String THREAD = "thread";
+
+    /** Type of a line holding one dataset of a warmup run. */
+    static final String WARMUP = "warmup";
+
+    /** Type of a line holding one dataset overlapping a garbage collection. */
+    static final String GC = "gc";
+
+    /** Type of a line holding one dataset of one round of an arrangement. */
+    static final String ROUND = "round";
+
+    /** Type of a line holding one dataset of a calibration run. */
+    static final String CALIBRATION = "calibration";
+
+    /** Type of a line holding the throughput of one concurrent run. */
+    static final String THROUGHPUT = "throughput";
+
+    /**
+     * Type of a line holding the count of one bucket of the latencies of a
+     * sampled method.
+     */
+    static final String LATENCY = "latency";
+
+    /** Type of a line holding the target and achieved rate of one sampling. */
+    static final String RATE = "rate";
+
+    /** Type of a line holding one exception. */
+    static final String EXCEPTION = "exception";
+
+    /** Marker for exceptions thrown while checking a method. */
+    static final String CHECK = "check";
+
+    /** Marker for invocations exceeding their timeout. */
+    static final String TIMEOUT = "timeout";
+
+    /** Marker for exceptions thrown while invoking a method. */
+    static final String INVOCATION = "invocation";
+
+    /** Stream to the parent JVM. */
+    private transient final PrintStream out;
+
+    /** Meters in the order of the configuration. */
+    private transient final AbstractMeter[] meters;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramOut
+     *            stream to the parent JVM
+     * @param paramMeters
+     *            meters in the order of the configuration
+     */
+    public ForkOutput(final PrintStream paramOut, final AbstractMeter... paramMeters) {
+        super();
+        out = paramOut;
+        meters = paramMeters;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean listenToResultSet(final Method meth, final AbstractMeter meter, final double data) {
+        return listenToResultSet(meth, "", meter, data);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean listenToResultSet(final Method meth, final String params, final AbstractMeter meter,
+        final double data) {
+        writeLine(DATA, meth.toString(), params, Integer.toString(getMeterIndex(meter)), Double.toString(data));
+        out.flush();
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean listenToException(final AbstractPerfidixMethodException exec) {
+        String meth = "";
+        if (exec.getMethod() != null) {
+            meth = exec.getMethod().toString();
+        }
+        String place = INVOCATION;
+        if (exec instanceof PerfidixMethodCheckException) {
+            place = CHECK;
+        } else if (exec instanceof PerfidixMethodTimeoutException) {
+            place = TIMEOUT;
+        }
+        writeLine(EXCEPTION, meth, exec.getRelatedAnno().getName(), place, encode(exec.getExec()),
+            describe(exec.getExec()));
+        out.flush();
+        return true;
+    }
+
+    /**
+     * Streaming all data which is not covered by the listener methods.
+     * 
+     * @param res
+     *            the {@link BenchmarkResult} of the forked JVM
+     */
+    @Override
+    public void visitBenchmark(final BenchmarkResult res) {
+        visitBenchmark(res, false);
+    }
+
+    /**
+     * Streaming the data of a result.
+     * 
+     * @param res
+     *            the {@link BenchmarkResult} to be streamed
+     * @param withData
+     *            true if the datasets passed to the listener methods should be
+     *            streamed as well, e.g. if this output did not listen to the
+     *            benchmark
+     */
+    void visitBenchmark(final BenchmarkResult res, final boolean withData) {
+        for (final AbstractMeter meter : res.getCalibrationResult().getRegisteredMeters()) {
+            for (final Double data : res.getCalibrationResult().getResultSet(meter)) {
+                writeLine(CALIBRATION, "", Integer.toString(getMeterIndex(meter)), data.toString());
+            }
+        }
+        for (final ClassResult classRes : res.getIncludedResults()) {
+            for (final MethodResult methRes : classRes.getIncludedResults()) {
+                final String meth = methRes.getRelatedElement().toString();
+                final String params = methRes.getParameters();
+                for (final AbstractMeter meter : methRes.getRegisteredMeters()) {
+                    if (withData) {
+                        for (final Double data : methRes.getResultSet(meter)) {
+                            writeLine(DATA, meth, params, Integer.toString(getMeterIndex(meter)), data
+                                .toString());
+                        }
+                    }
+                }
+                for (final Double throughput : methRes.getThroughputs()) {
+                    writeLine(THROUGHPUT, meth, params, throughput.toString());
+                }
+                writeLatencies(meth, params, methRes.getLatencies());
+                for (final Double achieved : methRes.getAchievedRates()) {
+                    writeLine(RATE, meth, params, Double.toString(methRes.getTargetRate()), achieved
+                        .toString());
+                }
+                for (final AbstractMeter meter : methRes.getWarmupResult().getRegisteredMeters()) {
+                    for (final Double data : methRes.getWarmupResult().getResultSet(meter)) {
+                        writeLine(WARMUP, meth, params, Integer.toString(getMeterIndex(meter)), data
+                            .toString());
+                    }
+                }
+                for (final AbstractMeter meter : methRes.getGcResult().getRegisteredMeters()) {
+                    for (final Double data : methRes.getGcResult().getResultSet(meter)) {
+                        writeLine(GC, meth, params, Integer.toString(getMeterIndex(meter)), data.toString());
+                    }
+                }
+                for (final RoundResult roundRes : methRes.getRoundResults()) {
+                    for (final AbstractMeter meter : roundRes.getRegisteredMeters()) {
+                        for (final Double data : roundRes.getResultSet(meter)) {
+                            writeLine(ROUND, meth, params, roundRes.getRelatedElement().toString(), Integer
+                                .toString(getMeterIndex(meter)), data.toString());
+                        }
+                    }
+                }
+                for (final ThreadResult threadRes : methRes.getThreadResults()) {
+                    for (final AbstractMeter meter : threadRes.getRegisteredMeters()) {
+                        for (final Double data : threadRes.getResultSet(meter)) {
+                            writeLine(THREAD, meth, params, threadRes.getRelatedElement().toString(), Integer
+                                .toString(getMeterIndex(meter)), data.toString());
+                        }
+                    }
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writing the non-empty buckets of a histogram, each one with a value
+     * counted in the bucket. The first and the last bucket are written with
+     * the exact minimum and maximum so that they survive the transfer.
+     * 
+     * @param meth
+     *            the method of the latencies
+     * @param params
+     *            the parameter combination of the method
+     * @param latencies
+     *            the histogram to be written
+     */
+    private void writeLatencies(final String meth, final String params, final LatencyHistogram latencies) {
+        long written = 0;
+        for (int i = 0; i < latencies.getNumberOfBuckets() && written < latencies.getTotalCount(); i++) {
+            final long count = latencies.getBucketCount(i);
+            if (count > 0) {
+                long value = Math.max(latencies.getBucketValue(i), latencies.getMinValue());
+                written += count;
+                if (written == latencies.getTotalCount()) {
+                    value = latencies.getMaxValue();
+                }
+                writeLine(LATENCY, meth, params, Long.toString(value), Long.toString(count));
+            }
+        }
+    }
+
+    /**
+     * Writing one line of the protocol.
+     * 
+     * @param fields
+     *            the fields of the line, starting with the type
+     */
+    private void writeLine(final String... fields) {
+        final StringBuilder builder = new StringBuilder(PREFIX);
+        for (final String field : fields) {
+            builder.append(SEPARATOR).append(field);
+        }
+        out.println(builder.toString());
+    }
+
+    /**
+     * Getting the index of a meter in the configuration.
+     * 
+     * @param meter
+     *            to be looked up
+     * @return the index of the meter
+     */
+    private int getMeterIndex(final AbstractMeter meter) {
+        for (int i = 0; i < meters.length; i++) {
+            if (meters[i] == meter) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(new StringBuilder("Meter ").append(meter).append(
+            " is not part of the configuration.").toString());
+    }
+
+    /**
+     * Encoding a {@link Throwable} as hex-string of its serialized form. If
+     * the throwable is not serializable, an {@link IllegalStateException} with
+     * the same description and stacktrace is encoded instead.
+     * 
+     * @param exec
+     *            to be encoded
+     * @return the encoded throwable
+     */
+    static String encode(final Throwable exec) {
+        byte[] bytes;
+        try {
+            bytes = serialize(exec);
+        } catch (final IOException e) {
+            final IllegalStateException replacement = new IllegalStateException(exec.toString());
+            replacement.setStackTrace(exec.getStackTrace());
+            try {
+                bytes = serialize(replacement);
+            } catch (final IOException e2) {
+                throw new IllegalStateException(e2);
+            }
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (final byte each : bytes) {
+            builder.append(Character.forDigit((each >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(each & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Describing a {@link Throwable} within one field of a line, used instead
+     * of the encoded form if the line comes from an untrusted source.
+     * 
+     * @param exec
+     *            to be described
+     * @return the description, without separators and line breaks
+     */
+    static String describe(final Throwable exec) {
+        return exec.toString().replaceAll("[\\t\\r\\n]+", " ");
+    }
+
+    /**
+     * Decoding a {@link Throwable} encoded by {@link #encode(Throwable)}. Only
+     * to be used on lines of a trusted source, e.g. a fork spawned by this
+     * JVM, since the decoding deserializes the throwable.
+     * 
+     * @param encoded
+     *            the hex-string
+     * @return the decoded throwable
+     * @throws IOException
+     *             if the throwable cannot be read
+     * @throws ClassNotFoundException
+     *             if the class of the throwable is not found
+     */
+    static Throwable decode(final String encoded) throws IOException, ClassNotFoundException {
+        final byte[] bytes = new byte[encoded.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] =
+                (byte)((Character.digit(encoded.charAt(2 * i), 16) << 4) + Character.digit(encoded
+                    .charAt(2 * i + 1), 16));
+        }
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return (Throwable)in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Serializing a throwable.
+     * 
+     * @param exec
+     *            to be serialized
+     * @return the serialized form
+     * @throws IOException
+     *             if the throwable is not serializable
+     */
+    private static byte[] serialize(final Throwable exec) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream objOut = new ObjectOutputStream(bytes);
+        objOut.writeObject(exec);
+        objOut.close();
+        return bytes.toByteArray();
+    }
+
+}
@@ -0,0 +1,483 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+import org.perfidix.AbstractConfig;
+import org.perfidix.AbstractConfig.DelegatingConfig;
+import org.perfidix.annotation.Bench;
+import org.perfidix.exceptions.AbstractPerfidixMethodException;
+import org.perfidix.exceptions.PerfidixMethodCheckException;
+import org.perfidix.exceptions.PerfidixMethodInvocationException;
+import org.perfidix.exceptions.PerfidixMethodTimeoutException;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.result.BenchmarkResult;
+
+/**
+ * Benching classes in forked JVMs. For each class, {@link AbstractConfig#getForks()} fresh JVMs are
+ * spawned one after another, each one executing the whole class with the given configuration. The
+ * results are streamed back and stored in the {@link BenchmarkResult} of this JVM, once aggregated
+ * and once per fork. The configuration must therefore be instantiable with a public constructor
+ * without any parameters. On Linux, the forks are pinned to the cpus of
+ * {@link AbstractConfig#getForkCpus()} with <code>taskset</code>.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class ForkedBenchmark {
+
+    /** System property set within forked JVMs, holding the index of the fork. */
+    public static final String FORK_PROPERTY = "perfidix.fork";
+
+    /** Command pinning a process to cpus on Linux. */
+    private static final String TASKSET = "taskset";
+
+    /** Configuration of this benchmark. */
+    private transient final AbstractConfig conf;
+
+    /**
+     * Constructor.
+     * 
+     * @param paramConf
+     *            configuration of the benchmark
+     */
+    public ForkedBenchmark(final AbstractConfig paramConf) {
+        conf = paramConf;
+    }
+
+    /**
+     * Checking if the current JVM is a forked one.
+     * 
+     * @return true if this JVM was spawned by a {@link ForkedBenchmark}
+     */
+    public static boolean isForked() {
+        return System.getProperty(FORK_PROPERTY) != null;
+    }
+
+    /**
+     * Getting the index of the current fork.
+     * 
+     * @return the index of the fork, 0 if this JVM is not a forked one
+     */
+    public static int getFork() {
+        int returnVal = 0;
+        if (isForked()) {
+            returnVal = Integer.parseInt(System.getProperty(FORK_PROPERTY));
+        }
+        return returnVal;
+    }
+
+    /**
+     * Benching one class in all forks.
+     * 
+     * @param clazz
+     *            to be benched
+     * @param res
+     *            to store the results
+     */
+    public void run(final Class<?> clazz, final BenchmarkResult res) {
+        final String confClass = getInstantiableConfig(conf).getClass().getName();
+        final Map<String, Method> methods = new Hashtable<String, Method>();
+        for (final Method meth : clazz.getDeclaredMethods()) {
+            methods.put(meth.toString(), meth);
+        }
+        for (int i = 0; i < conf.getForks(); i++) {
+            final String cpus = getCpus(i);
+            if (cpus != null) {
+                res.addForkCpus(i, cpus);
+            }
+            try {
+                final int exitCode = runFork(i, confClass, clazz, methods, res);
+                if (exitCode != 0) {
+                    res.addException(new PerfidixMethodInvocationException(new IllegalStateException(
+                        new StringBuilder("Fork ").append(i).append(" of ").append(clazz.getName()).append(
+                            " terminated with exit code ").append(exitCode).toString()), Bench.class));
+                }
+            } catch (final IOException e) {
+                res.addException(new PerfidixMethodInvocationException(e, Bench.class));
+            } catch (final InterruptedException e) {
+                res.addException(new PerfidixMethodInvocationException(e, Bench.class));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Spawning one fork and parsing its output.
+     * 
+     * @param fork
+     *            index of the fork
+     * @param confClass
+     *            name of the configuration class
+     * @param clazz
+     *            to be benched
+     * @param methods
+     *            mapping from the string representation to the methods of the class
+     * @param res
+     *            to store the results
+     * @return the exit code of the forked JVM
+     * @throws IOException
+     *             if the JVM cannot be spawned or read
+     * @throws InterruptedException
+     *             if interrupted while waiting for the fork
+     */
+    private int runFork(final int fork, final String confClass, final Class<?> clazz,
+        final Map<String, Method> methods, final BenchmarkResult res) throws IOException,
+        InterruptedException {
+        final ProcessBuilder builder = new ProcessBuilder(buildCommand(fork, confClass, clazz));
+        final Process process = builder.start();
+        process.getOutputStream().close();
+        final Thread errDrainer = new Thread(new StreamDrainer(process.getErrorStream()));
+        errDrainer.setDaemon(true);
+        errDrainer.start();
+
+        final BufferedReader reader =
+            new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                parseLine(line, fork, conf.getMeters(), methods, res);
+                line = reader.readLine();
+            }
+        } finally {
+            reader.close();
+        }
+        final int exitCode = process.waitFor();
+        errDrainer.join();
+        return exitCode;
+    }
+
+    /**
+     * Building the command line for one fork.
+     * 
+     * @param fork
+     *            index of the fork
+     * @param confClass
+     *            name of the configuration class
+     * @param clazz
+     *            to be benched
+     * @return the command line
+     */
+    List<String> buildCommand(final int fork, final String confClass, final Class<?> clazz) {
+        final List<String> command = new ArrayList<String>();
+        final String cpus = getCpus(fork);
+        if (cpus != null) {
+            command.add(TASKSET);
+            command.add("-c");
+            command.add(cpus);
+        }
+        command.add(new StringBuilder(System.getProperty("java.home")).append(File.separator).append("bin")
+            .append(File.separator).append("java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(new StringBuilder("-D").append(FORK_PROPERTY).append("=").append(fork).toString());
+        command.add(ForkMain.class.getName());
+        command.add(confClass);
+        command.add(clazz.getName());
+        return command;
+    }
+
+    /**
+     * Getting the cpus one fork is pinned to.
+     * 
+     * @param fork
+     *            index of the fork
+     * @return the cpu list as given by the configuration, null if the fork is
+     *         not pinned because nothing is configured or the platform is not
+     *         Linux
+     */
+    String getCpus(final int fork) {
+        final String[] cpus = conf.getForkCpus();
+        String returnVal = null;
+        if (cpus.length > 0 && System.getProperty("os.name", "").startsWith("Linux")) {
+            returnVal = cpus[fork % cpus.length];
+        }
+        return returnVal;
+    }
+
+    /**
+     * Parsing one line of the fork and storing its content. Lines not belonging to the protocol
+     * are passed to {@link System#out}.
+     * 
+     * @param line
+     *            to be parsed
+     * @param fork
+     *            index of the fork, -1 if the data should not be stored per fork
+     * @param meters
+     *            meters in the order of the configuration
+     * @param methods
+     *            mapping from the string representation to the methods of the class
+     * @param res
+     *            to store the results
+     */
+    static void parseLine(final String line, final int fork, final AbstractMeter[] meters,
+        final Map<String, Method> methods, final BenchmarkResult res) {
+        parseLine(line, fork, meters, methods, res, true);
+    }
+
+    /**
+     * Parsing one line of the protocol and storing its content. Exceptions of
+     * an untrusted source, e.g. a remote worker, are not deserialized but
+     * rebuilt from their description, lines not belonging to the protocol,
+     * lines with missing fields and lines of unknown methods are rejected in
+     * that case.
+     * 
+     * @param line
+     *            to be parsed
+     * @param fork
+     *            index of the fork, -1 if the data should not be stored per fork
+     * @param meters
+     *            meters in the order of the configuration
+     * @param methods
+     *            mapping from the string representation to the methods of the class
+     * @param res
+     *            to store the results
+     * @param trusted
+     *            true if the line comes from a trusted source like a fork
+     *            spawned by this JVM
+     * @throws IllegalArgumentException
+     *             if the line of an untrusted source is rejected
+     */
+    static void parseLine(final String line, final int fork, final AbstractMeter[] meters,
+        final Map<String, Method> methods, final BenchmarkResult res, final boolean trusted) {
+        final String[] fields = line.split(ForkOutput.SEPARATOR);
+        if (!trusted) {
+            checkLine(line, fields, methods);
+        }
+        if (fields.length < 3 || !ForkOutput.PREFIX.equals(fields[0])) {
+            System.out.println(line);
+            return;
+        }
+        final String type = fields[1];
+        final Method meth = methods.get(fields[2]);
+        if (ForkOutput.EXCEPTION.equals(type)) {
+            res.addException(parseException(meth, fields, trusted));
+            return;
+        }
+        if (ForkOutput.CALIBRATION.equals(type)) {
+            res.addCalibrationData(meters[Integer.parseInt(fields[3])], Double
+                .parseDouble(fields[4]));
+            return;
+        }
+        final String params = fields[3];
+        if (ForkOutput.DATA.equals(type)) {
+            final AbstractMeter meter = meters[Integer.parseInt(fields[4])];
+            final double data = Double.parseDouble(fields[5]);
+            res.addData(meth, params, meter, data);
+            if (fork >= 0) {
+                res.addForkData(meth, params, fork, meter, data);
+            }
+        } else if (ForkOutput.THREAD.equals(type)) {
+            res.addThreadData(meth, params, Integer.parseInt(fields[4]), meters[Integer
+                .parseInt(fields[5])], Double.parseDouble(fields[6]));
+        } else if (ForkOutput.WARMUP.equals(type)) {
+            res.addWarmupData(meth, params, meters[Integer.parseInt(fields[4])], Double
+                .parseDouble(fields[5]));
+        } else if (ForkOutput.ROUND.equals(type)) {
+            res.addRoundData(meth, params, Integer.parseInt(fields[4]), meters[Integer
+                .parseInt(fields[5])], Double.parseDouble(fields[6]));
+        } else if (ForkOutput.GC.equals(type)) {
+            res.addGcData(meth, params, meters[Integer.parseInt(fields[4])], Double
+                .parseDouble(fields[5]));
+        } else if (ForkOutput.THROUGHPUT.equals(type)) {
+            res.addThroughput(meth, params, Double.parseDouble(fields[4]));
+        } else if (ForkOutput.LATENCY.equals(type)) {
+            res.addLatency(meth, params, Long.parseLong(fields[4]), Long.parseLong(fields[5]));
+        } else if (ForkOutput.RATE.equals(type)) {
+            res.addRate(meth, params, Double.parseDouble(fields[4]), Double.parseDouble(fields[5]));
+        }
+    }
+
+    /**
+     * Checking that a line of an untrusted source belongs to the protocol,
+     * holds all fields of its type and refers to a known method. Only
+     * exceptions and calibration data may refer to no method at all.
+     * 
+     * @param line
+     *            to be checked
+     * @param fields
+     *            of the line
+     * @param methods
+     *            mapping from the string representation to the known methods
+     * @throws IllegalArgumentException
+     *             if the line is rejected
+     */
+    private static void checkLine(final String line, final String[] fields,
+        final Map<String, Method> methods) {
+        int expected = 0;
+        if (fields.length > 1 && ForkOutput.PREFIX.equals(fields[0])) {
+            expected = getNumberOfFields(fields[1]);
+        }
+        boolean valid = expected > 0 && fields.length >= expected;
+        if (valid && fields[2].length() == 0) {
+            valid = ForkOutput.EXCEPTION.equals(fields[1]) || ForkOutput.CALIBRATION.equals(fields[1]);
+        } else if (valid) {
+            valid = methods.containsKey(fields[2]);
+        }
+        if (!valid) {
+            throw new IllegalArgumentException(new StringBuilder("Line ").append(line).append(
+                " is rejected.").toString());
+        }
+    }
+
+    /**
+     * Getting the minimal number of fields of a line of the protocol,
+     * including the prefix and the type.
+     * 
+     * @param type
+     *            the type of the line
+     * @return the number of fields, 0 if the type is unknown
+     */
+    private static int getNumberOfFields(final String type) {
+        int returnVal = 0;
+        if (ForkOutput.THREAD.equals(type) || ForkOutput.ROUND.equals(type)) {
+            returnVal = 7;
+        } else if (ForkOutput.DATA.equals(type) || ForkOutput.WARMUP.equals(type)
+            || ForkOutput.GC.equals(type) || ForkOutput.LATENCY.equals(type) || ForkOutput.RATE.equals(type)
+            || ForkOutput.EXCEPTION.equals(type)) {
+            returnVal = 6;
+        } else if (ForkOutput.CALIBRATION.equals(type) || ForkOutput.THROUGHPUT.equals(type)) {
+            returnVal = 5;
+        }
+        return returnVal;
+    }
+
+    /**
+     * Rebuilding an exception of the fork.
+     * 
+     * @param meth
+     *            related method, can be null
+     * @param fields
+     *            of the line
+     * @param trusted
+     *            true if the encoded exception may be deserialized, false if
+     *            it is rebuilt from its description
+     * @return the rebuilt exception
+     */
+    private static AbstractPerfidixMethodException parseException(final Method meth, final String[] fields,
+        final boolean trusted) {
+        Throwable exec;
+        Class<? extends Annotation> anno;
+        try {
+            // the annotation is neither initialized nor any other class accepted
+            anno = Class.forName(fields[3], false, ForkedBenchmark.class.getClassLoader()).asSubclass(
+                Annotation.class);
+            if (trusted) {
+                exec = ForkOutput.decode(fields[5]);
+            } else if (fields.length > 6) {
+                exec = new IllegalStateException(fields[6]);
+            } else {
+                exec = new IllegalStateException("Exception without description");
+            }
+        } catch (final IOException e) {
+            exec = e;
+            anno = Bench.class;
+        } catch (final ClassNotFoundException e) {
+            exec = e;
+            anno = Bench.class;
+        } catch (final ClassCastException e) {
+            exec = e;
+            anno = Bench.class;
+        }
+        if (ForkOutput.CHECK.equals(fields[4])) {
+            return new PerfidixMethodCheckException(exec, meth, anno);
+        }
+        if (ForkOutput.TIMEOUT.equals(fields[4])) {
+            return new PerfidixMethodTimeoutException(exec, meth, anno);
+        }
+        return new PerfidixMethodInvocationException(exec, meth, anno);
+    }
+
+    /**
+     * Getting the configuration to be instantiated within the forks, unwrapping {@link DelegatingConfig}
+     * instances.
+     * 
+     * @param paramConf
+     *            the configuration
+     * @return the configuration to be instantiated
+     */
+    static AbstractConfig getInstantiableConfig(final AbstractConfig paramConf) {
+        AbstractConfig returnVal = paramConf;
+        while (returnVal instanceof DelegatingConfig) {
+            returnVal = ((DelegatingConfig)returnVal).getBase();
+        }
+        try {
+            returnVal.getClass().getConstructor();
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(new StringBuilder("Config ").append(returnVal.getClass().getName())
+                .append(" needs a public constructor without parameters to be used in forks.").toString(), e);
+        }
+        return returnVal;
+    }
+
+    /**
+     * Passing the error stream of a fork to {@link System#err}.
+     */
+    private static final class StreamDrainer implements Runnable {
+
+        /** Stream to be drained. */
+        private transient final InputStream input;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramInput
+         *            stream to be drained
+         */
+        StreamDrainer(final InputStream paramInput) {
+            input = paramInput;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            final byte[] buffer = new byte[1024];
+            try {
+                int read = input.read(buffer);
+                while (read >= 0) {
+                    System.err.write(buffer, 0, read);
+                    read = input.read(buffer);
+                }
+                System.err.flush();
+            } catch (final IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+}
@@ -27,6 +27,7 @@
 package org.perfidix.ouput;
 
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
 import java.util.Formatter;
 import java.util.Locale;
 
@@ -52,6 +53,14 @@ public abstract class AbstractOutput {
      */
     protected static final String FLOATFORMAT = "%05.2f";
 
+    /**
+     * Percentiles of the latencies of sampled methods to be displayed, the
+     * maximum is displayed additionally.
+     */
+    protected static final double[] LATENCY_PERCENTILES = {
+        50, 90, 99, 99.9, 99.99
+    };
+
     /**
      * Visiting the {@link BenchmarkResult} and do something with the result.
      * 
@@ -74,6 +83,29 @@ public abstract class AbstractOutput {
     public abstract boolean
         listenToResultSet(final Method meth, final AbstractMeter meter, final double data);
 
+    /**
+     * Listening to a resultset of one parameter combination of a method and
+     * handling the data. Delegates to
+     * {@link #listenToResultSet(Method, AbstractMeter, double)} by default,
+     * the parameter combination is ignored then. Override this method to
+     * distinguish the parameter combinations.
+     * 
+     * @param meth
+     *            the related {@link Method}
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param meter
+     *            the corresponding {@link AbstractMeter} instance where the
+     *            result is related to
+     * @param data
+     *            the related data
+     */
+    public boolean listenToResultSet(final Method meth, final String params, final AbstractMeter meter,
+        final double data) {
+        return listenToResultSet(meth, meter, data);
+    }
+
     /**
      * Listening to an arised exception.
      * 
@@ -82,6 +114,27 @@ public abstract class AbstractOutput {
      */
     public abstract boolean listenToException(final AbstractPerfidixMethodException exec);
 
+    /**
+     * Getting the name of a method qualified by its parameter combination, the
+     * same as the element name of the related
+     * {@link org.perfidix.result.MethodResult}.
+     * 
+     * @param meth
+     *            the method
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @return the name of the method, followed by the parameter combination in
+     *         brackets if parameterized
+     */
+    protected static final String getMethodName(final Method meth, final String params) {
+        final StringBuilder builder = new StringBuilder(meth.getName());
+        if (params.length() > 0) {
+            builder.append("[").append(params).append("]");
+        }
+        return builder.toString();
+    }
+
     /**
      * Formats a double.
      * 
@@ -94,4 +147,16 @@ public abstract class AbstractOutput {
         return new Formatter(Locale.US).format(FLOATFORMAT, toFormat).toString();
     }
 
+    /**
+     * Getting the label of a percentile like <code>p99.9</code>.
+     * 
+     * @param percentile
+     *            the percentile between 0 and 100
+     * @return the label without trailing zeros
+     */
+    protected static final String getPercentileLabel(final double percentile) {
+        return new StringBuilder("p").append(
+            new BigDecimal(Double.toString(percentile)).stripTrailingZeros().toPlainString()).toString();
+    }
+
 }
@@ -38,6 +38,7 @@ import org.perfidix.exceptions.AbstractPerfidixMethodException;
 import org.perfidix.meter.AbstractMeter;
 import org.perfidix.result.BenchmarkResult;
 import org.perfidix.result.ClassResult;
+import org.perfidix.result.LatencyHistogram;
 import org.perfidix.result.MethodResult;
 
 /**
@@ -100,9 +101,18 @@ public final class CSVOutput extends AbstractOutput {
      */
     @Override
     public boolean listenToResultSet(final Method meth, final AbstractMeter meter, final double data) {
+        return listenToResultSet(meth, "", meter, data);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean listenToResultSet(final Method meth, final String params, final AbstractMeter meter,
+        final double data) {
         final PrintStream stream =
-            setUpNewPrintStream(false, meth.getDeclaringClass().getSimpleName(), meth.getName(), meter
-                .getName());
+            setUpNewPrintStream(false, meth.getDeclaringClass().getSimpleName(), getMethodName(meth, params),
+                meter.getName());
         if (!firstResult) {
             stream.append(",");
         }
@@ -157,6 +167,27 @@ public final class CSVOutput extends AbstractOutput {
 
                     currentWriter.flush();
                 }
+                final LatencyHistogram latencies = methRes.getLatencies();
+                if (latencies.getTotalCount() > 0) {
+                    final PrintStream currentWriter =
+                        setUpNewPrintStream(true, classRes.getElementName(), methRes.getElementName(),
+                            "Latency");
+                    final StringBuilder header = new StringBuilder();
+                    final StringBuilder values = new StringBuilder();
+                    for (final double percentile : LATENCY_PERCENTILES) {
+                        header.append(getPercentileLabel(percentile)).append(",");
+                        values.append(latencies.getValueAtPercentile(percentile)).append(",");
+                    }
+                    header.append("max");
+                    values.append(latencies.getMaxValue());
+                    if (methRes.getTargetRate() > 0) {
+                        header.append(",target,achieved");
+                        values.append(",").append(methRes.getTargetRate()).append(",").append(
+                            methRes.meanAchievedRate());
+                    }
+                    currentWriter.append(header.toString()).append("\n").append(values.toString());
+                    currentWriter.flush();
+                }
             }
         }
         // Printing the exceptions
@@ -28,16 +28,24 @@ package org.perfidix.ouput;
 
 import java.io.PrintStream;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.perfidix.exceptions.AbstractPerfidixMethodException;
 import org.perfidix.exceptions.PerfidixMethodInvocationException;
+import org.perfidix.exceptions.PerfidixMethodTimeoutException;
 import org.perfidix.meter.AbstractMeter;
 import org.perfidix.ouput.asciitable.NiceTable;
 import org.perfidix.ouput.asciitable.AbstractTabularComponent.Alignment;
 import org.perfidix.result.AbstractResult;
 import org.perfidix.result.BenchmarkResult;
+import org.perfidix.result.CalibrationResult;
 import org.perfidix.result.ClassResult;
+import org.perfidix.result.GcResult;
+import org.perfidix.result.LatencyHistogram;
 import org.perfidix.result.MethodResult;
+import org.perfidix.result.RoundResult;
+import org.perfidix.result.WarmupResult;
 
 /**
  * Summary output using the {@link NiceTable} to format. Just giving an overview
@@ -95,6 +103,14 @@ public final class TabularSummaryOutput extends AbstractOutput {
             table = generateMeterResult("", meter, benchRes, table);
         }
 
+        table = generateThroughput(benchRes, table);
+        table = generateLatencies(benchRes, table);
+        table = generateWarmup(benchRes, table);
+        table = generateGc(benchRes, table);
+        table = generateRounds(benchRes, table);
+        table = generateCalibration(benchRes, table);
+        table = generateForkCpus(benchRes, table);
+
         table.addHeader("Exceptions", '=', Alignment.Center);
         for (final AbstractPerfidixMethodException exec : benchRes.getExceptions()) {
             final StringBuilder execBuilder0 = new StringBuilder();
@@ -104,6 +120,8 @@ public final class TabularSummaryOutput extends AbstractOutput {
             final StringBuilder execBuilder1 = new StringBuilder();
             if (exec instanceof PerfidixMethodInvocationException) {
                 execBuilder1.append("Related place: method invocation");
+            } else if (exec instanceof PerfidixMethodTimeoutException) {
+                execBuilder1.append("Related place: method timeout");
             } else {
                 execBuilder1.append("Related place: method check");
             }
@@ -153,14 +171,243 @@ public final class TabularSummaryOutput extends AbstractOutput {
         return input;
     }
 
+    /**
+     * Generating the throughput of all concurrently executed methods. If no
+     * method was executed concurrently, the table is not modified.
+     * 
+     * @param benchRes
+     *            the {@link BenchmarkResult} with the data
+     * @param input
+     *            the {@link NiceTable} to be print to
+     * @return the modified {@link NiceTable} instance
+     */
+    private NiceTable generateThroughput(final BenchmarkResult benchRes, final NiceTable input) {
+        boolean header = false;
+        for (final ClassResult classRes : benchRes.getIncludedResults()) {
+            for (final MethodResult methRes : classRes.getIncludedResults()) {
+                if (!methRes.getThroughputs().isEmpty()) {
+                    if (!header) {
+                        input.addHeader("Throughput", '=', Alignment.Center);
+                        header = true;
+                    }
+                    final StringBuilder builder = new StringBuilder();
+                    builder.append(classRes.getElementName()).append("#").append(methRes.getElementName())
+                        .append(" with ").append(methRes.getThreadResults().size()).append(" threads: ")
+                        .append(AbstractOutput.format(methRes.meanThroughput())).append(" ops/s");
+                    input.addHeader(builder.toString(), ' ', Alignment.Left);
+                }
+            }
+        }
+        return input;
+    }
+
+    /**
+     * Generating the latency percentiles of all sampled methods in
+     * nanoseconds plus the target and achieved rate of methods sampled at a
+     * fixed rate. If no method was sampled, the table is not modified.
+     * 
+     * @param benchRes
+     *            the {@link BenchmarkResult} with the data
+     * @param input
+     *            the {@link NiceTable} to be print to
+     * @return the modified {@link NiceTable} instance
+     */
+    private NiceTable generateLatencies(final BenchmarkResult benchRes, final NiceTable input) {
+        boolean header = false;
+        for (final ClassResult classRes : benchRes.getIncludedResults()) {
+            for (final MethodResult methRes : classRes.getIncludedResults()) {
+                final LatencyHistogram latencies = methRes.getLatencies();
+                if (latencies.getTotalCount() > 0) {
+                    if (!header) {
+                        input.addHeader("Latency", '=', Alignment.Center);
+                        header = true;
+                    }
+                    final StringBuilder title =
+                        new StringBuilder(classRes.getElementName()).append("#").append(
+                            methRes.getElementName()).append(" (").append(latencies.getTotalCount()).append(
+                            " samples, ns");
+                    if (methRes.getTargetRate() > 0) {
+                        title.append(", target ").append(AbstractOutput.format(methRes.getTargetRate()))
+                            .append(" ops/s, achieved ").append(
+                                AbstractOutput.format(methRes.meanAchievedRate())).append(" ops/s");
+                    }
+                    input.addHeader(title.append(")").toString(), '.', Alignment.Left);
+                    final StringBuilder builder = new StringBuilder();
+                    for (final double percentile : LATENCY_PERCENTILES) {
+                        builder.append(getPercentileLabel(percentile)).append("=").append(
+                            latencies.getValueAtPercentile(percentile)).append(" ");
+                    }
+                    builder.append("max=").append(latencies.getMaxValue());
+                    input.addHeader(builder.toString(), ' ', Alignment.Left);
+                }
+            }
+        }
+        return input;
+    }
+
+    /**
+     * Generating the warmup section for all methods with warmup runs. The
+     * section is omitted if no warmup took place.
+     * 
+     * @param benchRes
+     *            the {@link BenchmarkResult} instance
+     * @param input
+     *            the {@link NiceTable} to be print to
+     * @return the modified {@link NiceTable} instance
+     */
+    private NiceTable generateWarmup(final BenchmarkResult benchRes, final NiceTable input) {
+        NiceTable table = input;
+        boolean header = false;
+        for (final ClassResult classRes : benchRes.getIncludedResults()) {
+            for (final MethodResult methRes : classRes.getIncludedResults()) {
+                final WarmupResult warmup = methRes.getWarmupResult();
+                for (final AbstractMeter meter : warmup.getRegisteredMeters()) {
+                    if (!header) {
+                        table.addHeader("Warmup", '=', Alignment.Center);
+                        header = true;
+                    }
+                    table.addHeader(new StringBuilder(classRes.getElementName()).append("#").append(
+                        methRes.getElementName()).append(" (").append(meter.getName()).append(")").toString(),
+                        '.', Alignment.Left);
+                    table = generateMeterResult("", meter, warmup, table);
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Generating the section of all runs overlapping a garbage collection. The
+     * section is omitted if no run overlapped a garbage collection.
+     * 
+     * @param benchRes
+     *            the {@link BenchmarkResult} instance
+     * @param input
+     *            the {@link NiceTable} to be print to
+     * @return the modified {@link NiceTable} instance
+     */
+    private NiceTable generateGc(final BenchmarkResult benchRes, final NiceTable input) {
+        NiceTable table = input;
+        boolean header = false;
+        for (final ClassResult classRes : benchRes.getIncludedResults()) {
+            for (final MethodResult methRes : classRes.getIncludedResults()) {
+                final GcResult gc = methRes.getGcResult();
+                for (final AbstractMeter meter : gc.getRegisteredMeters()) {
+                    if (!header) {
+                        table.addHeader("Runs overlapping a garbage collection", '=', Alignment.Center);
+                        header = true;
+                    }
+                    table.addHeader(new StringBuilder(classRes.getElementName()).append("#").append(
+                        methRes.getElementName()).append(" (").append(meter.getName()).append(", ").append(
+                        gc.getNumberOfResult(meter)).append(" of ").append(methRes.getNumberOfResult(meter))
+                        .append(" runs)").toString(), '.', Alignment.Left);
+                    table = generateMeterResult("", meter, gc, table);
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Generating the rounds section for all methods arranged in rounds, one
+     * row per round to reveal a drift over the time of the benchmark. The
+     * section is omitted if no method was arranged in rounds.
+     * 
+     * @param benchRes
+     *            the {@link BenchmarkResult} instance
+     * @param input
+     *            the {@link NiceTable} to be print to
+     * @return the modified {@link NiceTable} instance
+     */
+    private NiceTable generateRounds(final BenchmarkResult benchRes, final NiceTable input) {
+        NiceTable table = input;
+        boolean header = false;
+        for (final ClassResult classRes : benchRes.getIncludedResults()) {
+            for (final MethodResult methRes : classRes.getIncludedResults()) {
+                for (final AbstractMeter meter : methRes.getRegisteredMeters()) {
+                    boolean methHeader = false;
+                    for (final RoundResult round : methRes.getRoundResults()) {
+                        if (!header) {
+                            table.addHeader("Rounds", '=', Alignment.Center);
+                            table.addHeader(new StringBuilder("Seed: ").append(benchRes.getSeed()).toString(),
+                                ' ', Alignment.Left);
+                            header = true;
+                        }
+                        if (!methHeader) {
+                            table.addHeader(new StringBuilder(classRes.getElementName()).append("#").append(
+                                methRes.getElementName()).append(" (").append(meter.getName()).append(")")
+                                .toString(), '.', Alignment.Left);
+                            methHeader = true;
+                        }
+                        table = generateMeterResult(round.getElementName(), meter, round, table);
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Generating the calibration section with the overhead of each meter. The
+     * section is omitted if no calibration took place.
+     * 
+     * @param benchRes
+     *            the {@link BenchmarkResult} instance
+     * @param input
+     *            the {@link NiceTable} to be print to
+     * @return the modified {@link NiceTable} instance
+     */
+    private NiceTable generateCalibration(final BenchmarkResult benchRes, final NiceTable input) {
+        NiceTable table = input;
+        final CalibrationResult calibration = benchRes.getCalibrationResult();
+        if (!calibration.getRegisteredMeters().isEmpty()) {
+            table.addHeader("Calibration", '=', Alignment.Center);
+            for (final AbstractMeter meter : calibration.getRegisteredMeters()) {
+                table = generateMeterResult(meter.getName(), meter, calibration, table);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Generating the section with the cpus of all pinned forks. The section is
+     * omitted if no fork was pinned.
+     * 
+     * @param benchRes
+     *            the {@link BenchmarkResult} instance
+     * @param input
+     *            the {@link NiceTable} to be print to
+     * @return the modified {@link NiceTable} instance
+     */
+    private NiceTable generateForkCpus(final BenchmarkResult benchRes, final NiceTable input) {
+        final Map<Integer, String> forkCpus = new TreeMap<Integer, String>(benchRes.getForkCpus());
+        if (!forkCpus.isEmpty()) {
+            input.addHeader("Cpu affinity", '=', Alignment.Center);
+            for (final Map.Entry<Integer, String> entry : forkCpus.entrySet()) {
+                input.addHeader(new StringBuilder("Fork ").append(entry.getKey()).append(": cpus ").append(
+                    entry.getValue()).toString(), ' ', Alignment.Left);
+            }
+        }
+        return input;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public boolean listenToResultSet(final Method meth, final AbstractMeter meter, final double data) {
+        return listenToResultSet(meth, "", meter, data);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean listenToResultSet(final Method meth, final String params, final AbstractMeter meter,
+        final double data) {
         final StringBuilder builder = new StringBuilder();
         builder.append("Class: ").append(meth.getDeclaringClass().getSimpleName()).append("#").append(
-            meth.getName());
+            getMethodName(meth, params));
         builder.append("\nMeter: ").append(meter.getName());
         builder.append("\nData: ").append(data).append("\n");
         out.println(builder.toString());
@@ -61,6 +61,14 @@ public abstract class AbstractResult {
      */
     private transient final Map<AbstractMeter, Collection<Double>> meterResults;
 
+    /**
+     * Incrementally updated statistics mapped to the meters.
+     */
+    private transient final Map<AbstractMeter, RunningStatistics> runningStats;
+
+    /** Quantile of the standard normal distribution for a 95% confidence. */
+    private final static double Z_95 = 1.959964d;
+
     /**
      * Constructor with a given name.
      * 
@@ -70,6 +78,7 @@ public abstract class AbstractResult {
     protected AbstractResult(final Object paramElement) {
         this.relatedElement = paramElement;
         this.meterResults = new Hashtable<AbstractMeter, Collection<Double>>();
+        this.runningStats = new Hashtable<AbstractMeter, RunningStatistics>();
 
     }
 
@@ -225,6 +234,61 @@ public abstract class AbstractResult {
         return max.evaluate(doubleColl.toArray(), 0, doubleColl.toArray().length);
     }
 
+    /**
+     * Returns the arithmetic mean of the result set based on the incrementally
+     * updated statistics. In contrast to {@link #mean(AbstractMeter)}, this
+     * method takes constant time.
+     * 
+     * @param meter
+     *            the meter of the mean
+     * @return the mean value, 0 if no data exists
+     */
+    public final double getRunningMean(final AbstractMeter meter) {
+        checkIfMeterExists(meter);
+        return runningStats.get(meter).mean;
+    }
+
+    /**
+     * Returns the sample variance of the result set based on the incrementally
+     * updated statistics in constant time.
+     * 
+     * @param meter
+     *            the meter of the variance
+     * @return the sample variance, 0 if less than two datasets exist
+     */
+    public final double getRunningVariance(final AbstractMeter meter) {
+        checkIfMeterExists(meter);
+        final RunningStatistics stats = runningStats.get(meter);
+        double returnVal = 0;
+        if (stats.count > 1) {
+            returnVal = stats.squaredDiffs / (stats.count - 1);
+        }
+        return returnVal;
+    }
+
+    /**
+     * Computes the width of the 95% confidence interval of the mean relative to
+     * the mean itself in constant time, based on the normal approximation.
+     * 
+     * @param meter
+     *            the meter of the confidence interval
+     * @return the relative width of the confidence interval, 0 if all
+     *         datasets are equal, {@link Double#POSITIVE_INFINITY} if less
+     *         than two datasets exist or the mean is 0
+     */
+    public final double getRelativeConfidenceWidth(final AbstractMeter meter) {
+        checkIfMeterExists(meter);
+        final RunningStatistics stats = runningStats.get(meter);
+        double returnVal = Double.POSITIVE_INFINITY;
+        if (stats.count > 1 && stats.squaredDiffs == 0) {
+            returnVal = 0;
+        } else if (stats.count > 1 && stats.mean != 0) {
+            final double halfWidth = Z_95 * Math.sqrt(getRunningVariance(meter) / stats.count);
+            returnVal = 2 * halfWidth / Math.abs(stats.mean);
+        }
+        return returnVal;
+    }
+
     /**
      * Returning the number of results for one specific meter.
      * 
@@ -257,6 +321,7 @@ public abstract class AbstractResult {
     protected final void addData(final AbstractMeter meter, final double data) {
         checkIfMeterExists(meter);
         meterResults.get(meter).add(data);
+        runningStats.get(meter).add(data);
     }
 
     /**
@@ -269,6 +334,7 @@ public abstract class AbstractResult {
     private void checkIfMeterExists(final AbstractMeter meter) {
         if (!meterResults.containsKey(meter)) {
             meterResults.put(meter, new LinkedList<Double>());
+            runningStats.put(meter, new RunningStatistics());
         }
     }
 
@@ -283,4 +349,33 @@ public abstract class AbstractResult {
         return builder.toString();
     }
 
+    /**
+     * Statistics updated with each dataset after Welford, offering mean and
+     * variance without iterating over the result set.
+     */
+    private static final class RunningStatistics {
+
+        /** Number of datasets. */
+        private transient int count;
+
+        /** Current mean. */
+        private transient double mean;
+
+        /** Sum of the squared differences from the current mean. */
+        private transient double squaredDiffs;
+
+        /**
+         * Adding one dataset.
+         * 
+         * @param data
+         *            to be added
+         */
+        private void add(final double data) {
+            count++;
+            final double delta = data - mean;
+            mean = mean + delta / count;
+            squaredDiffs = squaredDiffs + delta * (data - mean);
+        }
+    }
+
 }
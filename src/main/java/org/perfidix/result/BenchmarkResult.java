@@ -27,7 +27,10 @@
 package org.perfidix.result;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Map;
 import java.util.Set;
 
 import org.perfidix.exceptions.AbstractPerfidixMethodException;
@@ -53,6 +56,15 @@ public final class BenchmarkResult extends AbstractResultContainer<ClassResult>
     /** Outputs for listeners. */
     private transient final AbstractOutput[] outputs;
 
+    /** Data of the calibration runs. */
+    private transient final CalibrationResult calibrationResult;
+
+    /** Cpus the forks were pinned to, mapped to the index of the fork. */
+    private transient final Map<Integer, String> forkCpus;
+
+    /** Seed the runs were arranged with. */
+    private transient long seed;
+
     /**
      * Constructor.
      * 
@@ -63,6 +75,8 @@ public final class BenchmarkResult extends AbstractResultContainer<ClassResult>
         super(null);
         this.exceptions = new HashSet<AbstractPerfidixMethodException>();
         outputs = paramOutputs;
+        calibrationResult = new CalibrationResult();
+        forkCpus = new Hashtable<Integer, String>();
     }
 
     /** {@inheritDoc} */
@@ -83,28 +97,377 @@ public final class BenchmarkResult extends AbstractResultContainer<ClassResult>
      *            the data itself
      */
     public void addData(final Method meth, final AbstractMeter meter, final double data) {
+        addData(meth, "", meter, data);
+    }
 
-        final Class<?> clazz = meth.getDeclaringClass();
-        if (!elements.containsKey(clazz)) {
-            elements.put(clazz, new ClassResult(clazz));
-        }
-
-        final ClassResult clazzResult = elements.get(clazz);
-        if (!clazzResult.elements.containsKey(meth)) {
-            clazzResult.elements.put(meth, new MethodResult(meth));
-        }
+    /**
+     * Adding a dataset of one parameter combination of a method to a given
+     * meter and adapting the underlaying result model.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addData(final Method meth, final String params, final AbstractMeter meter, final double data) {
 
-        final MethodResult methodResult = clazzResult.elements.get(meth);
+        final ClassResult clazzResult = getClassResult(meth);
+        final MethodResult methodResult = getMethodResult(meth, params);
         methodResult.addData(meter, data);
         clazzResult.addData(meter, data);
         this.addData(meter, data);
 
         for (final AbstractOutput output : outputs) {
-            output.listenToResultSet(meth, meter, data);
+            output.listenToResultSet(meth, params, meter, data);
         }
 
     }
 
+    /**
+     * Adding a dataset of one thread of a concurrently executed method. The
+     * data itself has to be added with
+     * {@link #addData(Method, AbstractMeter, double)} as well, this method only
+     * stores the per-thread distribution.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param thread
+     *            the index of the thread
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addThreadData(final Method meth, final int thread, final AbstractMeter meter,
+        final double data) {
+        addThreadData(meth, "", thread, meter, data);
+    }
+
+    /**
+     * Adding a dataset of one thread of a concurrently executed parameter
+     * combination of a method.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param thread
+     *            the index of the thread
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addThreadData(final Method meth, final String params, final int thread,
+        final AbstractMeter meter, final double data) {
+        getMethodResult(meth, params).addThreadData(thread, meter, data);
+    }
+
+    /**
+     * Adding a dataset of one forked JVM. The data itself has to be added with
+     * {@link #addData(Method, AbstractMeter, double)} as well, this method only
+     * stores the per-fork separation.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param fork
+     *            the index of the fork
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addForkData(final Method meth, final int fork, final AbstractMeter meter, final double data) {
+        addForkData(meth, "", fork, meter, data);
+    }
+
+    /**
+     * Adding a dataset of one parameter combination of a method benched in a
+     * forked JVM.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param fork
+     *            the index of the fork
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addForkData(final Method meth, final String params, final int fork,
+        final AbstractMeter meter, final double data) {
+        getMethodResult(meth, params).addForkData(fork, meter, data);
+    }
+
+    /**
+     * Adding a dataset of one round of a parameter combination of a method
+     * arranged in rounds. The data itself has to be added with
+     * {@link #addData(Method, String, AbstractMeter, double)} as well, this
+     * method only stores the per-round separation.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param round
+     *            the index of the round
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addRoundData(final Method meth, final String params, final int round,
+        final AbstractMeter meter, final double data) {
+        getMethodResult(meth, params).addRoundData(round, meter, data);
+    }
+
+    /**
+     * Adding a dataset of one warmup run. The data is neither part of the
+     * aggregated results nor passed to the listeners.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addWarmupData(final Method meth, final AbstractMeter meter, final double data) {
+        addWarmupData(meth, "", meter, data);
+    }
+
+    /**
+     * Adding a dataset of one warmup run of a parameter combination of a
+     * method.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addWarmupData(final Method meth, final String params, final AbstractMeter meter,
+        final double data) {
+        getMethodResult(meth, params).addWarmupData(meter, data);
+    }
+
+    /**
+     * Flagging a dataset of a parameter combination of a method whose
+     * measurement overlapped a garbage collection. The data itself has to be
+     * added with {@link #addData(Method, String, AbstractMeter, double)} as
+     * well, this method only stores the flagged data separately.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addGcData(final Method meth, final String params, final AbstractMeter meter,
+        final double data) {
+        getMethodResult(meth, params).addGcData(meter, data);
+    }
+
+    /**
+     * Storing the cpus a fork was pinned to.
+     * 
+     * @param fork
+     *            the index of the fork
+     * @param cpus
+     *            the cpu list in the syntax of <code>taskset -c</code>
+     */
+    public void addForkCpus(final int fork, final String cpus) {
+        forkCpus.put(fork, cpus);
+    }
+
+    /**
+     * Getting the cpus the forks were pinned to.
+     * 
+     * @return a mapping from the index of the fork to its cpu list, empty if no
+     *         fork was pinned
+     */
+    public Map<Integer, String> getForkCpus() {
+        return Collections.unmodifiableMap(forkCpus);
+    }
+
+    /**
+     * Storing the seed the runs were arranged with.
+     * 
+     * @param paramSeed
+     *            the seed of the arrangement
+     */
+    public void setSeed(final long paramSeed) {
+        seed = paramSeed;
+    }
+
+    /**
+     * Getting the seed the runs were arranged with, a benchmark configured
+     * with this seed results in the same order of the runs.
+     * 
+     * @return the seed of the arrangement
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Adding a dataset of one calibration run. The data is neither part of
+     * the aggregated results nor passed to the listeners.
+     * 
+     * @param meter
+     *            where the result is corresponding to
+     * @param data
+     *            the data itself
+     */
+    public void addCalibrationData(final AbstractMeter meter, final double data) {
+        calibrationResult.addCalibrationData(meter, data);
+    }
+
+    /**
+     * Getting the data of the calibration runs.
+     * 
+     * @return the {@link CalibrationResult}, without any data if no
+     *         calibration took place
+     */
+    public CalibrationResult getCalibrationResult() {
+        return calibrationResult;
+    }
+
+    /**
+     * Adding the aggregate throughput of one concurrent run of a method.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param opsPerSecond
+     *            the operations per second over all threads
+     */
+    public void addThroughput(final Method meth, final double opsPerSecond) {
+        addThroughput(meth, "", opsPerSecond);
+    }
+
+    /**
+     * Adding the aggregate throughput of one concurrent run of a parameter
+     * combination of a method.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param opsPerSecond
+     *            the operations per second over all threads
+     */
+    public void addThroughput(final Method meth, final String params, final double opsPerSecond) {
+        getMethodResult(meth, params).addThroughput(opsPerSecond);
+    }
+
+    /**
+     * Adding the latencies of sampled invocations of a parameter combination
+     * of a method. The latencies are neither part of the aggregated results
+     * nor passed to the listeners.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param histogram
+     *            the latencies in nanoseconds
+     */
+    public void addLatencies(final Method meth, final String params, final LatencyHistogram histogram) {
+        getMethodResult(meth, params).addLatencies(histogram);
+    }
+
+    /**
+     * Adding a latency of sampled invocations of a parameter combination of a
+     * method.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param latency
+     *            the latency in nanoseconds
+     * @param count
+     *            the number of invocations with this latency
+     */
+    public void addLatency(final Method meth, final String params, final long latency, final long count) {
+        getMethodResult(meth, params).getLatencies().recordValue(latency, count);
+    }
+
+    /**
+     * Adding the rates of one sampling at a fixed rate of a parameter
+     * combination of a method.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @param target
+     *            the operations per second the invocations were scheduled at
+     * @param achieved
+     *            the operations per second actually executed
+     */
+    public void addRate(final Method meth, final String params, final double target, final double achieved) {
+        getMethodResult(meth, params).addRate(target, achieved);
+    }
+
+    /**
+     * Getting the {@link ClassResult} for the class of a method, a new one is
+     * created if not existing.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @return the related {@link ClassResult}
+     */
+    private ClassResult getClassResult(final Method meth) {
+        final Class<?> clazz = meth.getDeclaringClass();
+        if (!elements.containsKey(clazz)) {
+            elements.put(clazz, new ClassResult(clazz));
+        }
+        return elements.get(clazz);
+    }
+
+    /**
+     * Getting the {@link MethodResult} for a parameter combination of a
+     * method, a new one is created if not existing.
+     * 
+     * @param meth
+     *            where the result is corresponding to
+     * @param params
+     *            the parameter combination of the method, empty if not
+     *            parameterized
+     * @return the related {@link MethodResult}
+     */
+    private MethodResult getMethodResult(final Method meth, final String params) {
+        final ClassResult clazzResult = getClassResult(meth);
+        final Object key = MethodResult.getKey(meth, params);
+        if (!clazzResult.elements.containsKey(key)) {
+            clazzResult.elements.put(key, new MethodResult(meth, params));
+        }
+        return clazzResult.elements.get(key);
+    }
+
     /**
      * Adding an exception to this result.
      * 
@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.result;
+
+/**
+ * Histogram of latencies in nanoseconds with logarithmic buckets. Values below
+ * {@link #SUB_BUCKET_COUNT} are counted exactly, larger values are counted in
+ * buckets whose width doubles with each power of two, each power of two being
+ * divided into {@link #SUB_BUCKET_COUNT}/2 sub-buckets. Therefore the relative
+ * error of every value is below 1/128 while the memory consumption stays
+ * constant regardless of the number of recorded values and their range.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class LatencyHistogram {
+
+    /** Number of bits resolved within each power of two. */
+    private static final int SUB_BUCKET_BITS = 8;
+
+    /** Number of values counted exactly. */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** Number of sub-buckets of each power of two above the exact values. */
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    /** Number of powers of two above the exact values up to {@link Long#MAX_VALUE}. */
+    private static final int EXPONENTS = Long.SIZE - SUB_BUCKET_BITS;
+
+    /** Counts of all buckets. */
+    private transient final long[] counts;
+
+    /** Number of recorded values. */
+    private transient long totalCount;
+
+    /** Smallest recorded value. */
+    private transient long minValue;
+
+    /** Largest recorded value. */
+    private transient long maxValue;
+
+    /**
+     * Constructor, creating an empty histogram.
+     */
+    public LatencyHistogram() {
+        counts = new long[SUB_BUCKET_COUNT + (EXPONENTS - 1) * SUB_BUCKET_HALF];
+        totalCount = 0;
+        minValue = Long.MAX_VALUE;
+        maxValue = 0;
+    }
+
+    /**
+     * Recording one value.
+     * 
+     * @param value
+     *            the latency in nanoseconds, negative values are recorded as 0
+     */
+    public void recordValue(final long value) {
+        recordValue(value, 1);
+    }
+
+    /**
+     * Recording a value multiple times.
+     * 
+     * @param value
+     *            the latency in nanoseconds, negative values are recorded as 0
+     * @param count
+     *            how often the value occurred
+     */
+    public void recordValue(final long value, final long count) {
+        if (count > 0) {
+            final long toRecord = Math.max(0, value);
+            counts[getBucketIndex(toRecord)] += count;
+            totalCount += count;
+            minValue = Math.min(minValue, toRecord);
+            maxValue = Math.max(maxValue, toRecord);
+        }
+    }
+
+    /**
+     * Adding all values of another histogram to this one.
+     * 
+     * @param other
+     *            the histogram to be added
+     */
+    public void add(final LatencyHistogram other) {
+        if (other.totalCount > 0) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            totalCount += other.totalCount;
+            minValue = Math.min(minValue, other.minValue);
+            maxValue = Math.max(maxValue, other.maxValue);
+        }
+    }
+
+    /**
+     * Getting the number of recorded values.
+     * 
+     * @return the number of values
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Getting the smallest recorded value.
+     * 
+     * @return the exact smallest value, 0 if no value was recorded
+     */
+    public long getMinValue() {
+        long returnVal = 0;
+        if (totalCount > 0) {
+            returnVal = minValue;
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the largest recorded value.
+     * 
+     * @return the exact largest value, 0 if no value was recorded
+     */
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Getting the value below or equal which the given percentage of all
+     * values lie. The value is the upper bound of the related bucket but never
+     * larger than the largest recorded value.
+     * 
+     * @param percentile
+     *            between 0 and 100, e.g. 99.9
+     * @return the value at the percentile, 0 if no value was recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        final double boundedPercentile = Math.min(Math.max(percentile, 0), 100);
+        final long countAtPercentile =
+            Math.max(1, (long)Math.ceil(boundedPercentile / 100 * totalCount));
+        long returnVal = maxValue;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= countAtPercentile) {
+                returnVal = Math.min(getHighestValue(i), maxValue);
+                break;
+            }
+        }
+        return Math.max(returnVal, minValue);
+    }
+
+    /**
+     * Getting the number of buckets of this histogram.
+     * 
+     * @return the number of buckets
+     */
+    public int getNumberOfBuckets() {
+        return counts.length;
+    }
+
+    /**
+     * Getting the number of values counted in one bucket.
+     * 
+     * @param index
+     *            of the bucket
+     * @return the count of the bucket
+     */
+    public long getBucketCount(final int index) {
+        return counts[index];
+    }
+
+    /**
+     * Getting the smallest value counted in one bucket. Recording this value
+     * again counts it in the same bucket.
+     * 
+     * @param index
+     *            of the bucket
+     * @return the lower bound of the bucket
+     */
+    public long getBucketValue(final int index) {
+        long returnVal = index;
+        if (index >= SUB_BUCKET_COUNT) {
+            final int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+            final long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+            returnVal = subBucket << exponent;
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the largest value counted in one bucket.
+     * 
+     * @param index
+     *            of the bucket
+     * @return the upper bound of the bucket
+     */
+    private long getHighestValue(final int index) {
+        long returnVal = index;
+        if (index >= SUB_BUCKET_COUNT) {
+            final int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+            returnVal = getBucketValue(index) + (1L << exponent) - 1;
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the index of the bucket counting a value.
+     * 
+     * @param value
+     *            not negative
+     * @return the index of the bucket
+     */
+    private static int getBucketIndex(final long value) {
+        int returnVal = (int)value;
+        if (value >= SUB_BUCKET_COUNT) {
+            final int exponent = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            final int subBucket = (int)(value >>> exponent);
+            returnVal = SUB_BUCKET_COUNT + (exponent - 1) * SUB_BUCKET_HALF + subBucket - SUB_BUCKET_HALF;
+        }
+        return returnVal;
+    }
+
+}
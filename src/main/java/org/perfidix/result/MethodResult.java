@@ -27,6 +27,13 @@
 package org.perfidix.result;
 
 import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Hashtable;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.perfidix.meter.AbstractMeter;
 
 /**
  * Class to hold the result related to one method. That means that all
@@ -38,6 +45,36 @@ import java.lang.reflect.Method;
  */
 public final class MethodResult extends AbstractResult {
 
+    /** Results of concurrent executions mapped to the index of the thread. */
+    private transient final Map<Integer, ThreadResult> threadResults;
+
+    /** Throughput in operations per second of each concurrent run. */
+    private transient final Collection<Double> throughputs;
+
+    /** Results of forked JVMs mapped to the index of the fork. */
+    private transient final Map<Integer, ForkResult> forkResults;
+
+    /** Results of the rounds of the arrangement mapped to the index of the round. */
+    private transient final Map<Integer, RoundResult> roundResults;
+
+    /** Results of the warmup runs, not part of this result. */
+    private transient final WarmupResult warmupResult;
+
+    /** Results of the runs overlapping a garbage collection, part of this result. */
+    private transient final GcResult gcResult;
+
+    /** Latencies of all sampled invocations. */
+    private transient final LatencyHistogram latencies;
+
+    /** Achieved rate in operations per second of each scheduled sampling. */
+    private transient final Collection<Double> achievedRates;
+
+    /** Target rate in operations per second, 0 if not scheduled. */
+    private transient double targetRate;
+
+    /** Parameter combination of the method, empty if not parameterized. */
+    private transient final String parameters;
+
     /**
      * Simple Constructor.
      * 
@@ -45,13 +82,337 @@ public final class MethodResult extends AbstractResult {
      *            , the method related to these results
      */
     public MethodResult(final Method paramMethod) {
+        this(paramMethod, "");
+    }
+
+    /**
+     * Constructor for one parameter combination of a method.
+     * 
+     * @param paramMethod
+     *            the method related to these results
+     * @param paramParameters
+     *            the parameter combination, empty if not parameterized
+     */
+    public MethodResult(final Method paramMethod, final String paramParameters) {
         super(paramMethod);
+        parameters = paramParameters;
+        threadResults = new Hashtable<Integer, ThreadResult>();
+        throughputs = new LinkedList<Double>();
+        forkResults = new Hashtable<Integer, ForkResult>();
+        roundResults = new TreeMap<Integer, RoundResult>();
+        warmupResult = new WarmupResult(paramMethod);
+        gcResult = new GcResult(paramMethod);
+        latencies = new LatencyHistogram();
+        achievedRates = new LinkedList<Double>();
+        targetRate = 0;
+    }
+
+    /**
+     * Getting the results of the warmup runs of this method.
+     * 
+     * @return the {@link WarmupResult}, without any data if no warmup took
+     *         place
+     */
+    public WarmupResult getWarmupResult() {
+        return warmupResult;
+    }
+
+    /**
+     * Getting the results of the runs whose measurement overlapped a garbage
+     * collection.
+     * 
+     * @return the {@link GcResult}, without any data if no run overlapped a
+     *         garbage collection
+     */
+    public GcResult getGcResult() {
+        return gcResult;
+    }
+
+    /**
+     * Getting the latencies of all invocations if the method was sampled.
+     * 
+     * @return the {@link LatencyHistogram}, without any value if the method
+     *         was not sampled
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Getting the target rate of the sampled invocations.
+     * 
+     * @return the operations per second the invocations were scheduled at, 0
+     *         if the method was not sampled at a fixed rate
+     */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Getting the achieved rates of all samplings at a fixed rate.
+     * 
+     * @return a {@link Collection} with the operations per second of each
+     *         sampling
+     */
+    public Collection<Double> getAchievedRates() {
+        return achievedRates;
+    }
+
+    /**
+     * Computes the mean of the achieved rates over all samplings.
+     * 
+     * @return the mean operations per second, 0 if no sampling at a fixed
+     *         rate took place
+     */
+    public double meanAchievedRate() {
+        double sum = 0;
+        for (final Double each : achievedRates) {
+            sum = sum + each;
+        }
+        double returnVal = 0;
+        if (!achievedRates.isEmpty()) {
+            returnVal = sum / achievedRates.size();
+        }
+        return returnVal;
+    }
+
+    /**
+     * Getting the results of all threads if the method was executed
+     * concurrently.
+     * 
+     * @return a {@link Collection} of {@link ThreadResult} instances, empty if
+     *         the method was only executed by one thread
+     */
+    public Collection<ThreadResult> getThreadResults() {
+        return threadResults.values();
+    }
+
+    /**
+     * Getting the results for one thread.
+     * 
+     * @param thread
+     *            the index of the thread
+     * @return the {@link ThreadResult} of this thread, null if not existing
+     */
+    public ThreadResult getThreadResult(final int thread) {
+        return threadResults.get(thread);
+    }
+
+    /**
+     * Getting the results of all forks if the method was benched in forked
+     * JVMs.
+     * 
+     * @return a {@link Collection} of {@link ForkResult} instances, empty if
+     *         the method was benched in the current JVM
+     */
+    public Collection<ForkResult> getForkResults() {
+        return forkResults.values();
+    }
+
+    /**
+     * Getting the results for one fork.
+     * 
+     * @param fork
+     *            the index of the fork
+     * @return the {@link ForkResult} of this fork, null if not existing
+     */
+    public ForkResult getForkResult(final int fork) {
+        return forkResults.get(fork);
+    }
+
+    /**
+     * Getting the results of all rounds if the method was arranged in rounds.
+     * 
+     * @return a {@link Collection} of {@link RoundResult} instances ordered by
+     *         the index of the round, empty if the method was not arranged in
+     *         rounds
+     */
+    public Collection<RoundResult> getRoundResults() {
+        return roundResults.values();
+    }
+
+    /**
+     * Getting the results for one round.
+     * 
+     * @param round
+     *            the index of the round, starting at 1
+     * @return the {@link RoundResult} of this round, null if not existing
+     */
+    public RoundResult getRoundResult(final int round) {
+        return roundResults.get(round);
+    }
+
+    /**
+     * Getting the aggregate throughput of all concurrent runs of this method.
+     * 
+     * @return a {@link Collection} with the operations per second of each run
+     */
+    public Collection<Double> getThroughputs() {
+        return throughputs;
+    }
+
+    /**
+     * Computes the mean of the aggregate throughput over all concurrent runs.
+     * 
+     * @return the mean operations per second, 0 if no concurrent run took place
+     */
+    public double meanThroughput() {
+        double sum = 0;
+        for (final Double each : throughputs) {
+            sum = sum + each;
+        }
+        double returnVal = 0;
+        if (!throughputs.isEmpty()) {
+            returnVal = sum / throughputs.size();
+        }
+        return returnVal;
+    }
+
+    /**
+     * Adding a data of one thread to a meter.
+     * 
+     * @param thread
+     *            the index of the thread
+     * @param meter
+     *            the related meter
+     * @param data
+     *            the data to be added
+     */
+    void addThreadData(final int thread, final AbstractMeter meter, final double data) {
+        if (!threadResults.containsKey(thread)) {
+            threadResults.put(thread, new ThreadResult(thread));
+        }
+        threadResults.get(thread).addData(meter, data);
+    }
+
+    /**
+     * Adding a data of one fork to a meter.
+     * 
+     * @param fork
+     *            the index of the fork
+     * @param meter
+     *            the related meter
+     * @param data
+     *            the data to be added
+     */
+    void addForkData(final int fork, final AbstractMeter meter, final double data) {
+        if (!forkResults.containsKey(fork)) {
+            forkResults.put(fork, new ForkResult(fork));
+        }
+        forkResults.get(fork).addData(meter, data);
+    }
+
+    /**
+     * Adding a data of one round to a meter.
+     * 
+     * @param round
+     *            the index of the round
+     * @param meter
+     *            the related meter
+     * @param data
+     *            the data to be added
+     */
+    void addRoundData(final int round, final AbstractMeter meter, final double data) {
+        if (!roundResults.containsKey(round)) {
+            roundResults.put(round, new RoundResult(round));
+        }
+        roundResults.get(round).addData(meter, data);
+    }
+
+    /**
+     * Adding a data of one warmup run to a meter.
+     * 
+     * @param meter
+     *            the related meter
+     * @param data
+     *            the data to be added
+     */
+    void addWarmupData(final AbstractMeter meter, final double data) {
+        warmupResult.addData(meter, data);
+    }
+
+    /**
+     * Adding a data of one run overlapping a garbage collection to a meter.
+     * 
+     * @param meter
+     *            the related meter
+     * @param data
+     *            the data to be added
+     */
+    void addGcData(final AbstractMeter meter, final double data) {
+        gcResult.addData(meter, data);
+    }
+
+    /**
+     * Adding the throughput of one concurrent run.
+     * 
+     * @param opsPerSecond
+     *            the operations per second of this run
+     */
+    void addThroughput(final double opsPerSecond) {
+        throughputs.add(opsPerSecond);
+    }
+
+    /**
+     * Adding the latencies of sampled invocations.
+     * 
+     * @param histogram
+     *            the latencies to be added
+     */
+    void addLatencies(final LatencyHistogram histogram) {
+        latencies.add(histogram);
+    }
+
+    /**
+     * Adding the rates of one sampling at a fixed rate.
+     * 
+     * @param target
+     *            the operations per second the invocations were scheduled at
+     * @param achieved
+     *            the operations per second actually executed
+     */
+    void addRate(final double target, final double achieved) {
+        targetRate = target;
+        achievedRates.add(achieved);
+    }
+
+    /**
+     * Getting the parameter combination of the method of this result.
+     * 
+     * @return the parameter combination like <code>size=10</code>, empty if
+     *         not parameterized
+     */
+    public String getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Getting the key of a result within its {@link ClassResult}. Results of
+     * methods without parameters are keyed by the method itself.
+     * 
+     * @param meth
+     *            the method of the result
+     * @param params
+     *            the parameter combination, empty if not parameterized
+     * @return the key to be used with
+     *         {@link AbstractResultContainer#getResultForObject(Object)}
+     */
+    public static Object getKey(final Method meth, final String params) {
+        Object returnVal = meth;
+        if (params.length() > 0) {
+            returnVal = new StringBuilder(meth.toString()).append("[").append(params).append("]").toString();
+        }
+        return returnVal;
     }
 
     /** {@inheritDoc} */
     @Override
     public String getElementName() {
-        return ((Method)getRelatedElement()).getName();
+        final StringBuilder builder = new StringBuilder(((Method)getRelatedElement()).getName());
+        if (parameters.length() > 0) {
+            builder.append("[").append(parameters).append("]");
+        }
+        return builder.toString();
     }
 
 }
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.perfidix.AbstractConfig;
+import org.perfidix.AbstractConfig.DelegatingConfig;
 import org.perfidix.Benchmark;
 import org.perfidix.Perfidix;
 import org.perfidix.element.BenchmarkMethod;
@@ -73,10 +74,7 @@ public final class SocketAdapter {
         outputs[outputs.length - 1] = new SocketListener(view);
 
         // Building up the benchmark object
-        final AbstractConfig newConf =
-            new AbstractConfig(oldConf.getRuns(), oldConf.getMeters(), outputs, oldConf.getArrangement(),
-                oldConf.getGcProb()) {
-            };
+        final AbstractConfig newConf = new DelegatingConfig(oldConf, outputs);
         benchmark = new Benchmark(newConf);
 
     }
@@ -72,6 +72,14 @@ public final class SocketListener extends AbstractOutput {
     /** {@inheritDoc} */
     @Override
     public boolean listenToResultSet(final Method meth, final AbstractMeter meter, final double data) {
+        return listenToResultSet(meth, "", meter, data);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean listenToResultSet(final Method meth, final String params, final AbstractMeter meter,
+        final double data) {
+        // the view tracks the progress per method including all parameter combinations
         try {
             return view.updateCurrentElement(meter, (meth.getDeclaringClass().getName() + "." + meth
                 .getName()));
@@ -36,13 +36,32 @@ import org.junit.Before;
 import org.junit.Test;
 import org.perfidix.AbstractConfig.StandardConfig;
 import org.perfidix.annotation.BeforeBenchClass;
+import org.perfidix.benchmarktests.AdaptiveBench;
+import org.perfidix.benchmarktests.AdaptiveBench.AdaptiveConfig;
 import org.perfidix.benchmarktests.BeforeBenchClassError;
+import org.perfidix.benchmarktests.CalibratedBench;
+import org.perfidix.benchmarktests.CalibratedBench.CalibrationConfig;
+import org.perfidix.benchmarktests.InvalidBench;
 import org.perfidix.benchmarktests.NormalBenchForClassAndObjectAdd;
 import org.perfidix.benchmarktests.NormalCompleteBench;
 import org.perfidix.benchmarktests.NormalIncompleteBench;
+import org.perfidix.benchmarktests.ParamBench;
+import org.perfidix.benchmarktests.RoundBench;
+import org.perfidix.benchmarktests.RoundBench.RoundConfig;
+import org.perfidix.benchmarktests.SampledBench;
+import org.perfidix.benchmarktests.ScheduledBench;
+import org.perfidix.benchmarktests.StateBench;
+import org.perfidix.benchmarktests.TimeBoxedBench;
 import org.perfidix.element.BenchmarkMethod;
+import org.perfidix.element.KindOfArrangement;
 import org.perfidix.exceptions.AbstractPerfidixMethodException;
+import org.perfidix.exceptions.PerfidixMethodCheckException;
+import org.perfidix.meter.AbstractMeter;
 import org.perfidix.result.BenchmarkResult;
+import org.perfidix.result.ClassResult;
+import org.perfidix.result.LatencyHistogram;
+import org.perfidix.result.MethodResult;
+import org.perfidix.result.RoundResult;
 
 /**
  * Complete test for a normal Benchmark.
@@ -90,6 +109,23 @@ public final class BenchmarkTest {
 
     }
 
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with a method
+     * annotating invalid values.
+     */
+    @Test
+    public void testInvalidBench() {
+        InvalidBench.reset();
+        benchmark.add(InvalidBench.class);
+        assertEquals("Invalid method should be skipped", 1, benchmark.getBenchmarkMethods().size());
+        final BenchmarkResult benchRes = benchmark.run();
+        assertEquals("One Exception should be registered", 1, benchRes.getExceptions().size());
+        final AbstractPerfidixMethodException exec = benchRes.getExceptions().iterator().next();
+        assertTrue("The failure should be a check", exec instanceof PerfidixMethodCheckException);
+        assertEquals("The invalid method should be related", "invalidBench", exec.getMethod().getName());
+        assertEquals("The valid method should be benched", InvalidBench.RUNS, InvalidBench.getCounter());
+    }
+
     /**
      * Test method for {@link org.perfidix.Benchmark#run()} .
      */
@@ -215,4 +251,223 @@ public final class BenchmarkTest {
         benchmark.add(NormalBenchForClassAndObjectAdd.class);
     }
 
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with a confidence
+     * target.
+     */
+    @Test
+    public void testAdaptiveRun() {
+        final Benchmark adaptive = new Benchmark(new AdaptiveConfig(0.5, 1000));
+        adaptive.add(AdaptiveBench.class);
+        final BenchmarkResult benchRes = adaptive.run();
+        final int runs = benchRes.getNumberOfResult(AdaptiveBench.METER);
+        assertTrue("More than the fixed runs should be executed", runs > AdaptiveBench.RUNS);
+        assertTrue("Runs should stop before the cap", runs < 1000);
+        assertTrue("Target should be reached",
+            benchRes.getRelativeConfidenceWidth(AdaptiveBench.METER) <= 0.5);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with a confidence
+     * target and a further meter whose mean approaches 0.
+     */
+    @Test
+    public void testAdaptiveRunNearZeroMeter() {
+        AdaptiveBench.reset();
+        final Benchmark adaptive = new Benchmark(new AdaptiveConfig(0.5, 1000));
+        adaptive.add(AdaptiveBench.class);
+        final BenchmarkResult benchRes = adaptive.run();
+        assertTrue("Runs should stop before the cap", benchRes.getNumberOfResult(AdaptiveBench.METER) < 1000);
+        assertTrue("The further meter should not reach the target",
+            benchRes.getRelativeConfidenceWidth(AdaptiveBench.NOISE) > 0.5);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with a confidence
+     * target hitting the cap of runs.
+     */
+    @Test
+    public void testAdaptiveRunCap() {
+        final Benchmark adaptive = new Benchmark(new AdaptiveConfig(0.0001, 50));
+        adaptive.add(AdaptiveBench.class);
+        final BenchmarkResult benchRes = adaptive.run();
+        assertEquals("Runs should stop at the cap", 50, benchRes.getNumberOfResult(AdaptiveBench.METER));
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with a time-boxed
+     * bench.
+     */
+    @Test
+    public void testTimeBoxedRun() {
+        TimeBoxedBench.reset();
+        benchmark.add(TimeBoxedBench.class);
+        assertTrue("Time-boxed methods have no fixed elements", benchmark.getBenchmarkElements().isEmpty());
+        final long start = System.nanoTime();
+        final BenchmarkResult benchRes = benchmark.run();
+        final long elapsed = System.nanoTime() - start;
+
+        assertTrue("Bench should be executed repeatedly", TimeBoxedBench.getCounter() > 1);
+        assertTrue("Budget should be spent", elapsed >= TimeBoxedBench.DURATION * 1000000);
+        final AbstractMeter meter = benchRes.getRegisteredMeters().iterator().next();
+        assertEquals("Each invocation should be stored", TimeBoxedBench.getCounter(), benchRes
+            .getNumberOfResult(meter));
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with a sampled
+     * bench.
+     */
+    @Test
+    public void testSampledRun() {
+        SampledBench.reset();
+        benchmark.add(SampledBench.class);
+        final BenchmarkResult benchRes = benchmark.run();
+
+        final AbstractMeter meter = benchRes.getRegisteredMeters().iterator().next();
+        assertEquals("Meters should be stored once", 1, benchRes.getNumberOfResult(meter));
+        final MethodResult methRes =
+            benchRes.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+        final LatencyHistogram latencies = methRes.getLatencies();
+        assertTrue("Bench should be executed repeatedly", SampledBench.getCounter() > 1);
+        assertEquals("Each invocation should be recorded", SampledBench.getCounter(), latencies
+            .getTotalCount());
+        assertTrue("Percentiles should be ordered", latencies.getValueAtPercentile(50) <= latencies
+            .getValueAtPercentile(99.99));
+        assertTrue("Maximum should bound the percentiles", latencies.getValueAtPercentile(99.99) <= latencies
+            .getMaxValue());
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with a bench
+     * sampled at a fixed rate.
+     */
+    @Test
+    public void testScheduledRun() {
+        ScheduledBench.reset();
+        benchmark.add(ScheduledBench.class);
+        final BenchmarkResult benchRes = benchmark.run();
+
+        assertTrue("No exception should occur", benchRes.getExceptions().isEmpty());
+        final MethodResult methRes =
+            benchRes.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+        final LatencyHistogram latencies = methRes.getLatencies();
+        final long scheduled = (long)(ScheduledBench.DURATION * ScheduledBench.RATE / 1000);
+        assertEquals("Each invocation should be recorded", ScheduledBench.getCounter(), latencies
+            .getTotalCount());
+        assertTrue("Invocations should follow the schedule", latencies.getTotalCount() <= scheduled + 2);
+        assertTrue("Stall should delay the following invocations",
+            latencies.getValueAtPercentile(90) >= ScheduledBench.STALL * 1000000 / 10);
+        assertEquals("Target rate should be stored", ScheduledBench.RATE, methRes.getTargetRate(), 0d);
+        assertEquals("Achieved rate should be stored once", 1, methRes.getAchievedRates().size());
+        assertTrue("Achieved rate should be positive", methRes.meanAchievedRate() > 0);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with parameterized
+     * benches.
+     */
+    @Test
+    public void testParameterizedRun() {
+        ParamBench.reset();
+        benchmark.add(ParamBench.class);
+        assertEquals("Each combination should be a method", 6, benchmark.getBenchmarkMethods().size());
+        final BenchmarkResult benchRes = benchmark.run();
+
+        assertEquals("Each combination should be instantiated once", 6, ParamBench.getSetUp().size());
+        assertEquals("Each combination should be benched", 6 * ParamBench.RUNS, ParamBench.getInvoked()
+            .size());
+        for (final String combination : new String[] {
+            "a1", "a2", "a3", "b1", "b2", "b3"
+        }) {
+            assertTrue("SetUp should see the injected values", ParamBench.getSetUp().contains(combination));
+            int count = 0;
+            for (final String invoked : ParamBench.getInvoked()) {
+                if (invoked.equals(combination)) {
+                    count++;
+                }
+            }
+            assertEquals("Bench should see the injected values", ParamBench.RUNS, count);
+        }
+
+        final ClassResult classRes = benchRes.getIncludedResults().iterator().next();
+        assertEquals("Each combination should have its own result", 6, classRes.getIncludedResults().size());
+        final AbstractMeter meter = benchRes.getRegisteredMeters().iterator().next();
+        for (final MethodResult methRes : classRes.getIncludedResults()) {
+            assertEquals("Result should contain the runs of one combination", ParamBench.RUNS, methRes
+                .getNumberOfResult(meter));
+            assertTrue("Result should be keyed by the combination", methRes.getParameters().matches(
+                "size=[123], kind=[ab]"));
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with calibration.
+     */
+    @Test
+    public void testCalibration() {
+        benchmark = new Benchmark(new CalibrationConfig(false));
+        benchmark.add(CalibratedBench.class);
+        BenchmarkResult benchRes = benchmark.run();
+        final AbstractMeter meter = CalibratedBench.METER;
+
+        assertEquals("Each calibration run should be stored", CalibrationConfig.CALIBRATION_RUNS, benchRes
+            .getCalibrationResult().getNumberOfResult(meter));
+        assertEquals("Overhead should be one read", 1d, benchRes.getCalibrationResult().mean(meter), 0d);
+        assertEquals("Calibration should not be part of the result", CalibratedBench.RUNS, benchRes
+            .getNumberOfResult(meter));
+        assertEquals("Data should include the overhead", CalibratedBench.TICKS + 1d, benchRes.mean(meter), 0d);
+
+        benchmark = new Benchmark(new CalibrationConfig(true));
+        benchmark.add(CalibratedBench.class);
+        benchRes = benchmark.run();
+        assertEquals("Data should exclude the overhead", CalibratedBench.TICKS, benchRes.mean(meter), 0d);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with methods
+     * arranged in rounds.
+     */
+    @Test
+    public void testRoundRun() {
+        for (final KindOfArrangement kind : new KindOfArrangement[] {
+            KindOfArrangement.RandomizedBlockArrangement, KindOfArrangement.InterleavedArrangement
+        }) {
+            benchmark = new Benchmark(new RoundConfig(kind));
+            benchmark.add(RoundBench.class);
+            final BenchmarkResult benchRes = benchmark.run();
+            final AbstractMeter meter = benchRes.getRegisteredMeters().iterator().next();
+            assertEquals("All runs should be stored", 2 * RoundBench.RUNS, benchRes.getNumberOfResult(meter));
+            for (final ClassResult classRes : benchRes.getIncludedResults()) {
+                for (final MethodResult methRes : classRes.getIncludedResults()) {
+                    assertEquals("Each round should be stored", RoundBench.ROUNDS, methRes.getRoundResults()
+                        .size());
+                    int round = 1;
+                    for (final RoundResult roundRes : methRes.getRoundResults()) {
+                        assertEquals("Rounds should be ordered", round++, roundRes.getRelatedElement());
+                        assertEquals("Each round should hold one block", RoundBench.RUNS / RoundBench.ROUNDS,
+                            roundRes.getNumberOfResult(meter));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.Benchmark#run()} with a state shared
+     * by two classes.
+     */
+    @Test
+    public void testSharedState() {
+        StateBench.Index.reset();
+        benchmark.add(StateBench.FirstBench.class);
+        benchmark.add(StateBench.SecondBench.class);
+        final BenchmarkResult benchRes = benchmark.run();
+
+        assertTrue("No failures expected", benchRes.getExceptions().isEmpty());
+        assertEquals("State should be set up once for both classes", 1, StateBench.Index.getSetUps());
+        assertEquals("State should be used by all runs", 2 * StateBench.RUNS, StateBench.Index.getUses());
+        assertEquals("State should be torn down once", 1, StateBench.Index.getTearDowns());
+    }
+
 }
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.benchmarktests;
+
+import org.perfidix.AbstractConfig;
+import org.perfidix.annotation.Bench;
+import org.perfidix.element.KindOfArrangement;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.meter.CountingMeter;
+import org.perfidix.ouput.AbstractOutput;
+
+/**
+ * Bench with alternating data to test the adaptive mode.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class AdaptiveBench {
+
+    /** Meter ticked by the bench */
+    public final static CountingMeter METER = new CountingMeter();
+
+    /** Meter ticked by the first invocation only, its mean approaches 0 */
+    public final static CountingMeter NOISE = new CountingMeter("NoiseMeter");
+
+    /** Fixed runs of the bench */
+    public final static int RUNS = 2;
+
+    /** Switch for the alternating data */
+    private transient boolean odd;
+
+    /** Counter for the invocations */
+    private static int counter;
+
+    /**
+     * Bench ticking the meter alternating once and three times.
+     */
+    @Bench(runs = RUNS)
+    public void bench() {
+        counter++;
+        if (counter == 1) {
+            NOISE.tick();
+        }
+        odd = !odd;
+        METER.tick();
+        if (odd) {
+            METER.tick();
+            METER.tick();
+        }
+    }
+
+    /**
+     * Resetting the counter.
+     */
+    public static void reset() {
+        counter = 0;
+    }
+
+    /**
+     * Config for the adaptive mode.
+     */
+    public static final class AdaptiveConfig extends AbstractConfig {
+
+        /** Target of the config */
+        private transient final double target;
+
+        /** Maximum runs of the config */
+        private transient final int maxRuns;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramTarget
+         *            confidence target
+         * @param paramMaxRuns
+         *            maximum runs per method
+         */
+        public AdaptiveConfig(final double paramTarget, final int paramMaxRuns) {
+            super(RUNS, new AbstractMeter[] {
+                METER, NOISE
+            }, new AbstractOutput[0], KindOfArrangement.NoArrangement, 0d);
+            target = paramTarget;
+            maxRuns = paramMaxRuns;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getConfidenceTarget() {
+            return target;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getMaxAdaptiveRuns() {
+            return maxRuns;
+        }
+    }
+
+}
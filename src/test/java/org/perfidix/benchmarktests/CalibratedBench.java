@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.benchmarktests;
+
+import org.perfidix.AbstractConfig;
+import org.perfidix.annotation.Bench;
+import org.perfidix.element.KindOfArrangement;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.ouput.AbstractOutput;
+
+/**
+ * Bench for the calibration, measured by a meter with an overhead of one tick
+ * per read.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class CalibratedBench {
+
+    /** Meter ticked by the bench and by each read */
+    public final static OverheadMeter METER = new OverheadMeter();
+
+    /** Ticks of the bench */
+    public final static int TICKS = 3;
+
+    /** Runs of the bench */
+    public final static int RUNS = 5;
+
+    /**
+     * Bench ticking the meter.
+     */
+    @Bench(runs = RUNS)
+    public void bench() {
+        for (int i = 0; i < TICKS; i++) {
+            METER.tick();
+        }
+    }
+
+    /**
+     * Meter counting ticks, each read counts as tick as well.
+     */
+    public static final class OverheadMeter extends AbstractMeter {
+
+        /** Counter for ticks */
+        private transient long counter;
+
+        /**
+         * Ticking the meter.
+         */
+        public void tick() {
+            counter++;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double getValue() {
+            counter++;
+            return counter;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getUnit() {
+            return "ticks";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getUnitDescription() {
+            return "Ticks including reads";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getName() {
+            return "OverheadMeter";
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return getName().hashCode();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj;
+        }
+    }
+
+    /**
+     * Config for the calibration.
+     */
+    public static final class CalibrationConfig extends AbstractConfig {
+
+        /** Runs of the calibration */
+        public final static int CALIBRATION_RUNS = 10;
+
+        /** Subtraction of the overhead */
+        private transient final boolean subtracted;
+
+        /**
+         * Constructor.
+         * 
+         * @param paramSubtracted
+         *            true if the overhead should be subtracted
+         */
+        public CalibrationConfig(final boolean paramSubtracted) {
+            super(RUNS, new AbstractMeter[] {
+                METER
+            }, new AbstractOutput[0], KindOfArrangement.NoArrangement, 0d);
+            subtracted = paramSubtracted;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getCalibrationRuns() {
+            return CALIBRATION_RUNS;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isCalibrationSubtracted() {
+            return subtracted;
+        }
+    }
+
+}
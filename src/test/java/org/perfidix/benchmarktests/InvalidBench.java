@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.benchmarktests;
+
+import org.perfidix.annotation.Bench;
+
+/**
+ * Bench with one method annotating an invalid number of threads.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class InvalidBench {
+
+    /** Number of runs of the valid bench */
+    public final static int RUNS = 5;
+
+    /** Counter for the invocations */
+    private static int counter;
+
+    /**
+     * Valid bench.
+     */
+    @Bench(runs = RUNS)
+    public void bench() {
+        counter++;
+    }
+
+    /**
+     * Bench without any thread.
+     */
+    @Bench(runs = RUNS, threads = 0)
+    public void invalidBench() {
+        counter++;
+    }
+
+    /**
+     * Getting the counter of the invocations.
+     * 
+     * @return the number of invocations
+     */
+    public static int getCounter() {
+        return counter;
+    }
+
+    /**
+     * Resetting the counter.
+     */
+    public static void reset() {
+        counter = 0;
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.benchmarktests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.perfidix.annotation.BeforeBenchClass;
+import org.perfidix.annotation.Bench;
+import org.perfidix.annotation.Param;
+
+/**
+ * Bench with two parameters, benched for all combinations of their values.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class ParamBench {
+
+    /** Number of runs per combination */
+    public final static int RUNS = 2;
+
+    /** Combinations seen by the bench */
+    private static final List<String> INVOKED = new ArrayList<String>();
+
+    /** Combinations seen by the setUp of the class */
+    private static final List<String> SETUP = new ArrayList<String>();
+
+    /** First parameter */
+    @Param( {
+        "1", "2", "3"
+    })
+    private transient int size;
+
+    /** Second parameter */
+    @Param( {
+        "a", "b"
+    })
+    private transient String kind;
+
+    /**
+     * SetUp of the class, executed once per combination.
+     */
+    @BeforeBenchClass
+    public void setUp() {
+        SETUP.add(kind + size);
+    }
+
+    /**
+     * Parameterized bench.
+     */
+    @Bench(runs = RUNS)
+    public void bench() {
+        INVOKED.add(kind + size);
+    }
+
+    /**
+     * Getting the combinations seen by the bench.
+     * 
+     * @return one entry per invocation
+     */
+    public static List<String> getInvoked() {
+        return INVOKED;
+    }
+
+    /**
+     * Getting the combinations seen by the setUp of the class.
+     * 
+     * @return one entry per instance
+     */
+    public static List<String> getSetUp() {
+        return SETUP;
+    }
+
+    /**
+     * Resetting the combinations.
+     */
+    public static void reset() {
+        INVOKED.clear();
+        SETUP.clear();
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.benchmarktests;
+
+import org.perfidix.AbstractConfig;
+import org.perfidix.annotation.Bench;
+import org.perfidix.element.KindOfArrangement;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.meter.Time;
+import org.perfidix.meter.TimeMeter;
+import org.perfidix.ouput.AbstractOutput;
+
+/**
+ * Bench with two methods arranged in rounds.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class RoundBench {
+
+    /** Runs of each bench */
+    public final static int RUNS = 6;
+
+    /** Rounds of the arrangement */
+    public final static int ROUNDS = 3;
+
+    /**
+     * First bench.
+     */
+    @Bench(runs = RUNS)
+    public void bench1() {
+        // Just a bench-skeleton
+    }
+
+    /**
+     * Second bench.
+     */
+    @Bench(runs = RUNS)
+    public void bench2() {
+        // Just a bench-skeleton
+    }
+
+    /**
+     * Config for the rounds.
+     */
+    public static final class RoundConfig extends AbstractConfig {
+
+        /**
+         * Constructor.
+         * 
+         * @param paramArrangement
+         *            the round arrangement to be used
+         */
+        public RoundConfig(final KindOfArrangement paramArrangement) {
+            super(RUNS, new AbstractMeter[] {
+                new TimeMeter(Time.MilliSeconds)
+            }, new AbstractOutput[0], paramArrangement, 0d);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getRounds() {
+            return ROUNDS;
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.benchmarktests;
+
+import org.perfidix.annotation.AfterBenchClass;
+import org.perfidix.annotation.BeforeBenchClass;
+import org.perfidix.annotation.Bench;
+import org.perfidix.annotation.State;
+
+/**
+ * Two bench classes sharing one state of the benchmark scope.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class StateBench {
+
+    /** Runs of each bench */
+    public final static int RUNS = 5;
+
+    /**
+     * Hidden constructor.
+     */
+    private StateBench() {
+        // nothing to do
+    }
+
+    /**
+     * Expensive fixture shared by all bench classes.
+     */
+    @State(State.Scope.Benchmark)
+    public static final class Index {
+
+        private static int setUps;
+
+        private static int tearDowns;
+
+        private static int uses;
+
+        /**
+         * Resetting the counters.
+         */
+        public static void reset() {
+            setUps = 0;
+            tearDowns = 0;
+            uses = 0;
+        }
+
+        /**
+         * SetUp of the fixture.
+         */
+        @BeforeBenchClass
+        public void load() {
+            setUps++;
+        }
+
+        /**
+         * TearDown of the fixture.
+         */
+        @AfterBenchClass
+        public void unload() {
+            tearDowns++;
+        }
+
+        /**
+         * Getter for setUps.
+         * 
+         * @return the setUps
+         */
+        public static int getSetUps() {
+            return setUps;
+        }
+
+        /**
+         * Getter for tearDowns.
+         * 
+         * @return the tearDowns
+         */
+        public static int getTearDowns() {
+            return tearDowns;
+        }
+
+        /**
+         * Getter for uses.
+         * 
+         * @return the uses
+         */
+        public static int getUses() {
+            return uses;
+        }
+    }
+
+    /**
+     * First class using the fixture.
+     */
+    public static final class FirstBench {
+
+        /**
+         * Bench using the fixture.
+         * 
+         * @param index
+         *            the shared fixture
+         */
+        @Bench(runs = RUNS)
+        public void bench(final Index index) {
+            Index.uses++;
+        }
+    }
+
+    /**
+     * Second class using the fixture.
+     */
+    public static final class SecondBench {
+
+        /**
+         * Bench using the fixture.
+         * 
+         * @param index
+         *            the shared fixture
+         */
+        @Bench(runs = RUNS)
+        public void bench(final Index index) {
+            Index.uses++;
+        }
+    }
+
+}
@@ -32,6 +32,8 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -59,8 +61,8 @@ public class BenchmarkElementTest {
         final Method meth = clazz.getMethod("bench");
         final BenchmarkMethod benchMeth = new BenchmarkMethod(meth);
 
-        benchClass1 = new BenchmarkElement(benchMeth);
-        benchClass2 = new BenchmarkElement(benchMeth);
+        benchClass1 = new BenchmarkElement(benchMeth, 1);
+        benchClass2 = new BenchmarkElement(benchMeth, 2);
     }
 
     /**
@@ -91,6 +93,24 @@ public class BenchmarkElementTest {
             .getMeth().hashCode());
     }
 
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkElement#getMethodIndex()}
+     * of elements generated by an arrangement.
+     */
+    @Test
+    public void testMethodIndex() {
+        assertEquals("Element not arranged should have no index", -1, benchClass1.getMethodIndex());
+
+        final Map<BenchmarkMethod, Integer> runs = new LinkedHashMap<BenchmarkMethod, Integer>();
+        runs.put(benchClass1.getMeth(), 3);
+        int runIndex = 1;
+        for (final BenchmarkElement elem : AbstractMethodArrangement.getMethodArrangement(runs,
+            KindOfArrangement.NoArrangement, 0)) {
+            assertEquals("Index of the method should be set", 0, elem.getMethodIndex());
+            assertEquals("Run should be counted per method", runIndex++, elem.getId());
+        }
+    }
+
     class BenchClass {
         @Bench
         public void bench() {
@@ -30,12 +30,19 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -48,6 +55,7 @@ import org.perfidix.annotation.Bench;
 import org.perfidix.annotation.SkipBench;
 import org.perfidix.exceptions.PerfidixMethodCheckException;
 import org.perfidix.exceptions.PerfidixMethodInvocationException;
+import org.perfidix.exceptions.PerfidixMethodTimeoutException;
 import org.perfidix.meter.AbstractMeter;
 import org.perfidix.meter.CountingMeter;
 import org.perfidix.meter.Time;
@@ -76,6 +84,8 @@ public class BenchmarkExecutorTest {
 
     private transient BenchmarkResult res;
 
+    private transient BenchmarkSession session;
+
     /**
      * Simple SetUp.
      */
@@ -87,7 +97,7 @@ public class BenchmarkExecutorTest {
         meter.add(new CountingMeter());
         once = 0;
         each = 0;
-        BenchmarkExecutor.initialize(meter, res);
+        session = new BenchmarkSession(meter, res);
     }
 
     /**
@@ -100,7 +110,7 @@ public class BenchmarkExecutorTest {
 
     /**
      * Test method for
-     * {@link org.perfidix.element.BenchmarkExecutor#getExecutor(org.perfidix.element.BenchmarkElement)}
+     * {@link org.perfidix.element.BenchmarkSession#getExecutor(org.perfidix.element.BenchmarkElement)}
      */
     @Test
     public void testGetExecutor() {
@@ -112,8 +122,8 @@ public class BenchmarkExecutorTest {
             final BenchmarkMethod elem1 = new BenchmarkMethod(meth);
             final BenchmarkMethod elem2 = new BenchmarkMethod(meth);
 
-            final BenchmarkExecutor exec1 = BenchmarkExecutor.getExecutor(new BenchmarkElement(elem1));
-            final BenchmarkExecutor exec2 = BenchmarkExecutor.getExecutor(new BenchmarkElement(elem2));
+            final BenchmarkExecutor exec1 = session.getExecutor(new BenchmarkElement(elem1, 1));
+            final BenchmarkExecutor exec2 = session.getExecutor(new BenchmarkElement(elem2, 2));
 
             assertEquals("Singleton test of executor", exec1, exec2);
         } catch (final SecurityException e) {
@@ -123,6 +133,44 @@ public class BenchmarkExecutorTest {
         }
     }
 
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkSession} with two
+     * sessions running side by side.
+     */
+    @Test
+    public void testSeparateSessions() {
+        try {
+            final Method meth = BeforeClass.class.getMethod("bench");
+            final Object objToExecute = BeforeClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+
+            final BenchmarkResult otherRes = new BenchmarkResult();
+            final BenchmarkSession otherSession = new BenchmarkSession(meter, otherRes);
+
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            final BenchmarkExecutor otherExec = otherSession.getExecutor(new BenchmarkElement(elem, 1));
+            assertTrue("Sessions should not share executors", exec != otherExec);
+
+            exec.executeBeforeMethods(objToExecute);
+            otherExec.executeBeforeMethods(objToExecute);
+            assertEquals("Once should be invoked once per session", 2, once);
+
+            otherExec.executeBench(objToExecute);
+            assertTrue("Result of the first session should be empty", res.getIncludedResults().isEmpty());
+            final AbstractMeter firstMeter = meter.iterator().next();
+            assertEquals("Result of the second session should contain the data", 1, otherRes
+                .getNumberOfResult(firstMeter));
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
     /**
      * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBeforeMethods(java.lang.Object)}
      */
@@ -134,7 +182,7 @@ public class BenchmarkExecutorTest {
 
             final BenchmarkMethod elem = new BenchmarkMethod(meth);
 
-            final BenchmarkExecutor exec = BenchmarkExecutor.getExecutor(new BenchmarkElement(elem));
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
 
             exec.executeBeforeMethods(objToExecute);
             exec.executeBeforeMethods(objToExecute);
@@ -162,7 +210,7 @@ public class BenchmarkExecutorTest {
             final Method meth = NormalClass.class.getMethod(METHODNAME);
             final Object objToExecute = NormalClass.class.newInstance();
             final BenchmarkMethod elem = new BenchmarkMethod(meth);
-            final BenchmarkExecutor exec = BenchmarkExecutor.getExecutor(new BenchmarkElement(elem));
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
             exec.executeBench(objToExecute);
 
             assertEquals("Each is invoked just once", 1, each);
@@ -194,6 +242,368 @@ public class BenchmarkExecutorTest {
 
     }
 
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBench(Object)} with
+     * concurrent threads.
+     */
+    @Test
+    public void testExecuteConcurrentBench() {
+        try {
+            final Method meth = ConcurrentClass.class.getMethod(METHODNAME);
+            final Object objToExecute = ConcurrentClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            ConcurrentClass.COUNTER.set(0);
+            ConcurrentClass.NAMES.clear();
+            exec.executeBench(objToExecute);
+            exec.executeBench(objToExecute);
+            exec.shutdown();
+
+            assertTrue("Each thread invokes the bench repeatedly within the window",
+                ConcurrentClass.COUNTER.get() >= 2 * ConcurrentClass.THREADS);
+            assertEquals("The threads should be reused by all runs", ConcurrentClass.THREADS,
+                ConcurrentClass.NAMES.size());
+            final MethodResult methRes =
+                res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+            for (final AbstractMeter eachMeter : meter) {
+                assertEquals("Each thread should store its data", 2 * ConcurrentClass.THREADS, methRes
+                    .getNumberOfResult(eachMeter));
+            }
+            assertEquals("Each thread should have its own result", ConcurrentClass.THREADS, methRes
+                .getThreadResults().size());
+            assertEquals("Each thread result should contain both runs", 2, methRes.getThreadResult(0)
+                .getNumberOfResult(meter.iterator().next()));
+            assertEquals("The throughput is stored once per run", 2, methRes.getThroughputs().size());
+            assertTrue("The throughput has to be positive", methRes.meanThroughput() > 0);
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBench(Object)} with
+     * virtual threads, platform threads if not provided by the JVM.
+     */
+    @Test
+    public void testExecuteVirtualBench() {
+        try {
+            final Method meth = VirtualClass.class.getMethod(METHODNAME);
+            final Object objToExecute = VirtualClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            VirtualClass.COUNTER.set(0);
+            exec.executeBench(objToExecute);
+
+            exec.shutdown();
+
+            assertTrue("Each thread invokes the bench at least once",
+                VirtualClass.COUNTER.get() >= VirtualClass.THREADS);
+            final MethodResult methRes =
+                res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+            assertEquals("Each thread should store its data", VirtualClass.THREADS, methRes
+                .getNumberOfResult(meter.iterator().next()));
+            assertEquals("The throughput is stored once per run", 1, methRes.getThroughputs().size());
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeWarmup(Object)} .
+     */
+    @Test
+    public void testExecuteWarmup() {
+        try {
+            final Method meth = NormalClass.class.getMethod(METHODNAME);
+            final Object objToExecute = NormalClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            exec.executeWarmup(objToExecute);
+            exec.executeWarmup(objToExecute);
+            exec.executeBench(objToExecute);
+
+            assertEquals("Bench is invoked for warmup runs as well", 3, each);
+            final MethodResult methRes =
+                res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+            for (final AbstractMeter eachMeter : meter) {
+                assertEquals("Only the measured run should be stored", 1, methRes.getNumberOfResult(eachMeter));
+                assertEquals("Only the measured run should be aggregated", 1, res.getNumberOfResult(eachMeter));
+                assertEquals("Warmup runs should be stored separately", 2, methRes.getWarmupResult()
+                    .getNumberOfResult(eachMeter));
+            }
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBench(Object)} with
+     * multiple operations per invocation.
+     */
+    @Test
+    public void testExecuteOpsPerInvocation() {
+        try {
+            final Method meth = OpsClass.class.getMethod(METHODNAME);
+            final Object objToExecute = OpsClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            exec.executeBench(objToExecute);
+            exec.executeBench(objToExecute);
+
+            assertEquals("Bench is invoked for each operation", 2 * OpsClass.OPS, each);
+            final MethodResult methRes =
+                res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+            for (final AbstractMeter eachMeter : meter) {
+                assertEquals("Data should be stored once per run", 2, methRes.getNumberOfResult(eachMeter));
+            }
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBench(Object)} with a bench
+     * returning futures.
+     */
+    @Test
+    public void testExecuteAsyncBench() {
+        try {
+            final Method meth = AsyncClass.class.getMethod(METHODNAME);
+            final Object objToExecute = AsyncClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            AsyncClass.COMPLETED.set(0);
+            AsyncClass.MAX_RUNNING.set(0);
+            exec.executeBench(objToExecute);
+
+            assertTrue("No exception should occur", res.getExceptions().isEmpty());
+            assertEquals("All operations should be completed when the run ends", AsyncClass.OPS,
+                AsyncClass.COMPLETED.get());
+            assertTrue("Operations in flight should be bounded",
+                AsyncClass.MAX_RUNNING.get() <= AsyncClass.IN_FLIGHT);
+            final MethodResult methRes =
+                res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+            final AbstractMeter timeMeter = meter.iterator().next();
+            final double minTimePerOp =
+                (double)AsyncClass.SLEEP * (AsyncClass.OPS / AsyncClass.IN_FLIGHT) / AsyncClass.OPS;
+            assertTrue("Measured time should include the completion of the futures",
+                methRes.mean(timeMeter) >= minTimePerOp);
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBench(Object)} with
+     * concurrent threads keeping futures in flight across their invocations.
+     */
+    @Test
+    public void testExecuteConcurrentAsyncBench() {
+        try {
+            final Method meth = ConcurrentAsyncClass.class.getMethod(METHODNAME);
+            final Object objToExecute = ConcurrentAsyncClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            ConcurrentAsyncClass.MAX_RUNNING.set(0);
+            exec.executeBench(objToExecute);
+            exec.shutdown();
+
+            assertTrue("No exception should occur", res.getExceptions().isEmpty());
+            assertTrue("More than one operation per thread should be in flight",
+                ConcurrentAsyncClass.MAX_RUNNING.get() > 1);
+            assertTrue("Operations in flight per thread should be bounded",
+                ConcurrentAsyncClass.MAX_RUNNING.get() <= ConcurrentAsyncClass.IN_FLIGHT);
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeSampling(Object, long)}
+     * with a calibrated overhead.
+     */
+    @Test
+    public void testExecuteSamplingOffset() {
+        try {
+            final Set<AbstractMeter> ticks = new LinkedHashSet<AbstractMeter>();
+            ticks.add(SamplingClass.TICKS);
+            final Object objToExecute = SamplingClass.class.newInstance();
+
+            final BenchmarkResult sampledRes = new BenchmarkResult();
+            final BenchmarkSession sampledSession =
+                new BenchmarkSession(ticks, sampledRes, new double[] {
+                    1
+                }, 0);
+            final Method sampled = SamplingClass.class.getMethod(METHODNAME);
+            sampledSession.getExecutor(new BenchmarkElement(new BenchmarkMethod(sampled), 1)).executeSampling(
+                objToExecute, SamplingClass.DURATION);
+            final MethodResult sampledMeth =
+                sampledRes.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+            assertEquals("The overhead should be subtracted once per invocation",
+                SamplingClass.TICKS_PER_OP - 1, sampledMeth.mean(SamplingClass.TICKS), 0);
+
+            final BenchmarkResult ratedRes = new BenchmarkResult();
+            final BenchmarkSession ratedSession =
+                new BenchmarkSession(ticks, ratedRes, new double[] {
+                    1
+                }, 0);
+            final Method rated = SamplingClass.class.getMethod("ratedBench");
+            ratedSession.getExecutor(new BenchmarkElement(new BenchmarkMethod(rated), 1)).executeSampling(
+                objToExecute, SamplingClass.DURATION);
+            final MethodResult ratedMeth =
+                ratedRes.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+            assertEquals("The overhead should not be subtracted with a rate", SamplingClass.TICKS_PER_OP,
+                ratedMeth.mean(SamplingClass.TICKS), 0);
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBench(Object)} with a run
+     * overlapping a garbage collection.
+     */
+    @Test
+    public void testExecuteGcBench() {
+        try {
+            final Method meth = GcClass.class.getMethod(METHODNAME);
+            final Object objToExecute = GcClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            exec.executeBench(objToExecute);
+            exec.executeBench(objToExecute);
+
+            final MethodResult methRes =
+                res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+            for (final AbstractMeter eachMeter : meter) {
+                assertEquals("Data should be stored normally", 2, methRes.getNumberOfResult(eachMeter));
+                assertEquals("Data should be flagged", 2, methRes.getGcResult().getNumberOfResult(eachMeter));
+            }
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBench(Object)} with
+     * a bench exceeding its timeout and ignoring the interrupt.
+     */
+    @Test
+    public void testExecuteHungBench() {
+        try {
+            final Method meth = HungClass.class.getMethod(METHODNAME);
+            final Object objToExecute = HungClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            final long start = System.currentTimeMillis();
+            assertFalse("Bench should not be abandoned before", exec.isTimedOut());
+            exec.executeBeforeMethods(objToExecute);
+            exec.executeBench(objToExecute);
+            exec.executeAfterMethods(objToExecute);
+            exec.executeBeforeMethods(objToExecute);
+            exec.executeBench(objToExecute);
+            exec.executeAfterMethods(objToExecute);
+            final long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue("Hung invocation should be abandoned", elapsed < HungClass.HANG);
+            assertTrue("Abandoned state should be exposed", exec.isTimedOut());
+            assertEquals("Before method should be skipped after the abandon", 1, HungClass.BEFORE.get());
+            assertEquals("After method should be skipped after the abandon", 0, HungClass.AFTER.get());
+            assertEquals("Timeout should be stored once", 1, res.getExceptions().size());
+            assertTrue("Timeout should be stored as such",
+                res.getExceptions().iterator().next() instanceof PerfidixMethodTimeoutException);
+            assertEquals("Interrupt should be ignored", 1, HungClass.INTERRUPTS.get());
+            assertTrue("No data should be stored", res.getIncludedResults().isEmpty());
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeBench(Object)} with
+     * a bench exceeding its timeout and reacting on the interrupt.
+     */
+    @Test
+    public void testExecuteTimeoutBench() {
+        try {
+            final Method meth = TimeoutClass.class.getMethod(METHODNAME);
+            final Object objToExecute = TimeoutClass.class.newInstance();
+            final BenchmarkMethod elem = new BenchmarkMethod(meth);
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
+            TimeoutClass.NAMES.clear();
+            exec.executeBench(objToExecute);
+            exec.executeBench(objToExecute);
+            exec.shutdown();
+
+            assertEquals("Each timeout should be stored", 2, res.getExceptions().size());
+            assertEquals("Interrupted invocations should not be abandoned", 2, TimeoutClass.COUNTER.get());
+            assertEquals("The guarded worker should be reused by all runs", 1, TimeoutClass.NAMES.size());
+            assertFalse("The bench should not be abandoned", exec.isTimedOut());
+        } catch (final SecurityException e) {
+            fail(e.getMessage());
+        } catch (final NoSuchMethodException e) {
+            fail(e.getMessage());
+        } catch (final InstantiationException e) {
+            fail(e.getMessage());
+        } catch (final IllegalAccessException e) {
+            fail(e.getMessage());
+        }
+    }
+
     /**
      * Test method for {@link org.perfidix.element.BenchmarkExecutor#executeAfterMethods(java.lang.Object)}
      */
@@ -205,7 +615,7 @@ public class BenchmarkExecutorTest {
 
             final BenchmarkMethod elem = new BenchmarkMethod(meth);
 
-            final BenchmarkExecutor exec = BenchmarkExecutor.getExecutor(new BenchmarkElement(elem));
+            final BenchmarkExecutor exec = session.getExecutor(new BenchmarkElement(elem, 1));
 
             exec.executeAfterMethods(objToExecute);
             exec.executeAfterMethods(objToExecute);
@@ -286,6 +696,205 @@ class NormalClass {
 
 }
 
+class ConcurrentClass {
+
+    static final int THREADS = 4;
+
+    static final long WINDOW = 20;
+
+    static final AtomicInteger COUNTER = new AtomicInteger();
+
+    static final Set<String> NAMES = Collections.synchronizedSet(new HashSet<String>());
+
+    @Bench(threads = THREADS, window = WINDOW)
+    public void bench() {
+        COUNTER.incrementAndGet();
+        NAMES.add(Thread.currentThread().getName());
+    }
+
+}
+
+class VirtualClass {
+
+    static final int THREADS = 100;
+
+    static final AtomicInteger COUNTER = new AtomicInteger();
+
+    @Bench(threads = THREADS, virtualThreads = true, window = ConcurrentClass.WINDOW)
+    public void bench() {
+        COUNTER.incrementAndGet();
+    }
+
+}
+
+class OpsClass {
+
+    static final int OPS = 5;
+
+    @Bench(opsPerInvocation = OPS)
+    public void bench() {
+        BenchmarkExecutorTest.each++;
+    }
+
+}
+
+class AsyncClass {
+
+    static final int OPS = 6;
+
+    static final int IN_FLIGHT = 2;
+
+    static final long SLEEP = 10;
+
+    static final AtomicInteger COMPLETED = new AtomicInteger();
+
+    static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+
+    @Bench(opsPerInvocation = OPS, inFlight = IN_FLIGHT)
+    public Future<Integer> bench() {
+        final FutureTask<Integer> task = new FutureTask<Integer>(new Callable<Integer>() {
+            public Integer call() throws InterruptedException {
+                final int running = RUNNING.incrementAndGet();
+                int max = MAX_RUNNING.get();
+                while (running > max && !MAX_RUNNING.compareAndSet(max, running)) {
+                    max = MAX_RUNNING.get();
+                }
+                Thread.sleep(SLEEP);
+                RUNNING.decrementAndGet();
+                return COMPLETED.incrementAndGet();
+            }
+        });
+        new Thread(task).start();
+        return task;
+    }
+
+}
+
+class ConcurrentAsyncClass {
+
+    static final int THREADS = 2;
+
+    static final int IN_FLIGHT = 3;
+
+    static final long SLEEP = 5;
+
+    static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+
+    private static final ThreadLocal<AtomicInteger> RUNNING = new ThreadLocal<AtomicInteger>() {
+        @Override
+        protected AtomicInteger initialValue() {
+            return new AtomicInteger();
+        }
+    };
+
+    @Bench(threads = THREADS, inFlight = IN_FLIGHT, window = ConcurrentClass.WINDOW)
+    public Future<Integer> bench() {
+        // operations in flight of the invoking thread
+        final AtomicInteger running = RUNNING.get();
+        final int current = running.incrementAndGet();
+        int max = MAX_RUNNING.get();
+        while (current > max && !MAX_RUNNING.compareAndSet(max, current)) {
+            max = MAX_RUNNING.get();
+        }
+        final FutureTask<Integer> task = new FutureTask<Integer>(new Callable<Integer>() {
+            public Integer call() throws InterruptedException {
+                Thread.sleep(SLEEP);
+                return running.decrementAndGet();
+            }
+        });
+        new Thread(task).start();
+        return task;
+    }
+
+}
+
+class SamplingClass {
+
+    static final CountingMeter TICKS = new CountingMeter();
+
+    static final int TICKS_PER_OP = 2;
+
+    static final long DURATION = 5000000;
+
+    @Bench(duration = 5, timeUnit = Time.MilliSeconds, sampling = true)
+    public void bench() {
+        for (int i = 0; i < TICKS_PER_OP; i++) {
+            TICKS.tick();
+        }
+    }
+
+    @Bench(duration = 5, timeUnit = Time.MilliSeconds, rate = 10000)
+    public void ratedBench() {
+        bench();
+    }
+
+}
+
+class GcClass {
+
+    @Bench
+    public void bench() {
+        System.gc();
+    }
+
+}
+
+class HungClass {
+
+    static final long TIMEOUT = 50;
+
+    static final long HANG = 2000;
+
+    static final AtomicInteger INTERRUPTS = new AtomicInteger();
+
+    static final AtomicInteger BEFORE = new AtomicInteger();
+
+    static final AtomicInteger AFTER = new AtomicInteger();
+
+    @BeforeEachRun
+    public void before() {
+        BEFORE.incrementAndGet();
+    }
+
+    @AfterEachRun
+    public void after() {
+        AFTER.incrementAndGet();
+    }
+
+    @Bench(timeout = TIMEOUT)
+    public void bench() {
+        final long end = System.currentTimeMillis() + HANG;
+        while (System.currentTimeMillis() < end) {
+            try {
+                Thread.sleep(end - System.currentTimeMillis() + 1);
+            } catch (final InterruptedException e) {
+                INTERRUPTS.incrementAndGet();
+            }
+        }
+    }
+
+}
+
+class TimeoutClass {
+
+    static final AtomicInteger COUNTER = new AtomicInteger();
+
+    static final Set<String> NAMES = Collections.synchronizedSet(new HashSet<String>());
+
+    @Bench(timeout = HungClass.TIMEOUT)
+    public void bench() {
+        NAMES.add(Thread.currentThread().getName());
+        try {
+            Thread.sleep(HungClass.HANG);
+        } catch (final InterruptedException e) {
+            COUNTER.incrementAndGet();
+        }
+    }
+
+}
+
 class AfterClass {
 
     @Bench
@@ -34,7 +34,10 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -44,8 +47,10 @@ import org.perfidix.annotation.BeforeEachRun;
 import org.perfidix.annotation.BeforeFirstRun;
 import org.perfidix.annotation.Bench;
 import org.perfidix.annotation.BenchClass;
+import org.perfidix.annotation.Param;
 import org.perfidix.annotation.SkipBench;
 import org.perfidix.exceptions.PerfidixMethodCheckException;
+import org.perfidix.meter.Time;
 import static org.junit.Assert.assertFalse;
 
 /**
@@ -471,6 +476,95 @@ public class BenchmarkMethodTest {
         }
     }
 
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkMethod#getNumberOfAnnotatedThreads(Method)} .
+     * 
+     * @throws NoSuchMethodException
+     *             if the method is not found
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNumberOfAnnotatedThreads() throws NoSuchMethodException {
+        BenchmarkMethod.getNumberOfAnnotatedThreads(TestNoThreads.class.getDeclaredMethod("bench"));
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkMethod#getParameterCombinations(Class)} .
+     */
+    @Test
+    public void testParameterCombinations() {
+        try {
+            final List<Map<Field, String>> combinations =
+                BenchmarkMethod.getParameterCombinations(TestParameters.class);
+            assertEquals("Cartesian product should be built", 6, combinations.size());
+
+            final Method meth = TestParameters.class.getDeclaredMethod("bench");
+            final BenchmarkMethod first = new BenchmarkMethod(meth, combinations.get(0));
+            final BenchmarkMethod last = new BenchmarkMethod(meth, combinations.get(5));
+            assertEquals("Values should be converted", 10, first.getParameters().get(
+                TestParameters.class.getDeclaredField("size")));
+            assertEquals("Enums should be converted", Time.Seconds, last.getParameters().get(
+                TestParameters.class.getDeclaredField("unit")));
+            assertEquals("Check of the parameter string", "size=10, unit=MilliSeconds", first
+                .getParameterString());
+            assertFalse("Combinations should be distinguished", first.equals(last));
+            assertEquals("Equal combinations should be equal", first, new BenchmarkMethod(meth, combinations
+                .get(0)));
+
+            assertTrue("Unparameterized classes should have one empty combination", BenchmarkMethod
+                .getParameterCombinations(TestNumberOfAnnotatedRuns.class).get(0).isEmpty());
+
+            try {
+                BenchmarkMethod.getParameterCombinations(TestFinalParameter.class);
+                fail("Must throw IllegalArgumentException!");
+            } catch (final IllegalArgumentException e) {
+                assertTrue("Exception must match a pattern", e.getMessage().startsWith("Param"));
+            }
+        } catch (final NoSuchMethodException e) {
+            fail(e.toString());
+        } catch (final NoSuchFieldException e) {
+            fail(e.toString());
+        }
+    }
+
+    class TestNoThreads {
+
+        @Bench(threads = 0)
+        public void bench() {
+            // Just for the annotation
+        }
+    }
+
+    class TestParameters {
+
+        @Param( {
+            "10", "20", "30"
+        })
+        int size;
+
+        @Param( {
+            "MilliSeconds", "Seconds"
+        })
+        Time unit;
+
+        @Bench
+        public void bench() {
+            // Just for getting the bench
+        }
+    }
+
+    class TestFinalParameter {
+
+        @Param( {
+            "10"
+        })
+        final int size = 0;
+
+        @Bench
+        public void bench() {
+            // Just for getting the bench
+        }
+    }
+
     @BenchClass(runs = 20)
     class TestNumberOfAnnotatedRuns {
 
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.perfidix.annotation.AfterEachRun;
+import org.perfidix.annotation.BeforeEachRun;
+import org.perfidix.annotation.BeforeFirstRun;
+import org.perfidix.annotation.Bench;
+import org.perfidix.exceptions.AbstractPerfidixMethodException;
+import org.perfidix.exceptions.PerfidixMethodCheckException;
+
+/**
+ * Test case for the ExecutionPlan.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public class ExecutionPlanTest {
+
+    /** static int to check the beforeeachcounter */
+    public static int each;
+
+    /**
+     * Simple SetUp.
+     */
+    @Before
+    public void setUp() {
+        each = 0;
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.ExecutionPlan#executeBeforeEachRun(Object)} .
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testExecute() throws Exception {
+        final BenchmarkMethod meth = new BenchmarkMethod(PlanClass.class.getMethod("bench"));
+        final ExecutionPlan plan = meth.getExecutionPlan();
+        assertTrue("Plan should be built once per method", plan == meth.getExecutionPlan());
+
+        final Object obj = new PlanClass();
+        assertNull("No beforeFirstRun should be executed", plan.executeBeforeFirstRun(obj));
+        assertNull("BeforeEachRun should be executed", plan.executeBeforeEachRun(obj));
+        assertNull("BeforeEachRun should be executed", plan.executeBeforeEachRun(obj));
+        assertEquals("BeforeEachRun should be executed twice", 2, each);
+        assertNull("AfterEachRun should be executed", plan.executeAfterEachRun(obj));
+        assertEquals("AfterEachRun should be executed once", 1, each);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.ExecutionPlan} with an
+     * object not fitting to the methods.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testWrongObject() throws Exception {
+        final ExecutionPlan plan = new BenchmarkMethod(PlanClass.class.getMethod("bench")).getExecutionPlan();
+        final AbstractPerfidixMethodException exc = plan.executeBeforeEachRun(new Object());
+        assertTrue("Check should fail", exc instanceof PerfidixMethodCheckException);
+        assertEquals("Nothing should be executed", 0, each);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.ExecutionPlan} with failing
+     * search of the methods.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testFailedSearch() throws Exception {
+        final ExecutionPlan plan =
+            new BenchmarkMethod(DoublePlanClass.class.getMethod("bench")).getExecutionPlan();
+        final Object obj = new DoublePlanClass();
+        final AbstractPerfidixMethodException exc = plan.executeBeforeFirstRun(obj);
+        assertTrue("Search should fail", exc instanceof PerfidixMethodCheckException);
+        assertTrue("Failure should be kept", exc == plan.executeBeforeFirstRun(obj));
+        assertEquals("Nothing should be executed", 0, each);
+    }
+
+}
+
+class PlanClass {
+
+    @Bench
+    public void bench() {
+        // empty method, just for counting
+    }
+
+    @BeforeEachRun
+    public void beforeEach() {
+        ExecutionPlanTest.each++;
+    }
+
+    @AfterEachRun
+    public void afterEach() {
+        ExecutionPlanTest.each--;
+    }
+
+}
+
+class DoublePlanClass {
+
+    @Bench
+    public void bench() {
+        // empty method, just for counting
+    }
+
+    @BeforeFirstRun
+    public void beforeFirst1() {
+        ExecutionPlanTest.each++;
+    }
+
+    @BeforeFirstRun
+    public void beforeFirst2() {
+        ExecutionPlanTest.each++;
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.perfidix.annotation.Bench;
+
+/**
+ * Test case for the GcController.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public class GcControllerTest {
+
+    private transient BenchmarkMethod meth1;
+
+    private transient BenchmarkMethod meth2;
+
+    /**
+     * Simple setUp.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Before
+    public void setUp() throws Exception {
+        meth1 = new BenchmarkMethod(FirstGcClass.class.getMethod("bench"));
+        meth2 = new BenchmarkMethod(SecondGcClass.class.getMethod("bench"));
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.GcController#beforeRun(BenchmarkMethod)} with
+     * {@link KindOfGc#ForcedGc}.
+     */
+    @Test
+    public void testForcedGc() {
+        final GcController gc = new GcController(KindOfGc.ForcedGc, 0);
+        final long before = GcController.getCollectionCount();
+        gc.beforeRun(meth1);
+        assertTrue("Collection should be counted", GcController.getCollectionCount() > before);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.GcController#beforeRun(BenchmarkMethod)} with
+     * {@link KindOfGc#MethodGc}.
+     */
+    @Test
+    public void testMethodGc() {
+        final GcController gc = new GcController(KindOfGc.MethodGc, 0);
+        long before = GcController.getCollectionCount();
+        gc.beforeRun(meth1);
+        assertTrue("First run should be preceded by a gc", GcController.getCollectionCount() > before);
+
+        final long start = System.nanoTime();
+        gc.beforeRun(meth1);
+        assertTrue("Further runs of the same method should not wait", System.nanoTime() - start < 5000000);
+
+        before = GcController.getCollectionCount();
+        gc.beforeRun(meth2);
+        assertTrue("Change of the method should be preceded by a gc",
+            GcController.getCollectionCount() > before);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.GcController#beforeRun(BenchmarkMethod)} with
+     * {@link KindOfGc#NoGc}.
+     */
+    @Test
+    public void testNoGc() {
+        final GcController gc = new GcController(KindOfGc.NoGc, 1);
+        final long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            gc.beforeRun(meth1);
+        }
+        assertTrue("No gc should take place", System.nanoTime() - start < 5000000);
+    }
+
+    static class FirstGcClass {
+
+        @Bench
+        public void bench() {
+            // empty method, just for the policy
+        }
+    }
+
+    static class SecondGcClass {
+
+        @Bench
+        public void bench() {
+            // empty method, just for the policy
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.perfidix.annotation.Bench;
+import org.perfidix.exceptions.PerfidixMethodInvocationException;
+
+/**
+ * Test case for the MethodInvoker.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public class MethodInvokerTest {
+
+    /**
+     * Test method for {@link org.perfidix.element.MethodInvoker#invoke(Object)}.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testInvoke() throws Exception {
+        final InvokerClass obj = new InvokerClass();
+        final MethodInvoker invoker = new MethodInvoker(InvokerClass.class.getMethod("bench"), Bench.class);
+        assertNull("Invocation should succeed", invoker.invoke(obj));
+        assertNull("Invocation should succeed again", invoker.invoke(obj));
+        assertEquals("Method should be invoked twice", 2, obj.counter);
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.MethodInvoker#invoke(Object)} with a failing method.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testInvokeException() throws Exception {
+        final MethodInvoker invoker =
+            new MethodInvoker(InvokerClass.class.getMethod("failingBench"), Bench.class);
+        final PerfidixMethodInvocationException exec = invoker.invoke(new InvokerClass());
+        assertNotNull("Invocation should fail", exec);
+        assertEquals("Cause should be unwrapped", IllegalStateException.class, exec.getExec().getClass());
+        assertEquals("Annotation should be kept", Bench.class, exec.getRelatedAnno());
+        assertEquals("Method should be kept", invoker.getMethod(), exec.getMethod());
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.MethodInvoker#invoke(Object)} with a non-void method
+     * taking a {@link Blackhole}.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testInvokeBlackhole() throws Exception {
+        final InvokerClass obj = new InvokerClass();
+        final Method meth = InvokerClass.class.getMethod("blackholeBench", Blackhole.class);
+        assertTrue("Explicit benches with a blackhole should be benchmarkable", BenchmarkMethod
+            .isBenchmarkable(meth));
+        final MethodInvoker invoker = new BenchmarkMethod(meth).getInvoker();
+        assertNull("Invocation should succeed", invoker.invoke(obj));
+        assertSame("Blackhole of the invoker should be passed", invoker.getBlackhole(), obj.hole);
+    }
+
+}
+
+class InvokerClass {
+
+    Blackhole hole;
+
+    int counter;
+
+    @Bench
+    public void bench() {
+        counter++;
+    }
+
+    @Bench
+    public int blackholeBench(final Blackhole paramHole) {
+        hole = paramHole;
+        paramHole.consume(counter);
+        return counter * 2;
+    }
+
+    @Bench
+    public void failingBench() {
+        throw new IllegalStateException();
+    }
+
+}
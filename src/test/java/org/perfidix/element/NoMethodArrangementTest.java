@@ -57,7 +57,7 @@ public class NoMethodArrangementTest {
         final Class<?> testClazz = TestBenchClass.class;
         for (final Method meth : testClazz.getDeclaredMethods()) {
             if (BenchmarkMethod.isBenchmarkable(meth)) {
-                elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth)));
+                elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth), elemSet.size() + 1));
             }
         }
     }
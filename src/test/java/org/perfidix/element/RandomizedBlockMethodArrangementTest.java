@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.perfidix.annotation.Bench;
+
+/**
+ * Testcase for randomized block method arrangement.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public class RandomizedBlockMethodArrangementTest {
+
+    /** Runs of each method. */
+    private static final int RUNS = 12;
+
+    /** Rounds of the arrangement. */
+    private static final int ROUNDS = 4;
+
+    private transient List<BenchmarkElement> elemSet;
+
+    /**
+     * Before method to setUp Benchmarkables.
+     */
+    @Before
+    public void setUp() {
+        elemSet = new ArrayList<BenchmarkElement>();
+        final Class<?> testClazz = TestBenchClass.class;
+        for (final Method meth : testClazz.getDeclaredMethods()) {
+            if (BenchmarkMethod.isBenchmarkable(meth)) {
+                final BenchmarkMethod benchMeth = new BenchmarkMethod(meth);
+                for (int i = 0; i < RUNS; i++) {
+                    elemSet.add(new BenchmarkElement(benchMeth, elemSet.size() + 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.RandomizedBlockMethodArrangement}
+     * checking that each round holds the same share of runs of every method.
+     */
+    @Test
+    public void testRounds() {
+        final AbstractMethodArrangement arrangement =
+            AbstractMethodArrangement.getMethodArrangement(elemSet, KindOfArrangement.RandomizedBlockArrangement,
+                ROUNDS);
+        final Map<Integer, Map<String, Integer>> rounds = new Hashtable<Integer, Map<String, Integer>>();
+        int lastRound = 1;
+        int elems = 0;
+        for (final BenchmarkElement elem : arrangement) {
+            assertTrue("Rounds should be ascending", elem.getRound() >= lastRound);
+            lastRound = elem.getRound();
+            if (!rounds.containsKey(elem.getRound())) {
+                rounds.put(elem.getRound(), new Hashtable<String, Integer>());
+            }
+            final Map<String, Integer> round = rounds.get(elem.getRound());
+            final String name = elem.getMeth().getMethodToBench().getName();
+            round.put(name, round.containsKey(name) ? round.get(name) + 1 : 1);
+            elems++;
+        }
+        assertEquals("All elements should be arranged", elemSet.size(), elems);
+        assertEquals("Number of rounds should match", ROUNDS, rounds.size());
+        for (final Map<String, Integer> round : rounds.values()) {
+            assertEquals("Each round should contain every method", 3, round.size());
+            for (final Integer runs : round.values()) {
+                assertEquals("Each round should hold a block of each method", RUNS / ROUNDS, runs.intValue());
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.RandomizedBlockMethodArrangement}
+     * without a number of rounds, resulting in one round per run.
+     */
+    @Test
+    public void testDefaultRounds() {
+        final AbstractMethodArrangement arrangement =
+            AbstractMethodArrangement.getMethodArrangement(elemSet, KindOfArrangement.RandomizedBlockArrangement);
+        final Set<Integer> rounds = new HashSet<Integer>();
+        for (final BenchmarkElement elem : arrangement) {
+            rounds.add(elem.getRound());
+        }
+        assertEquals("Each run should be a round", RUNS, rounds.size());
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.RandomizedBlockMethodArrangement}
+     * checking that the runs of one method within a round are contiguous.
+     */
+    @Test
+    public void testContiguousBlocks() {
+        final AbstractMethodArrangement arrangement =
+            AbstractMethodArrangement.getMethodArrangement(elemSet, KindOfArrangement.RandomizedBlockArrangement,
+                ROUNDS);
+        final Set<String> finished = new HashSet<String>();
+        String current = null;
+        int round = 0;
+        for (final BenchmarkElement elem : arrangement) {
+            if (elem.getRound() != round) {
+                round = elem.getRound();
+                finished.clear();
+                current = null;
+            }
+            final String name = elem.getMeth().getMethodToBench().getName();
+            if (!name.equals(current)) {
+                assertTrue("Block of " + name + " should not be split", finished.add(name));
+                current = name;
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.RandomizedBlockMethodArrangement}
+     * checking that the same seed results in the same order of the runs.
+     */
+    @Test
+    public void testSeed() {
+        final long seed = 42L;
+        final List<Integer> first = new ArrayList<Integer>();
+        for (final BenchmarkElement elem : AbstractMethodArrangement.getMethodArrangement(elemSet,
+            KindOfArrangement.RandomizedBlockArrangement, ROUNDS, seed)) {
+            first.add(elem.getMethodIndex());
+        }
+        final List<Integer> second = new ArrayList<Integer>();
+        for (final BenchmarkElement elem : AbstractMethodArrangement.getMethodArrangement(elemSet,
+            KindOfArrangement.RandomizedBlockArrangement, ROUNDS, seed)) {
+            second.add(elem.getMethodIndex());
+        }
+        assertEquals("All elements should be arranged", elemSet.size(), first.size());
+        assertEquals("The same seed should result in the same order", first, second);
+    }
+
+    class TestBenchClass {
+
+        @Bench
+        public void bench1() {
+            // Just a bench-sekeleton
+        }
+
+        @Bench
+        public void bench2() {
+            // Just a bench-sekeleton
+        }
+
+        public void bench3() {
+            // Just a bench-sekeleton
+        }
+
+        @Bench
+        public void bench4() {
+            // Just a bench-sekeleton
+        }
+
+    }
+
+}
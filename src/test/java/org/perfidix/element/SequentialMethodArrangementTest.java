@@ -26,13 +26,17 @@
  */
 package org.perfidix.element;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -48,6 +52,7 @@ public class SequentialMethodArrangementTest {
     private transient List<BenchmarkElement> elemSet;
 
     private final static String BENCH1NAME = "bench1";
+    private final static int LAZY_RUNS = 1000000;
     private final static String BENCH2NAME = "bench2";
     private final static String BENCH4NAME = "bench4";
 
@@ -63,15 +68,15 @@ public class SequentialMethodArrangementTest {
         final Class<?> testClazz = TestBenchClass.class;
         for (final Method meth : testClazz.getDeclaredMethods()) {
             if (BenchmarkMethod.isBenchmarkable(meth)) {
-                elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth)));
+                elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth), elemSet.size() + 1));
             }
         }
         Method meth = testClazz.getMethod(BENCH2NAME);
-        elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth)));
+        elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth), elemSet.size() + 1));
         meth = testClazz.getMethod(BENCH2NAME);
-        elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth)));
+        elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth), elemSet.size() + 1));
         meth = testClazz.getMethod(BENCH4NAME);
-        elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth)));
+        elemSet.add(new BenchmarkElement(new BenchmarkMethod(meth), elemSet.size() + 1));
     }
 
     /**
@@ -110,6 +115,42 @@ public class SequentialMethodArrangementTest {
         }
     }
 
+    /**
+     * Test method for {@link org.perfidix.element.SequentialMethodArrangement}
+     * with a large number of runs generated lazily.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testLazyRuns() throws Exception {
+        final Class<?> testClazz = TestBenchClass.class;
+        final BenchmarkMethod bench1 = new BenchmarkMethod(testClazz.getMethod(BENCH1NAME));
+        final BenchmarkMethod bench2 = new BenchmarkMethod(testClazz.getMethod(BENCH2NAME));
+        final BenchmarkMethod bench4 = new BenchmarkMethod(testClazz.getMethod(BENCH4NAME));
+        final Map<BenchmarkMethod, Integer> runs = new LinkedHashMap<BenchmarkMethod, Integer>();
+        runs.put(bench4, 1);
+        runs.put(bench1, LAZY_RUNS);
+        runs.put(bench2, 2);
+
+        final AbstractMethodArrangement arrangement =
+            AbstractMethodArrangement.getMethodArrangement(runs, KindOfArrangement.SequentialMethodArrangement, 0);
+        final BenchmarkMethod[] expectedStart = {
+            bench1, bench2, bench4, bench1, bench2, bench1, bench1
+        };
+        int counter = 0;
+        for (final BenchmarkElement elem : arrangement) {
+            if (counter < expectedStart.length) {
+                assertEquals("Runs should be ordered sequentially", expectedStart[counter], elem.getMeth());
+            }
+            if (elem.getMeth().equals(bench1)) {
+                assertTrue("Run index should be counted per method", elem.getId() <= LAZY_RUNS);
+            }
+            counter++;
+        }
+        assertEquals("All runs should be arranged", LAZY_RUNS + 3, counter);
+    }
+
     class TestBenchClass {
 
         @Bench
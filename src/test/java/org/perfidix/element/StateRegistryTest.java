@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.perfidix.annotation.AfterBenchClass;
+import org.perfidix.annotation.BeforeBenchClass;
+import org.perfidix.annotation.Bench;
+import org.perfidix.annotation.State;
+import org.perfidix.result.BenchmarkResult;
+
+/**
+ * Test case for the states of a session.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public class StateRegistryTest {
+
+    private transient BenchmarkResult res;
+
+    private transient StateRegistry registry;
+
+    private transient BenchmarkMethod meth1;
+
+    private transient BenchmarkMethod meth2;
+
+    /**
+     * Simple setUp.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Before
+    public void setUp() throws Exception {
+        res = new BenchmarkResult();
+        registry = new StateRegistry(res);
+        meth1 =
+            new BenchmarkMethod(StateClass.class.getMethod("bench1", SharedState.class, ThreadState.class,
+                Blackhole.class));
+        meth2 = new BenchmarkMethod(StateClass.class.getMethod("bench2", SharedState.class, GroupState.class));
+        SharedState.setUps = 0;
+        SharedState.tearDowns = 0;
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.StateRegistry#getArguments(BenchmarkMethod, int)}
+     * checking the sharing of the scopes.
+     */
+    @Test
+    public void testScopes() {
+        final Object[] args10 = registry.getArguments(meth1, 0);
+        final Object[] args11 = registry.getArguments(meth1, 1);
+        final Object[] args20 = registry.getArguments(meth2, 0);
+        final Object[] args21 = registry.getArguments(meth2, 1);
+
+        assertSame("Benchmark scope should be shared by all benches", args10[0], args20[0]);
+        assertSame("Benchmark scope should be shared by all threads", args10[0], args11[0]);
+        assertNotSame("Thread scope should not be shared by threads", args10[1], args11[1]);
+        assertSame("Thread scope should be kept per thread", args10[1], registry.getArguments(meth1, 0)[1]);
+        assertSame("Group scope should be shared by the threads", args20[1], args21[1]);
+        assertSame("Blackhole of the bench should be passed", meth1.getInvoker().getBlackhole(), args10[2]);
+        assertEquals("State should be set up once", 1, SharedState.setUps);
+
+        registry.tearDown();
+        assertEquals("State should be torn down once", 1, SharedState.tearDowns);
+        assertTrue("No failures expected", res.getExceptions().isEmpty());
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.StateRegistry#getArguments(BenchmarkMethod, int)}
+     * with a failing setUp.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testFailingState() throws Exception {
+        final BenchmarkMethod meth = new BenchmarkMethod(StateClass.class.getMethod("bench3", FailingState.class));
+        assertNull("Arguments should not be available", registry.getArguments(meth, 0));
+        assertNull("Arguments should still not be available", registry.getArguments(meth, 0));
+        assertEquals("Failure should be stored once", 1, res.getExceptions().size());
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.BenchmarkMethod#isBenchmarkable(java.lang.reflect.Method)}
+     * with parameters not being states.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testNoState() throws Exception {
+        assertTrue("States should be benchmarkable", BenchmarkMethod.isBenchmarkable(meth1.getMethodToBench()));
+        assertTrue("Other parameters should not be benchmarkable", !BenchmarkMethod.isBenchmarkable(StateClass.class
+            .getMethod("bench4", String.class)));
+    }
+
+    /**
+     * State shared by all benches.
+     */
+    @State(State.Scope.Benchmark)
+    public static class SharedState {
+
+        static int setUps;
+
+        static int tearDowns;
+
+        /**
+         * SetUp of the state.
+         */
+        @BeforeBenchClass
+        public void setUp() {
+            setUps++;
+        }
+
+        /**
+         * TearDown of the state.
+         */
+        @AfterBenchClass
+        public void tearDown() {
+            tearDowns++;
+        }
+    }
+
+    /**
+     * State per thread.
+     */
+    @State(State.Scope.Thread)
+    public static class ThreadState {
+        // Just a state skeleton
+    }
+
+    /**
+     * State per bench.
+     */
+    @State(State.Scope.Group)
+    public static class GroupState {
+        // Just a state skeleton
+    }
+
+    /**
+     * State failing to be set up.
+     */
+    @State
+    public static class FailingState {
+
+        /**
+         * Failing setUp of the state.
+         */
+        @BeforeBenchClass
+        public void setUp() {
+            throw new IllegalStateException();
+        }
+    }
+
+    class StateClass {
+
+        @Bench
+        public void bench1(final SharedState shared, final ThreadState thread, final Blackhole hole) {
+            // Just a bench-skeleton
+        }
+
+        @Bench
+        public void bench2(final SharedState shared, final GroupState group) {
+            // Just a bench-skeleton
+        }
+
+        @Bench
+        public void bench3(final FailingState failing) {
+            // Just a bench-skeleton
+        }
+
+        @Bench
+        public void bench4(final String noState) {
+            // Just a bench-skeleton
+        }
+    }
+
+}
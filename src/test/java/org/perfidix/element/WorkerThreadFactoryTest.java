@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.element;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+/**
+ * Test case for the WorkerThreadFactory.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public class WorkerThreadFactoryTest {
+
+    /** Runnable doing nothing */
+    private static final Runnable EMPTY = new Runnable() {
+        public void run() {
+            // nothing to do
+        }
+    };
+
+    /**
+     * Test method for {@link org.perfidix.element.WorkerThreadFactory#newThread(Runnable)} with
+     * platform threads.
+     */
+    @Test
+    public void testPlatformThreads() {
+        final WorkerThreadFactory factory = new WorkerThreadFactory("bench", false);
+        assertFalse("Platform threads should be created", factory.isVirtual());
+        final Thread thread0 = factory.newThread(EMPTY);
+        final Thread thread1 = factory.newThread(EMPTY);
+        assertTrue("Platform threads should be daemons", thread0.isDaemon());
+        assertEquals("Threads should be named", "bench-0", thread0.getName());
+        assertEquals("Threads should be numbered", "bench-1", thread1.getName());
+    }
+
+    /**
+     * Test method for {@link org.perfidix.element.WorkerThreadFactory#newThread(Runnable)} with
+     * virtual threads, only checked if provided by the JVM.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testVirtualThreads() throws Exception {
+        final WorkerThreadFactory factory = new WorkerThreadFactory("bench", true);
+        boolean available = true;
+        try {
+            Thread.class.getMethod("ofVirtual");
+        } catch (final NoSuchMethodException e) {
+            available = false;
+        }
+        assertEquals("Virtual threads should be used if available", available, factory.isVirtual());
+        final Thread thread = factory.newThread(EMPTY);
+        assertEquals("Threads should be named", "bench-0", thread.getName());
+        if (available) {
+            final Method isVirtual = Thread.class.getMethod("isVirtual");
+            assertEquals("Thread should be virtual", Boolean.TRUE, isVirtual.invoke(thread));
+        } else {
+            assertTrue("Fallback should be a daemon platform thread", thread.isDaemon());
+        }
+    }
+
+}
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.LinkedList;
+
+import org.junit.Test;
+import org.perfidix.AbstractConfig;
+import org.perfidix.Benchmark;
+import org.perfidix.annotation.Bench;
+import org.perfidix.element.KindOfArrangement;
+import org.perfidix.fork.BenchmarkCoordinator.WorkUnit;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.meter.Time;
+import org.perfidix.meter.TimeMeter;
+import org.perfidix.ouput.AbstractOutput;
+import org.perfidix.result.BenchmarkResult;
+import org.perfidix.result.MethodResult;
+
+/**
+ * Test case for benching classes with workers connected over TCP.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class BenchmarkCoordinatorTest {
+
+    /** Number of workers. */
+    private final static int WORKERS = 2;
+
+    /** Number of runs. */
+    private final static int RUNS = 5;
+
+    /** Maximum number of runs per unit. */
+    private final static int UNIT_RUNS = 2;
+
+    /** Milliseconds to wait for a worker to connect. */
+    private final static int ACCEPT_TIMEOUT = 100;
+
+    /**
+     * Test method for {@link BenchmarkCoordinator#getWorkUnits(Benchmark)}.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testGetWorkUnits() throws Exception {
+        final BenchmarkCoordinator coordinator =
+            new BenchmarkCoordinator(new DistributedConfig(), 0, WORKERS, UNIT_RUNS);
+        final Benchmark bench = new Benchmark(new DistributedConfig());
+        bench.add(DistributedBench.class);
+        final LinkedList<WorkUnit> units = coordinator.getWorkUnits(bench);
+
+        assertEquals("Runs should be split into units", 3, units.size());
+        assertEquals("Full units should come first", UNIT_RUNS, units.get(0).getRuns());
+        assertEquals("Full units should come first", UNIT_RUNS, units.get(1).getRuns());
+        assertEquals("Remaining runs should form the last unit", RUNS - 2 * UNIT_RUNS, units.get(2).getRuns());
+    }
+
+    /**
+     * Test method for {@link BenchmarkCoordinator#run(Class...)}.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testDistributedRun() throws Exception {
+        final BenchmarkCoordinator coordinator =
+            new BenchmarkCoordinator(new DistributedConfig(), 0, WORKERS, UNIT_RUNS);
+        final Thread[] workers = new Thread[WORKERS];
+        for (int i = 0; i < WORKERS; i++) {
+            final BenchmarkWorker worker =
+                new BenchmarkWorker(new DistributedConfig(), null, coordinator.getPort());
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        worker.run();
+                    } catch (final Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            workers[i].start();
+        }
+        final BenchmarkResult res = coordinator.run(DistributedBench.class);
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+
+        assertTrue("No exceptions should occur, but got " + res.getExceptions(), res.getExceptions()
+            .isEmpty());
+        final MethodResult methRes =
+            res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+        final AbstractMeter meter = methRes.getRegisteredMeters().iterator().next();
+        assertEquals("Runs of all units should be merged", RUNS, methRes.getNumberOfResult(meter));
+        int runs = 0;
+        for (int i = 0; i < WORKERS; i++) {
+            if (methRes.getForkResult(i) != null) {
+                runs += methRes.getForkResult(i).getNumberOfResult(meter);
+            }
+        }
+        assertEquals("Runs should be stored per worker", RUNS, runs);
+    }
+
+    /**
+     * Test method for {@link BenchmarkCoordinator#run(Class...)} without any
+     * worker connecting in time.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testLocalRun() throws Exception {
+        final BenchmarkCoordinator coordinator =
+            new BenchmarkCoordinator(new DistributedConfig(), InetAddress.getByName(null), 0, WORKERS,
+                UNIT_RUNS, ACCEPT_TIMEOUT);
+        final BenchmarkResult res = coordinator.run(DistributedBench.class);
+
+        assertEquals("Accept timeout should be stored", 1, res.getExceptions().size());
+        assertTrue("Accept timeout should be stored as such", res.getExceptions().iterator().next()
+            .getExec() instanceof SocketTimeoutException);
+        final MethodResult methRes =
+            res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+        final AbstractMeter meter = methRes.getRegisteredMeters().iterator().next();
+        assertEquals("Units left should be benched locally", RUNS, methRes.getNumberOfResult(meter));
+    }
+
+    /**
+     * Test method for {@link BenchmarkCoordinator#run(Class...)} with a worker
+     * sending a rejected line after a valid one.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testRejectedUnit() throws Exception {
+        final BenchmarkCoordinator coordinator =
+            new BenchmarkCoordinator(new DistributedConfig(), InetAddress.getByName(null), 0, 1, UNIT_RUNS,
+                ACCEPT_TIMEOUT);
+        final String meth = DistributedBench.class.getMethod("bench").toString();
+        final Socket socket = new Socket("localhost", coordinator.getPort());
+        final Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final BufferedReader reader =
+                        new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+                    final PrintStream out = new PrintStream(socket.getOutputStream(), false, "UTF-8");
+                    BenchmarkWorker.readCommand(reader);
+                    BenchmarkWorker.readCommand(reader);
+                    BenchmarkWorker.writeCommand(out, ForkOutput.DATA, meth, "", "0", "1.0");
+                    BenchmarkWorker.writeCommand(out, ForkOutput.DATA, "unknown", "", "0", "1.0");
+                    BenchmarkWorker.writeCommand(out, BenchmarkWorker.RESULT);
+                    socket.close();
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        worker.start();
+        final BenchmarkResult res = coordinator.run(DistributedBench.class);
+        worker.join();
+
+        assertEquals("Rejected unit should be stored", 1, res.getExceptions().size());
+        final MethodResult methRes =
+            res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+        final AbstractMeter meter = methRes.getRegisteredMeters().iterator().next();
+        assertEquals("Rejected unit should not be merged partially", RUNS, methRes.getNumberOfResult(meter));
+        assertNull("Nothing should be stored for the worker", methRes.getForkResult(0));
+    }
+
+    /**
+     * Test method for
+     * {@link BenchmarkCoordinator#BenchmarkCoordinator(AbstractConfig, int, int, int)}
+     * with a forking configuration.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testForkedConfig() throws Exception {
+        new BenchmarkCoordinator(new ForkingConfig(), 0, WORKERS, UNIT_RUNS);
+    }
+
+    /**
+     * Config without forks, must be public to be instantiated by the workers.
+     */
+    public static final class DistributedConfig extends AbstractConfig {
+
+        /**
+         * Public constructor.
+         */
+        public DistributedConfig() {
+            super(RUNS, new AbstractMeter[] {
+                new TimeMeter(Time.MilliSeconds)
+            }, new AbstractOutput[0], KindOfArrangement.SequentialMethodArrangement, 1.0d);
+        }
+    }
+
+    /**
+     * Config with forks, not usable for distributed benchmarks.
+     */
+    public static final class ForkingConfig extends AbstractConfig {
+
+        /**
+         * Public constructor.
+         */
+        public ForkingConfig() {
+            super(RUNS, new AbstractMeter[] {
+                new TimeMeter(Time.MilliSeconds)
+            }, new AbstractOutput[0], KindOfArrangement.SequentialMethodArrangement, 1.0d);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getForks() {
+            return 1;
+        }
+    }
+
+    /**
+     * Class to bench by the workers.
+     */
+    public static final class DistributedBench {
+
+        /**
+         * Bench method.
+         */
+        @Bench
+        public void bench() {
+            Math.sqrt(Math.random());
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.Hashtable;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.perfidix.AbstractConfig;
+import org.perfidix.Benchmark;
+import org.perfidix.annotation.Bench;
+import org.perfidix.element.KindOfArrangement;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.meter.Time;
+import org.perfidix.meter.TimeMeter;
+import org.perfidix.ouput.AbstractOutput;
+import org.perfidix.result.BenchmarkResult;
+import org.perfidix.result.MethodResult;
+
+/**
+ * Test case for checkpointing and resuming a benchmark.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class CheckpointTest {
+
+    /** Number of runs. */
+    private final static int RUNS = 3;
+
+    /** Number of runs completed before the checkpoint. */
+    private final static int COMPLETED = 2;
+
+    /** File of the checkpoint. */
+    private File file;
+
+    /** Meter of the checkpoint. */
+    private AbstractMeter meter;
+
+    /** Bench method of {@link CheckpointBench}. */
+    private Method meth;
+
+    /**
+     * Simple setUp.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("perfidix", ".checkpoint");
+        file.deleteOnExit();
+        meter = ResumeConfig.METERS[0];
+        meth = CheckpointBench.class.getMethod("bench");
+        CheckpointBench.invocations = 0;
+        ResumeConfig.path = file.getPath();
+    }
+
+    /**
+     * Simple tearDown.
+     */
+    @After
+    public void tearDown() {
+        new Checkpoint(file, 0).delete();
+    }
+
+    /**
+     * Test method for {@link Checkpoint#save(BenchmarkResult)} and
+     * {@link Checkpoint#restore(Map, BenchmarkResult)}.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testSaveRestore() throws Exception {
+        final BenchmarkResult res = new BenchmarkResult();
+        final Checkpoint checkpoint = new Checkpoint(file, 0, meter);
+        for (int i = 0; i < COMPLETED; i++) {
+            res.addData(meth, meter, i);
+            checkpoint.addRun(meth, "");
+        }
+        res.addWarmupData(meth, meter, 1);
+        checkpoint.save(res);
+
+        final Map<String, Method> methods = new Hashtable<String, Method>();
+        methods.put(meth.toString(), meth);
+        final BenchmarkResult restoredRes = new BenchmarkResult();
+        final Checkpoint restored = new Checkpoint(file, 0, meter);
+        assertTrue("Checkpoint should be restored", restored.restore(methods, restoredRes));
+
+        final MethodResult methRes = getMethodResult(restoredRes);
+        assertEquals("Data should be restored", COMPLETED, methRes.getNumberOfResult(meter));
+        assertEquals("Warmup data should not be restored", 0, methRes.getWarmupResult().getNumberOfResult(
+            meter));
+        for (int i = 0; i < COMPLETED; i++) {
+            assertTrue("Completed runs should be skipped", restored.skipRun(meth, ""));
+        }
+        assertFalse("Further runs should not be skipped", restored.skipRun(meth, ""));
+
+        assertTrue("Checkpoint should be deleted", restored.delete());
+        assertFalse("Missing checkpoint should not be restored", restored.restore(methods,
+            new BenchmarkResult()));
+    }
+
+    /**
+     * Test method for {@link Checkpoint#restore(Map, BenchmarkResult)} with the
+     * file missing after a crash while saving.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testRestoreBackup() throws Exception {
+        final BenchmarkResult res = new BenchmarkResult();
+        final Checkpoint checkpoint = new Checkpoint(file, 0, meter);
+        for (int i = 0; i < COMPLETED; i++) {
+            res.addData(meth, meter, i);
+            checkpoint.addRun(meth, "");
+            checkpoint.save(res);
+        }
+        // crash after the former checkpoint was kept but before the new one was renamed
+        assertTrue("Checkpoint should be removed", file.delete());
+
+        final Map<String, Method> methods = new Hashtable<String, Method>();
+        methods.put(meth.toString(), meth);
+        final BenchmarkResult restoredRes = new BenchmarkResult();
+        final Checkpoint restored = new Checkpoint(file, 0, meter);
+        assertTrue("Former checkpoint should be restored", restored.restore(methods, restoredRes));
+        assertEquals("Data of the former checkpoint should be restored", COMPLETED - 1, getMethodResult(
+            restoredRes).getNumberOfResult(meter));
+
+        assertTrue("Checkpoints should be deleted", restored.delete());
+        assertFalse("Missing checkpoints should not be restored", restored.restore(methods,
+            new BenchmarkResult()));
+    }
+
+    /**
+     * Test method for {@link Benchmark#run()} resumed from a checkpoint.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testResumedRun() throws Exception {
+        final BenchmarkResult partialRes = new BenchmarkResult();
+        final Checkpoint checkpoint = new Checkpoint(file, 0, meter);
+        for (int i = 0; i < COMPLETED; i++) {
+            partialRes.addData(meth, meter, i);
+            checkpoint.addRun(meth, "");
+        }
+        checkpoint.save(partialRes);
+
+        final Benchmark bench = new Benchmark(new ResumeConfig());
+        bench.add(CheckpointBench.class);
+        final BenchmarkResult res = bench.run();
+
+        assertTrue("No exceptions should occur, but got " + res.getExceptions(), res.getExceptions()
+            .isEmpty());
+        assertEquals("Only the remaining runs should be invoked", RUNS - COMPLETED, CheckpointBench.invocations);
+        assertEquals("Restored and remaining runs should be stored", RUNS, getMethodResult(res)
+            .getNumberOfResult(meter));
+        assertFalse("Checkpoint should be deleted after the benchmark", file.exists());
+    }
+
+    /**
+     * Getting the only method result of a benchmark result.
+     * 
+     * @param res
+     *            the benchmark result
+     * @return the method result
+     */
+    private static MethodResult getMethodResult(final BenchmarkResult res) {
+        return res.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+    }
+
+    /**
+     * Config resuming from the checkpoint of the test.
+     */
+    public static final class ResumeConfig extends AbstractConfig {
+
+        /** Meters of the config. */
+        static final AbstractMeter[] METERS = {
+            new TimeMeter(Time.MilliSeconds)
+        };
+
+        /** Path of the checkpoint. */
+        static String path;
+
+        /**
+         * Public constructor.
+         */
+        public ResumeConfig() {
+            super(RUNS, METERS, new AbstractOutput[0], KindOfArrangement.SequentialMethodArrangement, 1.0d);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getCheckpointFile() {
+            return path;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getCheckpointInterval() {
+            return 0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isResumed() {
+            return true;
+        }
+    }
+
+    /**
+     * Class to bench, counting its invocations.
+     */
+    public static final class CheckpointBench {
+
+        /** Number of invocations of the bench. */
+        static int invocations;
+
+        /**
+         * Bench method.
+         */
+        @Bench
+        public void bench() {
+            invocations++;
+        }
+    }
+
+}
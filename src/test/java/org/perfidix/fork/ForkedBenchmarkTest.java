@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.fork;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.perfidix.AbstractConfig;
+import org.perfidix.Benchmark;
+import org.perfidix.annotation.Bench;
+import org.perfidix.element.KindOfArrangement;
+import org.perfidix.exceptions.PerfidixMethodInvocationException;
+import org.perfidix.meter.AbstractMeter;
+import org.perfidix.meter.Time;
+import org.perfidix.meter.TimeMeter;
+import org.perfidix.ouput.AbstractOutput;
+import org.perfidix.result.BenchmarkResult;
+import org.perfidix.result.ClassResult;
+import org.perfidix.result.MethodResult;
+
+/**
+ * Test case for benching classes in forked JVMs.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public final class ForkedBenchmarkTest {
+
+    /** Number of forks. */
+    private final static int FORKS = 2;
+
+    /** Number of runs. */
+    private final static int RUNS = 3;
+
+    /**
+     * Test method for {@link ForkedBenchmark#run(Class, BenchmarkResult)}.
+     */
+    @Test
+    public void testForkedRun() {
+        final Benchmark bench = new Benchmark(new ForkConfig());
+        bench.add(ForkedBench.class);
+        final BenchmarkResult res = bench.run();
+
+        assertTrue("No exceptions should occur, but got " + res.getExceptions(), res.getExceptions()
+            .isEmpty());
+        final ClassResult classRes = res.getIncludedResults().iterator().next();
+        final MethodResult methRes = classRes.getIncludedResults().iterator().next();
+        final AbstractMeter meter = methRes.getRegisteredMeters().iterator().next();
+        assertEquals("Runs of all forks should be aggregated", FORKS * RUNS, methRes.getNumberOfResult(meter));
+        assertEquals("Each fork should be stored", FORKS, methRes.getForkResults().size());
+        assertEquals("Each fork should hold its runs", RUNS, methRes.getForkResult(0).getNumberOfResult(meter));
+    }
+
+    /**
+     * Test method for {@link ForkedBenchmark#buildCommand(int, String, Class)} with pinned forks.
+     */
+    @Test
+    public void testBuildCommandPinned() {
+        final ForkedBenchmark forked = new ForkedBenchmark(new PinnedConfig());
+        final List<String> command = forked.buildCommand(1, PinnedConfig.class.getName(), ForkedBench.class);
+        if (System.getProperty("os.name", "").startsWith("Linux")) {
+            assertEquals("Fork should be pinned by taskset", "taskset", command.get(0));
+            assertEquals("Cpus should be cycled", PinnedConfig.CPUS[1], command.get(2));
+        } else {
+            assertNull("Forks are only pinned on Linux", forked.getCpus(1));
+        }
+    }
+
+    /**
+     * Test method for {@link ForkedBenchmark#run(Class, BenchmarkResult)} with a pinned fork.
+     */
+    @Test
+    public void testPinnedRun() {
+        if (!System.getProperty("os.name", "").startsWith("Linux")) {
+            return;
+        }
+        final Benchmark bench = new Benchmark(new PinnedConfig());
+        bench.add(ForkedBench.class);
+        final BenchmarkResult res = bench.run();
+
+        assertTrue("No exceptions should occur, but got " + res.getExceptions(), res.getExceptions()
+            .isEmpty());
+        assertEquals("Cpus of the fork should be recorded", PinnedConfig.CPUS[0], res.getForkCpus().get(0));
+        final MethodResult methRes = res.getIncludedResults().iterator().next().getIncludedResults().iterator()
+            .next();
+        assertEquals("Runs of the pinned fork should be stored", RUNS, methRes.getNumberOfResult(methRes
+            .getRegisteredMeters().iterator().next()));
+    }
+
+    /**
+     * Test method for {@link ForkedBenchmark#run(Class, BenchmarkResult)} with a crashing fork.
+     */
+    @Test
+    public void testCrashedRun() {
+        final Benchmark bench = new Benchmark(new CrashConfig());
+        bench.add(CrashBench.class);
+        final BenchmarkResult res = bench.run();
+
+        assertEquals("Exit code of the fork should be stored", 1, res.getExceptions().size());
+        final MethodResult methRes = res.getIncludedResults().iterator().next().getIncludedResults().iterator()
+            .next();
+        final AbstractMeter meter = methRes.getRegisteredMeters().iterator().next();
+        assertEquals("Runs before the crash should be kept", CrashBench.CRASH - 1, methRes
+            .getNumberOfResult(meter));
+    }
+
+    /**
+     * Test method for {@link ForkOutput#encode(Throwable)} and {@link ForkOutput#decode(String)}.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testEncodeDecode() throws Exception {
+        final Throwable decoded = ForkOutput.decode(ForkOutput.encode(new IllegalArgumentException("test")));
+        assertEquals("Class should be kept", IllegalArgumentException.class, decoded.getClass());
+        assertEquals("Message should be kept", "test", decoded.getMessage());
+    }
+
+    /**
+     * Test method for parsing an exception of an untrusted source, rebuilt
+     * from its description instead of being deserialized.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testUntrustedException() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final PrintStream out = new PrintStream(bytes, false, "UTF-8");
+        new ForkOutput(out).listenToException(new PerfidixMethodInvocationException(
+            new IllegalArgumentException("test"), Bench.class));
+        out.close();
+
+        final BenchmarkResult res = new BenchmarkResult();
+        ForkedBenchmark.parseLine(new String(bytes.toByteArray(), "UTF-8").trim(), -1, new AbstractMeter[0],
+            new Hashtable<String, Method>(), res, false);
+        assertEquals("Exception should be stored", 1, res.getExceptions().size());
+        final Throwable exec = res.getExceptions().iterator().next().getExec();
+        assertEquals("Exception should not be deserialized", IllegalStateException.class, exec.getClass());
+        assertEquals("Description should be kept", "java.lang.IllegalArgumentException: test", exec
+            .getMessage());
+    }
+
+    /**
+     * Test method for parsing lines of an untrusted source with missing fields
+     * or of unknown methods.
+     * 
+     * @throws Exception
+     *             of any kind
+     */
+    @Test
+    public void testUntrustedRejected() throws Exception {
+        final Method meth = ForkedBench.class.getMethod("bench");
+        final Map<String, Method> methods = new Hashtable<String, Method>();
+        methods.put(meth.toString(), meth);
+        final AbstractMeter[] meters = {
+            new TimeMeter(Time.MilliSeconds)
+        };
+        final String[] rejected = {
+            "no protocol", "perfidix-fork\tdata\t" + meth + "\t\t0",
+            "perfidix-fork\tdata\tunknown\t\t0\t1.0", "perfidix-fork\tunknown\t" + meth + "\t\t0\t1.0"
+        };
+        for (final String line : rejected) {
+            try {
+                ForkedBenchmark.parseLine(line, -1, meters, methods, new BenchmarkResult(), false);
+                fail("Line " + line + " should be rejected");
+            } catch (final IllegalArgumentException e) {
+                // expected
+            }
+        }
+        final BenchmarkResult res = new BenchmarkResult();
+        ForkedBenchmark.parseLine("perfidix-fork\tdata\t" + meth + "\t\t0\t1.0", -1, meters, methods, res,
+            false);
+        assertEquals("Valid line should be stored", 1, res.getRegisteredMeters().size());
+    }
+
+    /**
+     * Config with forks, must be public to be instantiated in the forks.
+     */
+    public static final class ForkConfig extends AbstractConfig {
+
+        /**
+         * Public constructor.
+         */
+        public ForkConfig() {
+            super(RUNS, new AbstractMeter[] {
+                new TimeMeter(Time.MilliSeconds)
+            }, new AbstractOutput[0], KindOfArrangement.SequentialMethodArrangement, 1.0d);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getForks() {
+            return FORKS;
+        }
+    }
+
+    /**
+     * Config with one fork pinned to the first cpu, must be public to be instantiated in the fork.
+     */
+    public static final class PinnedConfig extends AbstractConfig {
+
+        /** Cpus of the forks. */
+        static final String[] CPUS = {
+            "0", "0-1"
+        };
+
+        /**
+         * Public constructor.
+         */
+        public PinnedConfig() {
+            super(RUNS, new AbstractMeter[] {
+                new TimeMeter(Time.MilliSeconds)
+            }, new AbstractOutput[0], KindOfArrangement.SequentialMethodArrangement, 1.0d);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getForks() {
+            return 1;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String[] getForkCpus() {
+            return CPUS.clone();
+        }
+    }
+
+    /**
+     * Config with one fork, must be public to be instantiated in the fork.
+     */
+    public static final class CrashConfig extends AbstractConfig {
+
+        /**
+         * Public constructor.
+         */
+        public CrashConfig() {
+            super(RUNS, new AbstractMeter[] {
+                new TimeMeter(Time.MilliSeconds)
+            }, new AbstractOutput[0], KindOfArrangement.SequentialMethodArrangement, 1.0d);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int getForks() {
+            return 1;
+        }
+    }
+
+    /**
+     * Class halting its fork within the last run.
+     */
+    public static final class CrashBench {
+
+        /** Run halting the fork. */
+        static final int CRASH = RUNS;
+
+        /** Number of invocations. */
+        private static int invocations;
+
+        /**
+         * Bench method.
+         */
+        @Bench
+        public void bench() {
+            invocations++;
+            if (invocations == CRASH) {
+                Runtime.getRuntime().halt(1);
+            }
+        }
+    }
+
+    /**
+     * Class to bench within the forks.
+     */
+    public static final class ForkedBench {
+
+        /**
+         * Bench method.
+         */
+        @Bench
+        public void bench() {
+            Math.sqrt(Math.random());
+        }
+    }
+
+}
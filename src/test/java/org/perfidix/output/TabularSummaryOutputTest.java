@@ -219,6 +219,27 @@ public class TabularSummaryOutputTest {
         assertEquals("Complete listener test", builder.toString(), bytes.toString());
     }
 
+    /**
+     * Test method for
+     * {@link org.perfidix.ouput.TabularSummaryOutput#listenToResultSet(java.lang.reflect.Method, String, org.perfidix.meter.AbstractMeter, double)}
+     * with a parameter combination.
+     */
+    @Test
+    public final void testListenToParameterizedResultSet() {
+        final MethodResult methRes =
+            benchRes.getIncludedResults().iterator().next().getIncludedResults().iterator().next();
+        final AbstractMeter meter = methRes.getRegisteredMeters().iterator().next();
+        final TabularSummaryOutput output = new TabularSummaryOutput();
+        output.listenToResultSet((Method)methRes.getRelatedElement(), "size=10", meter, 1.0);
+
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Class: Class1#method1[size=10]\n");
+        builder.append(METERSTRING);
+        builder.append("Data: 1.0\n");
+        assertTrue("Parameter combination should qualify the method", bytes.toString().startsWith(
+            builder.toString()));
+    }
+
     /**
      * Test method for
      * {@link org.perfidix.ouput.TabularSummaryOutput#listenToException(org.perfidix.exceptions.AbstractPerfidixMethodException)}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2012, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.perfidix.result;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for the {@link LatencyHistogram}.
+ * 
+ * @author Sebastian Graf, University of Konstanz
+ */
+public class LatencyHistogramTest {
+
+    private transient LatencyHistogram histogram;
+
+    /**
+     * Simple setUp.
+     */
+    @Before
+    public void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    /**
+     * Test method for {@link LatencyHistogram#getValueAtPercentile(double)} with
+     * values counted exactly.
+     */
+    @Test
+    public void testExactValues() {
+        for (int i = 1; i <= 100; i++) {
+            histogram.recordValue(i);
+        }
+        assertEquals("All values should be counted", 100, histogram.getTotalCount());
+        assertEquals("Median should be exact", 50, histogram.getValueAtPercentile(50));
+        assertEquals("p99 should be exact", 99, histogram.getValueAtPercentile(99));
+        assertEquals("p100 should be the maximum", 100, histogram.getValueAtPercentile(100));
+        assertEquals("Minimum should be exact", 1, histogram.getMinValue());
+        assertEquals("Maximum should be exact", 100, histogram.getMaxValue());
+    }
+
+    /**
+     * Test method for {@link LatencyHistogram#getValueAtPercentile(double)} with
+     * values spread over many powers of two.
+     */
+    @Test
+    public void testRelativeError() {
+        long value = 1;
+        while (value < Long.MAX_VALUE / 3) {
+            final LatencyHistogram single = new LatencyHistogram();
+            single.recordValue(value);
+            single.recordValue(Long.MAX_VALUE);
+            final long recorded = single.getValueAtPercentile(50);
+            assertTrue("Value should not be underestimated", recorded >= value);
+            assertTrue("Relative error should be bounded", (recorded - value) <= value / 128);
+            value = value * 3;
+        }
+    }
+
+    /**
+     * Test method for {@link LatencyHistogram#getValueAtPercentile(double)} with
+     * a long tail.
+     */
+    @Test
+    public void testTail() {
+        for (int i = 0; i < 9990; i++) {
+            histogram.recordValue(1000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.recordValue(1000000);
+        }
+        assertTrue("p99 should not see the tail", histogram.getValueAtPercentile(99) < 1010);
+        assertTrue("p99.99 should see the tail", histogram.getValueAtPercentile(99.99) >= 1000000);
+        assertEquals("Maximum should be exact", 1000000, histogram.getMaxValue());
+    }
+
+    /**
+     * Test method for {@link LatencyHistogram#add(LatencyHistogram)} and the
+     * bucket access.
+     */
+    @Test
+    public void testAddAndBuckets() {
+        final LatencyHistogram other = new LatencyHistogram();
+        histogram.recordValue(5);
+        other.recordValue(123456789);
+        other.recordValue(-1);
+        histogram.add(other);
+        assertEquals("All values should be counted", 3, histogram.getTotalCount());
+        assertEquals("Negative values should be recorded as 0", 0, histogram.getMinValue());
+        assertEquals("Maximum should be taken over", 123456789, histogram.getMaxValue());
+
+        final LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < histogram.getNumberOfBuckets(); i++) {
+            copy.recordValue(histogram.getBucketValue(i), histogram.getBucketCount(i));
+        }
+        assertEquals("All buckets should be copied", histogram.getTotalCount(), copy.getTotalCount());
+        assertEquals("Bucket values should map to the same buckets", histogram.getValueAtPercentile(50),
+            copy.getValueAtPercentile(50));
+    }
+
+}
@@ -155,6 +155,22 @@ public class ResultContainerTest {
 
     }
 
+    /**
+     * Test method for the incremental statistics of {@link org.perfidix.result.AbstractResult} .
+     */
+    @Test
+    public void testRunningStatistics() {
+        assertEquals("Running mean should be the same as the mean", methodRes11.mean(meter), methodRes11
+            .getRunningMean(meter), 0.000001);
+        final double stdDev = methodRes11.getStandardDeviation(meter);
+        assertEquals("Running variance should be the same as the variance", stdDev * stdDev, methodRes11
+            .getRunningVariance(meter), 0.000001);
+        assertEquals("Relative width should be based on the normal approximation", 2 * 1.959964 * stdDev
+            / Math.sqrt(10) / 5.5, methodRes11.getRelativeConfidenceWidth(meter), 0.000001);
+        assertEquals("Running mean should be the same for the benchmark", benchRes.mean(meter), benchRes
+            .getRunningMean(meter), 0.000001);
+    }
+
     /**
      * Test method2 for {@link org.perfidix.result.MethodResult} .
      */